@@ -0,0 +1,205 @@
+package mainproject;
+
+import javax.imageio.ImageIO;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registre central des ressources du jeu (images, polices, sons).
+ * Chaque ressource est décodée une seule fois, même si plusieurs threads la demandent en même temps,
+ * puis partagée par tous ceux qui l'utilisent (poids mouche) : créer 1000 PNJ ne décode
+ * pas 4000 PNG. La mémoire occupée par chaque ressource (et ses versions agrandies) est suivie.
+ *
+ * Les images partagées ne doivent jamais être modifiées par ceux qui les reçoivent.
+ */
+public class AssetManager {
+
+    /** Registre partagé par tout le jeu */
+    private static final AssetManager SHARED = new AssetManager();
+
+    /** Images décodées, par chemin de ressource */
+    private final ConcurrentHashMap<String, BufferedImage> images = new ConcurrentHashMap<>();
+
+    /** Polices chargées, par chemin de ressource */
+    private final ConcurrentHashMap<String, Font> fonts = new ConcurrentHashMap<>();
+
+    /** Sons décodés, par chemin de ressource */
+    private final ConcurrentHashMap<String, Sound> sounds = new ConcurrentHashMap<>();
+
+    /** Mémoire occupée par ressource (en octets) */
+    private final ConcurrentHashMap<String, AtomicLong> memoryByAsset = new ConcurrentHashMap<>();
+
+    /** Nombre de décodages effectués depuis la création du registre */
+    private final AtomicInteger loadCount = new AtomicInteger();
+
+    public static AssetManager getShared() {
+        return SHARED;
+    }
+
+    /**
+     * Retourne l'image d'origine d'une ressource, décodée à la première demande.
+     *
+     * @param path chemin de la ressource (ex : "/pnj/bas1.png")
+     */
+    public BufferedImage getImage(String path) throws IOException {
+        try {
+            return images.computeIfAbsent(path, p -> {
+                try {
+                    BufferedImage image = decodeImage(p);
+                    addMemory(p, imageBytes(image));
+                    return image;
+                } catch (IOException e) {
+                    throw new LoadFailure(e);
+                }
+            });
+        } catch (LoadFailure e) {
+            throw (IOException) e.getCause();
+        }
+    }
+
+    /**
+     * Retourne une police TrueType, chargée et enregistrée dans l'environnement graphique
+     * à la première demande. Les tailles se dérivent ensuite avec deriveFont.
+     *
+     * @param path chemin de la ressource (ex : "/fonts/Minecraftia-Regular.ttf")
+     */
+    public Font getFont(String path) throws IOException, FontFormatException {
+        try {
+            return fonts.computeIfAbsent(path, p -> {
+                try (InputStream is = open(p)) {
+                    Font font = Font.createFont(Font.TRUETYPE_FONT, is);
+                    GraphicsEnvironment.getLocalGraphicsEnvironment().registerFont(font);
+                    loadCount.incrementAndGet();
+                    return font;
+                } catch (IOException | FontFormatException e) {
+                    throw new LoadFailure(e);
+                }
+            });
+        } catch (LoadFailure e) {
+            if (e.getCause() instanceof FontFormatException formatException) {
+                throw formatException;
+            }
+            throw (IOException) e.getCause();
+        }
+    }
+
+    /**
+     * Retourne un son entièrement décodé en mémoire, lu à la première demande.
+     * Il s'ouvre ensuite dans un Clip sans relire le fichier.
+     *
+     * @param path chemin de la ressource (ex : "/audio/Trap.wav")
+     */
+    public Sound getSound(String path) throws IOException {
+        try {
+            return sounds.computeIfAbsent(path, p -> {
+                try (AudioInputStream in = AudioSystem.getAudioInputStream(new BufferedInputStream(open(p)))) {
+                    Sound sound = new Sound(in.getFormat(), in.readAllBytes());
+                    addMemory(p, sound.data.length);
+                    loadCount.incrementAndGet();
+                    return sound;
+                } catch (IOException e) {
+                    throw new LoadFailure(e);
+                } catch (UnsupportedAudioFileException e) {
+                    throw new LoadFailure(new IOException("Format audio non reconnu : " + p, e));
+                }
+            });
+        } catch (LoadFailure e) {
+            throw (IOException) e.getCause();
+        }
+    }
+
+    private BufferedImage decodeImage(String path) throws IOException {
+        try (InputStream is = open(path)) {
+            BufferedImage image = ImageIO.read(is);
+            if (image == null) {
+                throw new IOException("Format d'image non reconnu : " + path);
+            }
+            loadCount.incrementAndGet();
+            return image;
+        }
+    }
+
+    private InputStream open(String path) throws IOException {
+        InputStream is = AssetManager.class.getResourceAsStream(path);
+        if (is == null) {
+            throw new IOException("Ressource introuvable : " + path);
+        }
+        return is;
+    }
+
+    /**
+     * Ajoute (ou retire, si négatif) de la mémoire au compte d'une ressource.
+     * Utilisé aussi pour les versions agrandies préparées par ImageCache.
+     */
+    void addMemory(String path, long bytes) {
+        memoryByAsset.computeIfAbsent(path, p -> new AtomicLong()).addAndGet(bytes);
+    }
+
+    /** Mémoire occupée par une ressource et ses versions agrandies (en octets) */
+    public long getMemoryUsage(String path) {
+        AtomicLong bytes = memoryByAsset.get(path);
+        return bytes == null ? 0 : bytes.get();
+    }
+
+    /** Mémoire occupée par toutes les ressources (en octets) */
+    public long getTotalMemoryUsage() {
+        long total = 0;
+        for (AtomicLong bytes : memoryByAsset.values()) {
+            total += bytes.get();
+        }
+        return total;
+    }
+
+    /** Mémoire occupée par ressource, triée par chemin */
+    public Map<String, Long> getMemoryReport() {
+        Map<String, Long> report = new TreeMap<>();
+        memoryByAsset.forEach((path, bytes) -> report.put(path, bytes.get()));
+        return report;
+    }
+
+    /** Nombre de ressources décodées depuis le disque (chaque ressource compte une seule fois) */
+    public int getLoadCount() {
+        return loadCount.get();
+    }
+
+    static long imageBytes(BufferedImage image) {
+        return (long) image.getWidth() * image.getHeight() * 4;
+    }
+
+    /**
+     * Son décodé (échantillons bruts et leur format).
+     */
+    public static final class Sound {
+        public final AudioFormat format;
+        public final byte[] data;
+
+        Sound(AudioFormat format, byte[] data) {
+            this.format = format;
+            this.data = data;
+        }
+    }
+
+    /**
+     * Transporte une erreur de chargement hors de computeIfAbsent (qui n'accepte pas les exceptions vérifiées).
+     * Un chargement qui échoue n'est pas mis en cache : il sera retenté à la prochaine demande.
+     */
+    private static final class LoadFailure extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        LoadFailure(Exception cause) {
+            super(cause);
+        }
+    }
+}
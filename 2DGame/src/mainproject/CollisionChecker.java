@@ -2,8 +2,6 @@ package mainproject;
 
 import mainproject.entity.Entity;
 
-import java.awt.*;
-
 /**
  * Cette classe permet de vérifier si une entité (comme le joueur)
  * entre en collision avec des tuiles de la carte.
@@ -20,47 +18,15 @@ public class CollisionChecker {
     public CollisionChecker(GamePanel gp) {
         this.gp = gp;
     }
-    //verifie la collision entre 2 entity
-    /**
-     * Vérifie si deux entités entrent en collision.
-     *
-     * @param entity1 Première entité (par exemple, le joueur).
-     * @param entity2 Deuxième entité (par exemple, un PNJ).
-     * @return true si les hitboxes des deux entités se chevauchent, sinon false.
-     */
-    public boolean checkCollision(Entity entity1, Entity entity2) {
-        // Vérifier qu'aucune des entités n'est null
-        if (entity1 == null || entity2 == null) {
-            return false; // Pas de collision possible si une entité est null
-        }
 
-        // Calculer les rectangles de collision pour chaque entité
-        Rectangle hitbox1 = new Rectangle(
-                entity1.worldx + entity1.hitbox.x,
-                entity1.worldy + entity1.hitbox.y,
-                entity1.hitbox.width,
-                entity1.hitbox.height
-        );
-
-        Rectangle hitbox2 = new Rectangle(
-                entity2.worldx + entity2.hitbox.x,
-                entity2.worldy + entity2.hitbox.y,
-                entity2.hitbox.width,
-                entity2.hitbox.height
-        );
-
-        // Vérifier si les rectangles se chevauchent
-        boolean isColliding = hitbox1.intersects(hitbox2);
-        if (isColliding) {
-            System.out.println("Collision détectée entre " + entity1 + " et " + entity2);
-        }
-
-        return isColliding;
-    }/**
+    /**
      * Vérifie si l'entité est en collision avec une tuile sur la carte,
      * selon sa direction actuelle et sa vitesse.
-     * La détection se fait sur les couches 0 (sol) et 2 (éléments hauts comme les arbres).
+     * La détection se fait sur les couches 0 (sol) et 2 (éléments hauts comme les arbres),
+     * déjà réunies dans la carte des collisions : chaque coin testé est un seul bit.
      * Si une tuile collisionnable est détectée, le flag collisionOn est activé.
+     * Ne teste que les deux coins du bord avant, à une vitesse de distance : pour déplacer
+     * une entité sans traverser les murs, utiliser move().
      *
      * @param entity l'entité a vérifié (par exemple, le joueur).
      */
@@ -75,78 +41,156 @@ public class CollisionChecker {
 
         // Vérification selon la direction de déplacement
         switch (entity.direction) {
-            case "haut": {
+            case HAUT: {
                 int leftCol = entityLeftWorldX / gp.tileSize;
                 int rightCol = entityRightWorldX / gp.tileSize;
                 int topRow = (entityTopWorldY - entity.speed) / gp.tileSize;
 
-                // Vérifie si les coordonnées sont dans les limites
-                if (isInBounds(leftCol, topRow) && isInBounds(rightCol, topRow)) {
-                    for (int layer : new int[]{0, 2}) { // 0 = sol, 2 = arbres ou murs hauts
-
-                        // Vérifie s'il y a collision sur la gauche ou la droite
-                        if (checkCollision(layer, leftCol, topRow) || checkCollision(layer, rightCol, topRow)) {
-                            entity.collisionOn = true;
-                            break; // inutile de continuer si une collision est détectée
-                        }
-
-                    }
+                // Vérifie si les coordonnées sont dans les limites, puis les coins gauche et droit
+                if (isInBounds(leftCol, topRow) && isInBounds(rightCol, topRow)
+                        && (isBlocked(leftCol, topRow) || isBlocked(rightCol, topRow))) {
+                    entity.collisionOn = true;
                 }
                 break;
             }
-            case "bas": {
+            case BAS: {
                 int leftCol = entityLeftWorldX / gp.tileSize;
                 int rightCol = entityRightWorldX / gp.tileSize;
                 int bottomRow = (entityBottomWorldY + entity.speed) / gp.tileSize;
 
-                if (isInBounds(leftCol, bottomRow) && isInBounds(rightCol, bottomRow)) {
-                    for (int layer : new int[]{0, 2}) {
-
-                        if (checkCollision(layer, leftCol, bottomRow) || checkCollision(layer, rightCol, bottomRow)) {
-                            entity.collisionOn = true;
-                            break;
-                        }
-
-
-                    }
+                if (isInBounds(leftCol, bottomRow) && isInBounds(rightCol, bottomRow)
+                        && (isBlocked(leftCol, bottomRow) || isBlocked(rightCol, bottomRow))) {
+                    entity.collisionOn = true;
                 }
                 break;
             }
-            case "gauche": {
+            case GAUCHE: {
                 int topRow = entityTopWorldY / gp.tileSize;
                 int bottomRow = entityBottomWorldY / gp.tileSize;
                 int leftCol = (entityLeftWorldX - entity.speed) / gp.tileSize;
 
-                if (isInBounds(leftCol, topRow) && isInBounds(leftCol, bottomRow)) {
-                    for (int layer : new int[]{0, 2}) {
-
-                        if (checkCollision(layer, leftCol, topRow) || checkCollision(layer, leftCol, bottomRow)) {
-                            entity.collisionOn = true;
-                            break;
-                        }
-                    }
+                if (isInBounds(leftCol, topRow) && isInBounds(leftCol, bottomRow)
+                        && (isBlocked(leftCol, topRow) || isBlocked(leftCol, bottomRow))) {
+                    entity.collisionOn = true;
                 }
                 break;
             }
-            case "droite": {
+            case DROITE: {
                 int topRow = entityTopWorldY / gp.tileSize;
                 int bottomRow = entityBottomWorldY / gp.tileSize;
                 int rightCol = (entityRightWorldX + entity.speed) / gp.tileSize;
 
-                if (isInBounds(rightCol, topRow) && isInBounds(rightCol, bottomRow)) {
-                    for (int layer : new int[]{0, 2}) {
+                if (isInBounds(rightCol, topRow) && isInBounds(rightCol, bottomRow)
+                        && (isBlocked(rightCol, topRow) || isBlocked(rightCol, bottomRow))) {
+                    entity.collisionOn = true;
+                }
+                break;
+            }
+        }
+    }
 
-                        if (checkCollision(layer, rightCol, topRow) || checkCollision(layer, rightCol, bottomRow)) {
-                            entity.collisionOn = true;
-                            break;
-                        }
+    /**
+     * Déplace une entité de (dx, dy) pixels contre la grille de tuiles, axe par axe (X puis Y) :
+     * un axe bloqué s'arrête au ras du mur pendant que l'autre continue, ce qui fait glisser
+     * l'entité le long des murs. Le flag collisionOn est activé si un axe a été raccourci.
+     *
+     * @param entity entité à déplacer
+     * @param dx déplacement horizontal voulu (en pixels)
+     * @param dy déplacement vertical voulu (en pixels)
+     */
+    public void move(Entity entity, int dx, int dy) {
+        int allowedX = sweepX(entity, dx);
+        entity.worldx += allowedX;
+        int allowedY = sweepY(entity, dy);
+        entity.worldy += allowedY;
+        entity.collisionOn = allowedX != dx || allowedY != dy;
+    }
 
+    /**
+     * Balayage horizontal de la hitbox : parcourt toutes les colonnes traversées par son bord
+     * avant (aucune tuile sautée, quelle que soit la vitesse) sur toute sa hauteur.
+     * Les bords du monde sont bloquants.
+     *
+     * @param entity entité à déplacer
+     * @param dx déplacement horizontal voulu (en pixels)
+     * @return le déplacement autorisé, de même signe que dx et au plus aussi grand
+     */
+    public int sweepX(Entity entity, int dx) {
+        if (dx == 0) return 0;
+        int tileSize = gp.tileSize;
+        // Pixels occupés par la hitbox : [left, right] x [top, bottom]
+        int left = entity.worldx + entity.hitbox.x;
+        int right = left + entity.hitbox.width - 1;
+        int top = entity.worldy + entity.hitbox.y;
+        int topRow = Math.floorDiv(top, tileSize);
+        int bottomRow = Math.floorDiv(top + entity.hitbox.height - 1, tileSize);
+
+        if (dx > 0) {
+            int lastCol = Math.floorDiv(right + dx, tileSize);
+            for (int col = Math.floorDiv(right, tileSize) + 1; col <= lastCol; col++) {
+                if (isColumnBlocked(col, topRow, bottomRow)) {
+                    return col * tileSize - 1 - right;
+                }
+            }
+        } else {
+            int lastCol = Math.floorDiv(left + dx, tileSize);
+            for (int col = Math.floorDiv(left, tileSize) - 1; col >= lastCol; col--) {
+                if (isColumnBlocked(col, topRow, bottomRow)) {
+                    return (col + 1) * tileSize - left;
+                }
+            }
+        }
+        return dx;
+    }
 
-                    }
+    /**
+     * Balayage vertical de la hitbox (voir sweepX).
+     *
+     * @param entity entité à déplacer
+     * @param dy déplacement vertical voulu (en pixels)
+     * @return le déplacement autorisé, de même signe que dy et au plus aussi grand
+     */
+    public int sweepY(Entity entity, int dy) {
+        if (dy == 0) return 0;
+        int tileSize = gp.tileSize;
+        int left = entity.worldx + entity.hitbox.x;
+        int top = entity.worldy + entity.hitbox.y;
+        int bottom = top + entity.hitbox.height - 1;
+        int leftCol = Math.floorDiv(left, tileSize);
+        int rightCol = Math.floorDiv(left + entity.hitbox.width - 1, tileSize);
+
+        if (dy > 0) {
+            int lastRow = Math.floorDiv(bottom + dy, tileSize);
+            for (int row = Math.floorDiv(bottom, tileSize) + 1; row <= lastRow; row++) {
+                if (isRowBlocked(row, leftCol, rightCol)) {
+                    return row * tileSize - 1 - bottom;
                 }
-                break;
             }
+        } else {
+            int lastRow = Math.floorDiv(top + dy, tileSize);
+            for (int row = Math.floorDiv(top, tileSize) - 1; row >= lastRow; row--) {
+                if (isRowBlocked(row, leftCol, rightCol)) {
+                    return (row + 1) * tileSize - top;
+                }
+            }
+        }
+        return dy;
+    }
+
+    /** Indique si une des cases d'une colonne, entre deux lignes, bloque le passage (hors carte compris) */
+    private boolean isColumnBlocked(int col, int topRow, int bottomRow) {
+        for (int row = topRow; row <= bottomRow; row++) {
+            if (!isInBounds(col, row) || isBlocked(col, row)) return true;
+        }
+        return false;
+    }
+
+    /** Indique si une des cases d'une ligne, entre deux colonnes, bloque le passage (hors carte compris) */
+    private boolean isRowBlocked(int row, int leftCol, int rightCol) {
+        for (int col = leftCol; col <= rightCol; col++) {
+            if (!isInBounds(col, row) || isBlocked(col, row)) return true;
         }
+        return false;
     }
 
     /**
@@ -156,21 +200,20 @@ public class CollisionChecker {
      * @return true si les coordonnées sont valides, sinon false
      */
     private boolean isInBounds(int col, int row) {
-        return col >= 0 && col < gp.maxWorldCol && row >= 0 && row < gp.maxWorldRow;
+        return gp.tileManager.world.isInBounds(col, row);
     }
 
     /**
-     * Vérifie si une tuile spécifique est collisionnable.
-     * Elle ignore les tuiles avec un index négatif (-1).
+     * Vérifie si une case est collisionnable : un bit de la carte des collisions,
+     * cuite au chargement à partir des couches 0 et 2.
+     * Une zone d'un monde paginé pas encore chargée bloque le passage.
      *
-     * @param layer couche sur laquelle se trouve la tuile (0 = sol, 2 = objets hauts, etc.)
-     * @param col colonne de la tuile
-     * @param row ligne de la tuile
-     * @return true si la tuile bloque le passage, false sinon
+     * @param col colonne de la case
+     * @param row ligne de la case
+     * @return true si la case bloque le passage, false sinon
      */
-    private boolean checkCollision(int layer, int col, int row) {
-        int tileNum = gp.tileManager.mapTileNum[layer][col][row];
-        return tileNum >= 0 && gp.tileManager.tileTypes[tileNum].collision;
+    private boolean isBlocked(int col, int row) {
+        return gp.tileManager.isBlocked(col, row);
     }
 
 }
@@ -0,0 +1,126 @@
+package mainproject;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Canal de diagnostic des événements de la simulation (collisions, attaques).
+ *
+ * Désactivé par défaut : record() se résume alors à un test de null, sans construire de
+ * message. Un événement se réduit à son type et un int : il n'alloue rien.
+ * Le récepteur console() ne touche jamais à la sortie standard depuis le thread de
+ * simulation : les événements passent par un tampon circulaire vidé par un thread à part.
+ */
+public final class Diagnostics {
+
+    /** Événements signalés */
+    public enum Event {
+        /** Le joueur touche un PNJ en attaquant ; value = poignée du PNJ */
+        PNJ_HIT,
+        /** Un PNJ attaque le joueur ; value = vie restante du joueur */
+        PNJ_ATTACK
+    }
+
+    /** Reçoit les événements (appelé sur le thread qui les signale) */
+    @FunctionalInterface
+    public interface Sink {
+        void record(Event event, int value);
+    }
+
+    private static final Event[] EVENTS = Event.values();
+
+    /** Récepteur courant (null = diagnostic désactivé) */
+    private volatile Sink sink;
+
+    public boolean isEnabled() {
+        return sink != null;
+    }
+
+    /**
+     * Branche un récepteur, ou désactive le diagnostic (null).
+     */
+    public void setSink(Sink sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * Signale un événement au récepteur courant, s'il y en a un.
+     */
+    public void record(Event event, int value) {
+        Sink current = sink;
+        if (current != null) {
+            current.record(event, value);
+        }
+    }
+
+    /**
+     * Récepteur qui affiche les événements dans la console depuis un thread démon.
+     * Le tampon a un seul producteur (le thread de simulation) ; quand il est plein, les
+     * événements sont comptés puis abandonnés plutôt que de bloquer la simulation.
+     */
+    public static Sink console() {
+        ConsoleSink console = new ConsoleSink(1024);
+        Thread thread = new Thread(console::drainLoop, "diagnostic");
+        thread.setDaemon(true);
+        thread.start();
+        return console;
+    }
+
+    private static final class ConsoleSink implements Sink {
+
+        private final int mask;
+        private final int[] events;
+        private final int[] values;
+
+        /** Écrit par le producteur seul, lu par le thread d'affichage */
+        private volatile long head;
+        /** Écrit par le thread d'affichage seul */
+        private volatile long tail;
+        /** Événements abandonnés (écrit par le producteur seul) */
+        private volatile long dropped;
+        /** Abandons déjà affichés (thread d'affichage) */
+        private long reportedDrops;
+
+        ConsoleSink(int capacity) {
+            mask = capacity - 1;
+            events = new int[capacity];
+            values = new int[capacity];
+        }
+
+        @Override
+        public void record(Event event, int value) {
+            long h = head;
+            if (h - tail > mask) {
+                dropped++;
+                return;
+            }
+            int slot = (int) h & mask;
+            events[slot] = event.ordinal();
+            values[slot] = value;
+            head = h + 1; // publie l'événement
+        }
+
+        void drainLoop() {
+            while (true) {
+                long h = head;
+                for (long t = tail; t < h; t++) {
+                    int slot = (int) t & mask;
+                    print(EVENTS[events[slot]], values[slot]);
+                    tail = t + 1;
+                }
+                long lost = dropped - reportedDrops;
+                if (lost > 0) {
+                    reportedDrops += lost;
+                    System.out.println("Diagnostic : " + lost + " événement(s) abandonné(s)");
+                }
+                LockSupport.parkNanos(50_000_000L);
+            }
+        }
+
+        private static void print(Event event, int value) {
+            switch (event) {
+                case PNJ_HIT -> System.out.println("Collision avec le PNJ " + value + " !");
+                case PNJ_ATTACK -> System.out.println("PNJ attaque le joueur ! Vie du joueur : " + value);
+            }
+        }
+    }
+}
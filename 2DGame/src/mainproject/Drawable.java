@@ -3,7 +3,7 @@ package mainproject;
 import java.awt.*;
 
 /**
- * Interface Drawable pour les objets qui peuvent être dessinés et ont une position verticale.
+ * Interface Drawable pour les objets qui peuvent être dessinés et ont une position dans le monde.
  */
 public interface Drawable {
     /**
@@ -13,6 +13,13 @@ public interface Drawable {
      */
     void draw(Graphics2D g2);
 
+    /**
+     * Retourne la position horizontale (worldX) de l'objet.
+     *
+     * @return La position horizontale (worldX).
+     */
+    int getWorldX();
+
     /**
      * Retourne la position verticale (worldY) de l'objet.
      *
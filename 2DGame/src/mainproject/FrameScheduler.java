@@ -0,0 +1,115 @@
+package mainproject;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Cadenceur de frames économe en CPU.
+ * Le thread de jeu est endormi (parkNanos) jusqu'à peu avant l'échéance de la prochaine frame,
+ * puis n'attend activement que pendant la dernière fraction de milliseconde.
+ * Garde des statistiques de gigue (écart entre le réveil réel et l'échéance prévue).
+ */
+public class FrameScheduler {
+
+    /** Marge par défaut attendue activement avant l'échéance (en nanosecondes) */
+    public static final long DEFAULT_SPIN_NANOS = 500_000;
+
+    /** Durée d'une frame (en nanosecondes) */
+    private long frameNanos;
+
+    /** Marge attendue activement avant l'échéance : le réveil d'un park n'est pas précis au-delà */
+    private long spinNanos = DEFAULT_SPIN_NANOS;
+
+    /** Échéance de la prochaine frame (horloge System.nanoTime) */
+    private long nextDeadline;
+
+    // Statistiques de gigue depuis le dernier resetStats()
+    private long samples = 0;
+    private long jitterSum = 0;
+    private long jitterMax = 0;
+    private long missedFrames = 0;
+
+    /**
+     * @param framesPerSecond cadence visée (ex : 60)
+     */
+    public FrameScheduler(int framesPerSecond) {
+        setFramesPerSecond(framesPerSecond);
+        nextDeadline = System.nanoTime() + frameNanos;
+    }
+
+    public void setFramesPerSecond(int framesPerSecond) {
+        frameNanos = 1_000_000_000L / framesPerSecond;
+    }
+
+    public void setSpinNanos(long spinNanos) {
+        this.spinNanos = spinNanos;
+    }
+
+    public long getFrameNanos() {
+        return frameNanos;
+    }
+
+    /**
+     * Attend l'échéance de la prochaine frame puis programme la suivante.
+     * Si le thread a pris plus d'une frame de retard, l'échéancier repart de maintenant
+     * au lieu d'enchaîner des frames en rafale pour rattraper.
+     *
+     * @return l'instant du réveil (System.nanoTime)
+     */
+    public long waitForNextFrame() {
+        long deadline = nextDeadline;
+        long now = System.nanoTime();
+
+        // Dormir tant qu'on est loin de l'échéance
+        while (deadline - now > spinNanos) {
+            LockSupport.parkNanos(deadline - now - spinNanos);
+            now = System.nanoTime();
+        }
+
+        // Attente active pour la dernière fraction de milliseconde
+        while (deadline - now > 0) {
+            Thread.onSpinWait();
+            now = System.nanoTime();
+        }
+
+        recordJitter(now - deadline);
+
+        nextDeadline = deadline + frameNanos;
+        if (now - nextDeadline > 0) {
+            missedFrames++;
+            nextDeadline = now + frameNanos;
+        }
+        return now;
+    }
+
+    private void recordJitter(long jitter) {
+        samples++;
+        jitterSum += jitter;
+        if (jitter > jitterMax) jitterMax = jitter;
+    }
+
+    /** Gigue moyenne depuis le dernier reset (en microsecondes) */
+    public double getMeanJitterMicros() {
+        return samples == 0 ? 0 : jitterSum / 1000.0 / samples;
+    }
+
+    /** Gigue maximale depuis le dernier reset (en microsecondes) */
+    public double getMaxJitterMicros() {
+        return jitterMax / 1000.0;
+    }
+
+    /** Nombre de frames dont l'échéance a été dépassée de plus d'une frame depuis le dernier reset */
+    public long getMissedFrames() {
+        return missedFrames;
+    }
+
+    public long getSampleCount() {
+        return samples;
+    }
+
+    public void resetStats() {
+        samples = 0;
+        jitterSum = 0;
+        jitterMax = 0;
+        missedFrames = 0;
+    }
+}
@@ -1,6 +1,7 @@
 package mainproject;
 
 import javax.swing.*;
+import java.util.Arrays;
 
 /**
  * Classe principale du jeu.
@@ -16,7 +17,7 @@ public class Game {
         // Fermer complètement l'application lorsqu'on clique sur la croix ( X )
         window.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
 
-        // Empêche de redimensionner la fenêtre
+        // Fenêtre redimensionnable : l'image du jeu est agrandie d'un facteur entier pour la remplir
         window.setResizable(true);
         // Titre de la fenêtre
         window.setTitle("test");
@@ -24,6 +25,20 @@ public class Game {
         // Création du panneau de jeu principal
         GamePanel gamePanel = new GamePanel();
 
+        // Monde dessiné en résolution native (16 px) puis agrandi d'un facteur entier selon la fenêtre
+        gamePanel.setNativeResolution(true);
+
+        // Rendu actif : la boucle de jeu affiche elle-même chaque frame (BufferStrategy)
+        gamePanel.enableActiveRendering();
+
+        // Affichage à la fréquence de l'écran, simulation toujours à cadence fixe
+        gamePanel.syncRenderRateToDisplay();
+
+        // Diagnostic des collisions et attaques dans la console (option --diagnostic)
+        if (Arrays.asList(args).contains("--diagnostic")) {
+            gamePanel.diagnostics.setSink(Diagnostics.console());
+        }
+
         // Ajout du panneau de jeu à la fenêtre
         window.add(gamePanel);
 
@@ -1,6 +1,8 @@
 package mainproject;
 
-import mainproject.entity.PNJ;
+import mainproject.animation.AnimationLibrary;
+import mainproject.animation.Animator;
+import mainproject.entity.PnjStore;
 import mainproject.ui.ui;
 import mainproject.entity.Player;
 import mainproject.tile.TileManager;
@@ -9,7 +11,13 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.awt.event.MouseMotionAdapter;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferStrategy;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Panneau principal du jeu.
@@ -26,7 +34,8 @@ public class GamePanel extends JPanel implements Runnable {
     public final int screenWidth = tileSize * maxScreenCol;
     public final int screenHeight = tileSize * maxScreenRow;
 
-    // Paramètres du monde (plus grand que l'écran)
+    // Paramètres du monde (plus grand que l'écran) : taille initiale, la carte chargée
+    // donne la taille réelle (tileManager.maxWorldCol / maxWorldRow)
     public final int maxWorldCol = 100;
     public final int maxWorldRow = 100;
     public final int worldWidth = tileSize * maxWorldCol;
@@ -37,21 +46,101 @@ public class GamePanel extends JPanel implements Runnable {
     public final int Start_screen = 0;
     public final int game_is_running = 1;
     public final int settings_screen = 2;
-    public int Game_state = 0;
+    public volatile int Game_state = 0;   // modifié par la simulation seulement (les clics passent par mouseEvents)
 
-    int fps = 60;
+    // Cadences : la simulation avance par ticks fixes (ups), l'affichage est indépendant (fps)
+    public int ups = 60;    // mises à jour de la simulation par seconde
+    int fps = 60;           // images affichées par seconde (0 = non limité)
+
+    // Temps de simulation maximal rattrapé en une frame (évite la spirale de ralentissement)
+    static final long MAX_FRAME_NANOS = 250_000_000L;
+
+    // Caméra pour la frame en cours de dessin : coin supérieur gauche dans le monde
+    public int cameraX, cameraY;
+
+    // Rendu en résolution native : le monde est dessiné en tuiles de originalTileSize pixels
+    // dans un petit tampon, agrandi d'un facteur entier pour remplir la fenêtre redimensionnable.
+    // L'interface et le HUD sont dessinés ensuite en pleine résolution.
+    private volatile boolean nativeResolution = false;
+    public final int nativeWidth = originalTileSize * maxScreenCol;
+    public final int nativeHeight = originalTileSize * maxScreenRow;
+    BufferedImage nativeBuffer;
+    volatile int outputScale = scale;                // facteur entier d'agrandissement du tampon natif
+    volatile int outputOffsetX = 0, outputOffsetY = 0; // marges pour centrer l'image dans la fenêtre
+
+    // File de rendu triée par worldY, réutilisée d'une frame à l'autre (thread de rendu)
+    final RenderQueue renderQueue = new RenderQueue();
+
+    // Captures de l'état du jeu : écrites par la simulation, lues par le rendu sans verrou
+    final TripleBuffer<RenderSnapshot> snapshots =
+            new TripleBuffer<>(new RenderSnapshot(), new RenderSnapshot(), new RenderSnapshot());
+
+    // Ressources décodées une seule fois et partagées, puis converties au format de l'écran
+    // et pré-agrandies (à créer avant les composants qui les chargent)
+    public final AssetManager assets = AssetManager.getShared();
+    public final ImageCache imageCache = new ImageCache(assets, originalTileSize, scale);
 
     // Composants du jeu
-    public TileManager tileManager = new TileManager(this);
-    Thread gameThread;
+    public final TileManager tileManager = new TileManager(this);
+    volatile Thread gameThread;     // thread de simulation (null = arrêt des deux threads)
+    Thread renderThread;            // thread de rendu
     KeyHandler keyH = new KeyHandler();
     public CollisionChecker collisionChecker = new CollisionChecker(this);
-    public Player player = new Player(this, keyH);
-    public PNJ pnj = new PNJ(this, player.worldx + tileSize, player.worldy);      // À droite du joueur
-    public PNJ pnj1 = new PNJ(this, player.worldx - tileSize, player.worldy);     // À gauche du joueur
-    public PNJ pnj2 = new PNJ(this, player.worldx, player.worldy + tileSize);
+    // Diagnostic des collisions et attaques : désactivé par défaut (voir Diagnostics.console())
+    public final Diagnostics diagnostics = new Diagnostics();
+    // Phase large des collisions entre entités : PNJ rangés dans une grille reconstruite à chaque tick
+    final SpatialGrid entityGrid = new SpatialGrid(tileSize * 2, 16);
+    private final SpatialGrid.EntityVisitor playerHit = this::onPlayerHit;
+    private int[] hitHandles = new int[4];    // PNJ touchés pendant le tick, supprimés après la requête
+    private int hitCount;
+    // Créés par le chargement de démarrage (voir loadGame)
+    public AnimationLibrary animations;   // clips d'animation partagés
+    public Animator animator;             // avance toutes les animations en une passe par tick
+    public Player player;
+    // PNJ vivants, rangés en colonnes : parcourus par index, désignés durablement par leur poignée
+    public PnjStore pnjs;
+    ui ui;
+
+    // Durées des phases du dernier chargement de démarrage
+    StartupLoader startupLoader;
+
+    // Chargement du monde (images des tuiles, carte et collisions) en arrière-plan de l'écran titre
+    private volatile CompletableFuture<Void> tilesLoading;
+    private volatile CompletableFuture<Void> worldLoading;
+
+    // Rendu actif : la boucle de jeu dessine et affiche elle-même les frames via un BufferStrategy
+    public boolean activeRendering = false;
+    Canvas canvas;                  // surface de dessin (lourde) qui porte le BufferStrategy
+    BufferStrategy bufferStrategy;
+
+    // Types des événements de souris mis en file par l'EDT
+    private static final int MOUSE_PRESSED = 0, MOUSE_RELEASED = 1, MOUSE_DRAGGED = 2, MOUSE_MOVED = 3;
+
+    /** Événements de souris reçus par l'EDT, traités par la simulation au début du tick (type << 48 | x << 24 | y) */
+    private final ConcurrentLinkedQueue<Long> mouseEvents = new ConcurrentLinkedQueue<>();
+
+    // Gestion des clics et mouvements de souris (partagée entre le panneau et le canvas)
+    private final MouseAdapter mouseHandler = new MouseAdapter() {
+        @Override
+        public void mousePressed(MouseEvent e) {
+            postMouseEvent(MOUSE_PRESSED, e);
+        }
+
+        @Override
+        public void mouseReleased(MouseEvent e) {
+            postMouseEvent(MOUSE_RELEASED, e);
+        }
+
+        @Override
+        public void mouseDragged(MouseEvent e) {
+            postMouseEvent(MOUSE_DRAGGED, e);
+        }
 
-    ui ui = new ui(this);
+        @Override
+        public void mouseMoved(MouseEvent e) {
+            postMouseEvent(MOUSE_MOVED, e);
+        }
+    };
 
     /**
      * Constructeur : initialise l’écran, les écouteurs de clavier et souris.
@@ -62,76 +151,271 @@ public class GamePanel extends JPanel implements Runnable {
         this.setDoubleBuffered(true);  // améliore le rendu
         this.setFocusable(true);
         this.addKeyListener(keyH);
-        pnj1.worldx = tileSize * 19;      // Position pour pnj1
-        pnj1.worldy = tileSize * 14;
-        pnj2.worldx = tileSize * 25;      // Position pour pnj2
-        pnj2.worldy = tileSize * 28;
-
-        // Gestion des clics de souris
-        this.addMouseListener(new MouseAdapter() {
-            @Override
-            public void mousePressed(MouseEvent e) {
-                ui.handleMouseClick(e.getX(), e.getY());
-            }
+        loadGame();
+        publishSnapshot();                // première capture pour le rendu
+
+        // Gestion des clics et mouvements de la souris
+        this.addMouseListener(mouseHandler);
+        this.addMouseMotionListener(mouseHandler);
+    }
 
-            @Override
-            public void mouseReleased(MouseEvent e) {
-                ui.handleMouseReleased();
+    /**
+     * Charge les ressources et crée les composants du jeu en phases parallèles :
+     * polices, audio, clips d'animation, écran titre, tuiles, sprites et carte.
+     * Chaque fichier est décodé une seule fois dans l'AssetManager partagé ; les phases qui
+     * dépendent d'autres ressources (l'écran titre de la police et de la musique) attendent
+     * seulement celles-ci.
+     * Le constructeur n'attend que l'écran titre et les sprites : le monde (tuiles et carte)
+     * se charge en arrière-plan pendant que l'écran titre s'anime, le temps avant la première
+     * image ne dépend donc pas de la taille de la carte. Les durées des phases sont affichées
+     * à la fin du chargement.
+     */
+    private void loadGame() {
+        StartupLoader loader = new StartupLoader();
+
+        CompletableFuture<Void> fonts = loader.phase("polices", () -> assets.getFont(mainproject.ui.ui.FONT_PATH));
+        CompletableFuture<Void> audio = loader.phase("audio", () -> {
+            try {
+                assets.getSound(mainproject.ui.ui.MUSIC_PATH);
+            } catch (IOException e) {
+                // Le jeu fonctionne sans musique : l'écran titre signalera l'erreur
+                System.err.println("Musique non préchargée : " + e.getMessage());
             }
         });
-
-        // Gestion des mouvements de la souris
-        this.addMouseMotionListener(new MouseMotionAdapter() {
-            @Override
-            public void mouseDragged(MouseEvent e) {
-                ui.handleMouseDragged(e.getX(), e.getY());
+        CompletableFuture<Void> clips = loader.phase("animations", () -> {
+            animations = AnimationLibrary.load(AnimationLibrary.DEFAULT, this::secondsToTicks);
+            animator = new Animator(animations, 16);
+        });
+        CompletableFuture<Void> title = loader.phase("écran titre", () -> ui = new ui(this), fonts, audio, clips);
+        CompletableFuture<Void> sprites = loader.phase("sprites", () -> {
+            player = new Player(this, keyH);
+            pnjs = new PnjStore(this, 16);
+            pnjs.loadImages();
+            spawnPnj(player.worldx + tileSize, player.worldy);   // À droite du joueur
+            spawnPnj(tileSize * 19, tileSize * 14);
+            spawnPnj(tileSize * 25, tileSize * 28);
+        }, clips);
+
+        // Le monde passe après l'écran titre dans la file du pool (même avec un seul thread)
+        tilesLoading = loader.phase("tuiles", tileManager::getTileImage, title, sprites);
+        CompletableFuture<Void> map = loader.phase("carte", () -> tileManager.loadMap(TileManager.DEFAULT_MAP), title, sprites);
+        // La carte des collisions a besoin des tuiles bloquantes et de la carte
+        worldLoading = loader.phase("collisions", tileManager::bakeCollisionMap, tilesLoading, map);
+
+        loader.await(title, sprites);
+        System.out.printf("Écran titre prêt en %.1f ms (monde en cours de chargement)%n", loader.getElapsedMillis());
+        loader.finish().whenComplete((ignored, error) -> {
+            if (error != null) {
+                System.err.println("Erreur lors du chargement du monde : " + error.getMessage());
+                error.printStackTrace();
             }
+            loader.printReport();
+        });
+        startupLoader = loader;
+    }
 
-            @Override
-            public void mouseMoved(MouseEvent e) {
-                ui.handleMouseMoved(e.getX(), e.getY());
-            }
+    /**
+     * Indique si le monde (images des tuiles, carte et collisions) est chargé.
+     * Tant qu'il ne l'est pas, ENTER ne lance pas la partie et le monde n'est pas dessiné.
+     */
+    public boolean isWorldLoaded() {
+        CompletableFuture<Void> loading = worldLoading;
+        return loading.isDone() && !loading.isCompletedExceptionally();
+    }
+
+    /**
+     * Avancement du chargement du monde, de 0 à 1 (affiché par l'écran titre).
+     */
+    public float getWorldLoadProgress() {
+        if (isWorldLoaded()) return 1;
+        float tiles = tilesLoading.isDone() ? 1 : 0;
+        return 0.2f * tiles + 0.8f * tileManager.mapLoadProgress;
+    }
+
+    /**
+     * Bloque jusqu'à la fin du chargement du monde (tests, outils).
+     */
+    public void awaitWorldLoaded() {
+        worldLoading.join();
+    }
+
+    /**
+     * Active le rendu actif : un Canvas est placé dans le panneau et la boucle de jeu
+     * dessine puis affiche chaque frame via son BufferStrategy, sans passer par repaint().
+     * À appeler avant l'affichage de la fenêtre. Tout le dessin se fait alors sur le thread
+     * de rendu : paintComponent ne dessine plus le jeu (le canvas recouvre le panneau).
+     */
+    public void enableActiveRendering() {
+        canvas = new Canvas();
+        canvas.setPreferredSize(new Dimension(screenWidth, screenHeight));
+        canvas.setBackground(Color.black);
+        canvas.setIgnoreRepaint(true);  // le système ne redessine plus le canvas, la boucle s'en charge
+        canvas.setFocusable(true);
+        canvas.addKeyListener(keyH);
+        canvas.addMouseListener(mouseHandler);
+        canvas.addMouseMotionListener(mouseHandler);
+
+        this.setLayout(new BorderLayout());
+        this.add(canvas, BorderLayout.CENTER);
+        activeRendering = true;
+    }
+
+    /**
+     * Active ou désactive le rendu en résolution native.
+     * Les sprites sont alors pré-agrandis à la taille de tuile du mode choisi (originalTileSize
+     * ou tileSize) et rechargés depuis le cache d'images. À appeler avant startGameThread().
+     */
+    public void setNativeResolution(boolean enabled) {
+        nativeResolution = enabled;
+        imageCache.setScale(enabled ? 1 : scale);
+        reloadImages();
+    }
+
+    public boolean isNativeResolution() {
+        return nativeResolution;
+    }
+
+    /**
+     * Redemande au cache les sprites des tuiles et des entités (après un changement d'échelle).
+     */
+    void reloadImages() {
+        // Les tuiles sont rechargées après le chargement du monde s'il est encore en cours
+        tilesLoading = tilesLoading.thenRun(() -> {
+            tileManager.getTileImage();
+            tileManager.chunkCache.invalidateAll();
         });
+        // Les collisions sont recuites une fois le premier chargement et ce rechargement terminés :
+        // la cuisson du démarrage a pu lire les tuiles pendant qu'elles étaient remplacées
+        worldLoading = CompletableFuture.allOf(worldLoading, tilesLoading)
+                .thenRun(tileManager::bakeCollisionMap);
+        player.getPlayerImage();
+        pnjs.loadImages();
+    }
+
+    /**
+     * Convertit une abscisse de la fenêtre en abscisse de l'écran logique (screenWidth x screenHeight).
+     */
+    int toLogicalX(int x) {
+        if (!nativeResolution) return x;
+        return (x - outputOffsetX) * scale / outputScale;
     }
 
     /**
-     * Démarre la boucle du jeu dans un nouveau thread.
+     * Convertit une ordonnée de la fenêtre en ordonnée de l'écran logique (screenWidth x screenHeight).
+     */
+    int toLogicalY(int y) {
+        if (!nativeResolution) return y;
+        return (y - outputOffsetY) * scale / outputScale;
+    }
+
+    /**
+     * Démarre la boucle du jeu : un thread de simulation et un thread de rendu.
      */
     public void startGameThread() {
-        gameThread = new Thread(this);
+        if (activeRendering) {
+            canvas.requestFocus();
+        }
+        gameThread = new Thread(this, "simulation");
         gameThread.start();
+
+        renderThread = new Thread(this::renderLoop, "rendu");
+        renderThread.start();
     }
 
     /**
-     * Boucle principale du jeu : contrôle le timing pour 60 FPS, met à jour et redessine le jeu.
+     * Aligne la cadence d'affichage sur la fréquence de rafraîchissement de l'écran, si elle est connue.
+     */
+    public void syncRenderRateToDisplay() {
+        if (GraphicsEnvironment.isHeadless()) return;
+
+        int refreshRate = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                .getDefaultScreenDevice().getDisplayMode().getRefreshRate();
+        if (refreshRate != DisplayMode.REFRESH_RATE_UNKNOWN) {
+            fps = refreshRate;
+        }
+    }
+
+    /**
+     * Convertit une durée en nombre de ticks de simulation.
+     *
+     * @param seconds durée en secondes
+     * @return nombre de ticks correspondant (au moins 1)
+     */
+    public int secondsToTicks(double seconds) {
+        return Math.max(1, (int) Math.round(seconds * ups));
+    }
+
+    /**
+     * Boucle de simulation à pas de temps fixe :
+     * le jeu avance par ticks de 1/ups seconde, indépendamment du thread de rendu.
+     * Chaque tick publie une capture de l'état du jeu (voir update()).
+     * Entre deux ticks, le thread dort au lieu de tourner à vide (voir FrameScheduler).
      */
     @Override
     public void run() {
-        double drawInterval = 1000000000.0 / fps;
-        double delta = 0;
-        long lastTime = System.nanoTime();
-        long currentTime;
-        long timer = 0;
-        int drawCount = 0;
+        long tickNanos = 1_000_000_000L / ups;
+        FrameScheduler scheduler = new FrameScheduler(ups);
+
+        long previousTime = System.nanoTime();
+        long accumulator = 0;
+        long timer = previousTime;
+        int tickCount = 0;
 
         while (gameThread != null) {
-            currentTime = System.nanoTime();
-            delta += (currentTime - lastTime) / drawInterval;
-            timer += currentTime - lastTime;
-            lastTime = currentTime;
+            long now = scheduler.waitForNextFrame();
 
-            if (delta >= 1) {
+            // Temps écoulé depuis le dernier réveil, borné si la machine a décroché
+            accumulator += Math.min(now - previousTime, MAX_FRAME_NANOS);
+            previousTime = now;
+
+            // Rattraper la simulation tick par tick
+            while (accumulator >= tickNanos) {
                 update();      // mise à jour logique du jeu
-                repaint();     // redessin du jeu
-                delta--;
-                drawCount++;
+                accumulator -= tickNanos;
+                tickCount++;
             }
 
-            // Affiche le nombre de FPS chaque seconde
-            if (timer >= 1000000000) {
-                System.out.println("FPS: " + drawCount);
+            // Affiche le nombre d'UPS, la gigue et les frames manquées du cadenceur chaque seconde
+            if (now - timer >= 1000000000) {
+                System.out.printf("UPS: %d (gigue moy. %.0f µs, max %.0f µs, frames manquées %d)%n",
+                        tickCount, scheduler.getMeanJitterMicros(), scheduler.getMaxJitterMicros(),
+                        scheduler.getMissedFrames());
+                scheduler.resetStats();
+                tickCount = 0;
+                timer = now;
+            }
+        }
+    }
+
+    /**
+     * Boucle de rendu : affiche la dernière capture publiée, interpolée entre les deux derniers ticks.
+     * Sans limite de cadence (fps = 0), seul le rendu actif enchaîne les frames sans attendre ;
+     * en rendu passif, Swing est sollicité à 60 FPS au plus.
+     */
+    void renderLoop() {
+        int renderFps = fps > 0 ? fps : (activeRendering ? 0 : 60);
+        FrameScheduler scheduler = renderFps > 0 ? new FrameScheduler(renderFps) : null;
+        long timer = System.nanoTime();
+        int drawCount = 0;
+
+        while (gameThread != null) {
+            long now = scheduler != null ? scheduler.waitForNextFrame() : System.nanoTime();
+
+            render();          // redessin du jeu
+            drawCount++;
+
+            // Affiche le nombre de FPS chaque seconde (avec la gigue et les frames manquées si la cadence est limitée)
+            if (now - timer >= 1000000000) {
+                if (scheduler != null) {
+                    System.out.printf("FPS: %d (gigue moy. %.0f µs, max %.0f µs, frames manquées %d)%n",
+                            drawCount, scheduler.getMeanJitterMicros(), scheduler.getMaxJitterMicros(),
+                            scheduler.getMissedFrames());
+                    scheduler.resetStats();
+                } else {
+                    System.out.println("FPS: " + drawCount);
+                }
                 drawCount = 0;
-                timer = 0;
+                timer = now;
             }
         }
     }
@@ -140,81 +424,286 @@ public class GamePanel extends JPanel implements Runnable {
      * Met à jour les éléments du jeu selon l'état courant.
      */
     public void update() {
-        if (Game_state == Start_screen) {
-            if (keyH.enterPressed) {
+        handleMouseEvents(); // clics et survols reçus depuis le dernier tick
+
+        if (Game_state == Start_screen || Game_state == settings_screen) {
+            ui.update(); // animations de l'écran titre
+            if (Game_state == Start_screen && keyH.enterPressed && isWorldLoaded()) {
                 Game_state = game_is_running;
             }
         } else if (Game_state == game_is_running) {
-            player.update(); // Mettre à jour le joueur
+            // Mémoriser les positions du tick précédent pour l'interpolation
+            player.savePreviousPosition();
+            pnjs.savePreviousPositions();
 
-            // Vérifier les collisions entre le joueur et chaque PNJ
-            if (pnj != null && collisionChecker.checkCollision(player, pnj) && player.isAttacking()) {
-                System.out.println("Collision avec PNJ !");
-                pnj = null; // Supprimer le PNJ ou appeler une méthode die()
-            }
-            if (pnj1 != null && collisionChecker.checkCollision(player, pnj1) && player.isAttacking()) {
-                System.out.println("Collision avec PNJ1 !");
-                pnj1 = null; // Supprimer le PNJ ou appeler une méthode die()
+            player.update(); // Mettre à jour le joueur
+            tileManager.update(); // Recentrer les chunks chargés d'un monde paginé
+
+            // Vérifier les collisions entre le joueur et les PNJ proches (grille uniforme)
+            if (player.isAttacking()) {
+                entityGrid.clear();
+                pnjs.insertHitboxes(entityGrid);
+                hitCount = 0;
+                entityGrid.query(player.worldx + player.hitbox.x, player.worldy + player.hitbox.y,
+                        player.hitbox.width, player.hitbox.height, -1, playerHit);
+                // Supprimer les PNJ touchés après la requête (les index de la grille restent valides pendant)
+                for (int i = 0; i < hitCount; i++) {
+                    pnjs.remove(hitHandles[i]);
+                }
             }
-            if (pnj2 != null && collisionChecker.checkCollision(player, pnj2) && player.isAttacking()) {
-                System.out.println("Collision avec PNJ2 !");
-                pnj2 = null; // Supprimer le PNJ ou appeler une méthode die()
+
+            // Mettre à jour les PNJ
+            pnjs.update(player);
+        }
+
+        // Musique de l'écran titre et des paramètres, démarrée ou arrêtée quand l'état change
+        ui.updateMusic(Game_state);
+
+        // Faire avancer toutes les animations (joueur, personnage de l'écran titre)
+        animator.update();
+
+        publishSnapshot();
+    }
+
+    /**
+     * Met en file un événement de souris (appelé par l'EDT), en coordonnées logiques.
+     */
+    private void postMouseEvent(int type, MouseEvent e) {
+        int x = toLogicalX(e.getX()), y = toLogicalY(e.getY());
+        mouseEvents.add((long) type << 48 | (x & 0xFFFFFFL) << 24 | (y & 0xFFFFFFL));
+    }
+
+    /**
+     * Transmet à l'interface les événements de souris en file : l'état du jeu et les réglages
+     * ne sont ainsi modifiés que par le thread de simulation.
+     */
+    private void handleMouseEvents() {
+        Long event;
+        while ((event = mouseEvents.poll()) != null) {
+            int x = (int) (event << 16 >> 40);   // bits 24 à 47, avec leur signe
+            int y = (int) (event << 40 >> 40);   // bits 0 à 23, avec leur signe
+            switch ((int) (event >>> 48)) {
+                case MOUSE_PRESSED -> ui.handleMouseClick(x, y);
+                case MOUSE_RELEASED -> ui.handleMouseReleased();
+                case MOUSE_DRAGGED -> ui.handleMouseDragged(x, y);
+                default -> ui.handleMouseMoved(x, y);
             }
+        }
+    }
+
+    /**
+     * Le joueur touche un PNJ pendant une attaque : le PNJ sera supprimé à la fin de la requête.
+     *
+     * @param index index du PNJ dans pnjs (identifiant dans la grille)
+     */
+    private void onPlayerHit(int index) {
+        int handle = pnjs.handleAt(index);
+        diagnostics.record(Diagnostics.Event.PNJ_HIT, handle);
+        if (hitCount == hitHandles.length) {
+            hitHandles = Arrays.copyOf(hitHandles, hitCount * 2);
+        }
+        hitHandles[hitCount++] = handle;
+    }
+
+    /**
+     * Fait apparaître un PNJ.
+     *
+     * @return poignée du PNJ dans pnjs
+     */
+    public int spawnPnj(int worldX, int worldY) {
+        return pnjs.spawn(worldX, worldY);
+    }
 
-            // Mettre à jour les PNJ s'ils existent encore
-            if (pnj != null) pnj.update();
-            if (pnj1 != null) pnj1.update();
-            if (pnj2 != null) pnj2.update();
+    /**
+     * Fait disparaître un PNJ.
+     *
+     * @return false si le PNJ n'existait plus
+     */
+    public boolean despawnPnj(int handle) {
+        return pnjs.remove(handle);
+    }
+
+    /**
+     * Capture l'état du jeu à la fin du tick et le publie pour le thread de rendu.
+     */
+    void publishSnapshot() {
+        RenderSnapshot snapshot = snapshots.writeBuffer();
+        snapshot.gameState = Game_state;
+        snapshot.tickNanos = 1_000_000_000L / ups;
+
+        if (Game_state == Start_screen || Game_state == settings_screen) {
+            ui.capture(snapshot);
         }
+
+        snapshot.clearSprites();
+        player.captureSprite(snapshot);
+        // Seuls les PNJ à moins d'un écran du joueur peuvent être visibles
+        pnjs.captureSprites(snapshot, player.worldx - screenWidth, player.worldy - screenHeight,
+                player.worldx + screenWidth, player.worldy + screenHeight);
+
+        snapshot.publishTime = System.nanoTime();
+        snapshots.publish();
     }
 
     /**
-     * Dessine tous les éléments graphiques du jeu.
+     * Affiche une nouvelle frame : directement via le BufferStrategy en rendu actif,
+     * sinon en demandant un repaint() à Swing.
+     */
+    public void render() {
+        if (!activeRendering) {
+            repaint();
+            return;
+        }
+
+        if (bufferStrategy == null) {
+            // Le BufferStrategy ne peut être créé qu'une fois le canvas affiché.
+            // En attendant, rien n'est dessiné : pas de repaint(), qui ferait lire les captures
+            // par l'EDT en même temps que ce thread (TripleBuffer n'a qu'un seul lecteur).
+            if (!canvas.isDisplayable()) {
+                return;
+            }
+            canvas.createBufferStrategy(2);
+            bufferStrategy = canvas.getBufferStrategy();
+        }
+
+        // Boucles recommandées par BufferStrategy : recommencer si le contenu a été perdu ou restauré
+        do {
+            do {
+                Graphics2D g2 = (Graphics2D) bufferStrategy.getDrawGraphics();
+                g2.setColor(Color.black);
+                g2.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+                drawGame(g2, canvas.getWidth(), canvas.getHeight());
+                g2.dispose();
+            } while (bufferStrategy.contentsRestored());
+
+            bufferStrategy.show();
+        } while (bufferStrategy.contentsLost());
+
+        Toolkit.getDefaultToolkit().sync(); // évite la latence due au tampon d'affichage (Linux)
+    }
+
+    /**
+     * Dessin passif par Swing (utilisé hors rendu actif seulement).
+     * En rendu actif, seul le thread de rendu dessine : les repaint() de Swing (exposition,
+     * redimensionnement) se contentent du fond, et la prochaine frame redessine le canvas.
      */
     @Override
     public void paintComponent(Graphics g) {
         super.paintComponent(g);
-        Graphics2D g2 = (Graphics2D) g;
+        if (activeRendering) {
+            return;
+        }
+        drawGame((Graphics2D) g, getWidth(), getHeight());
+    }
 
-        if (Game_state == Start_screen || Game_state == settings_screen) {
-            ui.draw(g2);
-        } else {
-            // Dessiner les couches de tuiles
-            tileManager.draw(g2, 0); // couche sol
-            tileManager.draw(g2, 1); // objets au sol
-
-            // Créer un tableau d'objets Drawable
-            Drawable[] drawables = new Drawable[4]; // Taille fixe pour le joueur + 3 PNJ
-            int drawableCount = 0;
-
-            // Ajouter le joueur au tableau
-            drawables[drawableCount++] = player;
-
-            // Ajouter les PNJ s'ils existent encore
-            if (pnj != null) drawables[drawableCount++] = pnj;
-            if (pnj1 != null) drawables[drawableCount++] = pnj1;
-            if (pnj2 != null) drawables[drawableCount++] = pnj2;
-
-            // Trier les objets par leur position verticale (worldY)
-            for (int i = 0; i < drawableCount - 1; i++) {
-                for (int j = i + 1; j < drawableCount; j++) {
-                    if (drawables[i].getWorldY() > drawables[j].getWorldY()) {
-                        // Échanger les deux objets
-                        Drawable temp = drawables[i];
-                        drawables[i] = drawables[j];
-                        drawables[j] = temp;
-                    }
-                }
-            }
+    /**
+     * Place la caméra sur la position actuelle du joueur (pour dessiner hors de la boucle de rendu,
+     * par exemple dans les benchmarks). En jeu, la caméra vient de la capture de rendu.
+     */
+    public void updateCamera() {
+        cameraX = player.worldx - player.screenX;
+        cameraY = player.worldy - player.screenY;
+    }
 
-            // Dessiner les objets dans l'ordre trié
-            for (int i = 0; i < drawableCount; i++) {
-                drawables[i].draw(g2);
+    /**
+     * Choisit le plus grand facteur entier qui fait tenir l'image native dans la zone de dessin,
+     * et les marges qui la centrent.
+     */
+    private void updateOutputScale(int targetWidth, int targetHeight) {
+        if (targetWidth <= 0 || targetHeight <= 0) {
+            // Composant pas encore affiché : taille logique par défaut
+            targetWidth = screenWidth;
+            targetHeight = screenHeight;
+        }
+        int factor = Math.max(1, Math.min(targetWidth / nativeWidth, targetHeight / nativeHeight));
+        outputScale = factor;
+        outputOffsetX = (targetWidth - nativeWidth * factor) / 2;
+        outputOffsetY = (targetHeight - nativeHeight * factor) / 2;
+    }
+
+    /**
+     * Dessine la dernière capture de l'état du jeu.
+     * N'accède jamais aux entités vivantes : seulement à la capture et à la carte.
+     * En résolution native, le monde passe par un tampon de nativeWidth x nativeHeight pixels
+     * agrandi une seule fois ; l'interface et le HUD sont dessinés par-dessus en pleine résolution.
+     *
+     * @param g2 contexte graphique de destination (Swing ou BufferStrategy)
+     * @param targetWidth largeur de la zone de dessin
+     * @param targetHeight hauteur de la zone de dessin
+     */
+    public void drawGame(Graphics2D g2, int targetWidth, int targetHeight) {
+        RenderSnapshot snapshot = snapshots.latest();
+        AffineTransform baseTransform = g2.getTransform();
+
+        if (nativeResolution) {
+            updateOutputScale(targetWidth, targetHeight);
+            g2.translate(outputOffsetX, outputOffsetY);
+        }
+
+        // Le monde n'est dessiné qu'une fois chargé
+        if (snapshot.gameState != Start_screen && snapshot.gameState != settings_screen && isWorldLoaded()) {
+            if (nativeResolution) {
+                if (nativeBuffer == null) {
+                    GraphicsConfiguration config = getGraphicsConfiguration();
+                    nativeBuffer = config != null ? config.createCompatibleImage(nativeWidth, nativeHeight)
+                            : new BufferedImage(nativeWidth, nativeHeight, BufferedImage.TYPE_INT_RGB);
+                }
+                Graphics2D worldG2 = nativeBuffer.createGraphics();
+                worldG2.setColor(Color.black);
+                worldG2.fillRect(0, 0, nativeWidth, nativeHeight);
+                drawWorld(worldG2, snapshot, scale);
+                worldG2.dispose();
+
+                // Un seul agrandissement entier (plus proche voisin) pour toute la scène
+                g2.drawImage(nativeBuffer, 0, 0, nativeWidth * outputScale, nativeHeight * outputScale, null);
+            } else {
+                drawWorld(g2, snapshot, 1);
             }
+        }
 
-            // Dessiner les objets au-dessus (arbres, etc.)
-            tileManager.draw(g2, 2);
+        // Interface et HUD en pleine résolution, dans le repère logique screenWidth x screenHeight
+        if (nativeResolution) {
+            double uiScale = (double) outputScale / scale;
+            g2.scale(uiScale, uiScale);
+        }
+        if (snapshot.gameState == Start_screen || snapshot.gameState == settings_screen) {
+            ui.draw(g2, snapshot);
+        } else {
+            // Barres de PV et de stamina du joueur
+            player.drawHud(g2, snapshot);
         }
 
-        g2.dispose(); // Libérer les ressources graphiques
-    }}
\ No newline at end of file
+        g2.setTransform(baseTransform);
+    }
+
+    /**
+     * Dessine le monde (tuiles et sprites) de la capture.
+     *
+     * @param g2 contexte graphique de destination
+     * @param snapshot capture à dessiner
+     * @param pixelDivisor 1 pour la pleine résolution, scale pour la résolution native des sprites
+     */
+    private void drawWorld(Graphics2D g2, RenderSnapshot snapshot, int pixelDivisor) {
+        int drawTileSize = tileSize / pixelDivisor;
+        int viewWidth = screenWidth / pixelDivisor;
+        int viewHeight = screenHeight / pixelDivisor;
+
+        // Interpolation entre les deux derniers ticks et placement de la caméra
+        snapshot.prepareFrame(System.nanoTime(), player.screenX, player.screenY, pixelDivisor, drawTileSize, viewWidth, viewHeight);
+        cameraX = snapshot.worldCameraX;
+        cameraY = snapshot.worldCameraY;
+        int drawCameraX = snapshot.cameraX;
+        int drawCameraY = snapshot.cameraY;
+
+        // Dessiner les couches de tuiles
+        tileManager.draw(g2, 0, drawCameraX, drawCameraY, drawTileSize, viewWidth, viewHeight); // couche sol
+        tileManager.draw(g2, 1, drawCameraX, drawCameraY, drawTileSize, viewWidth, viewHeight); // objets au sol
+
+        // Écarter les sprites hors écran, trier les autres par worldY puis les dessiner
+        renderQueue.build(snapshot.sprites, snapshot.spriteCount, cameraX, cameraY, screenWidth, screenHeight, tileSize);
+        renderQueue.drawAll(g2);
+
+        // Dessiner les objets au-dessus (arbres, etc.)
+        tileManager.draw(g2, 2, drawCameraX, drawCameraY, drawTileSize, viewWidth, viewHeight);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,127 @@
+package mainproject;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache des images du jeu, converties une seule fois dans le format de l'écran
+ * (images compatibles, accélérables par Java2D) et déjà agrandies à leur taille d'affichage.
+ * Le dessin se fait alors sans conversion de format ni mise à l'échelle à chaque frame.
+ *
+ * Une image est identifiée par son chemin de ressource et sa taille finale, qui découle
+ * de l'échelle courante. Changer d'échelle vide le cache : les propriétaires des images
+ * doivent alors les redemander (voir GamePanel.setNativeResolution).
+ * Les images d'origine viennent de l'AssetManager : changer d'échelle ne redécode aucun fichier.
+ * Utilisable depuis plusieurs threads.
+ */
+public class ImageCache {
+
+    /** Registre qui décode (une seule fois) les images d'origine */
+    private final AssetManager assets;
+
+    /** Taille d'origine d'un sprite (en pixels), avant agrandissement */
+    private final int baseSpriteSize;
+
+    /** Facteur d'agrandissement courant des sprites */
+    private volatile int scale;
+
+    /** Images préparées, par chemin et taille finale */
+    private final ConcurrentHashMap<String, BufferedImage> images = new ConcurrentHashMap<>();
+
+    /** Configuration graphique utilisée pour créer des images compatibles (null en mode headless) */
+    private final GraphicsConfiguration graphicsConfig;
+
+    /**
+     * @param assets registre des images d'origine
+     * @param baseSpriteSize taille d'origine d'un sprite (ex : 16)
+     * @param scale facteur d'agrandissement initial
+     */
+    public ImageCache(AssetManager assets, int baseSpriteSize, int scale) {
+        this.assets = assets;
+        this.baseSpriteSize = baseSpriteSize;
+        this.scale = scale;
+        this.graphicsConfig = GraphicsEnvironment.isHeadless() ? null
+                : GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+    }
+
+    /**
+     * Retourne un sprite (tuile, joueur, PNJ) à la taille d'une tuile pour l'échelle courante.
+     *
+     * @param path chemin de la ressource (ex : "/tiles/grass.png")
+     */
+    public BufferedImage getSprite(String path) throws IOException {
+        int size = baseSpriteSize * scale;
+        return get(path, size, size);
+    }
+
+    /**
+     * Retourne une image à une taille exacte, chargée et convertie à la première demande.
+     *
+     * @param path chemin de la ressource
+     * @param width largeur finale (en pixels)
+     * @param height hauteur finale (en pixels)
+     */
+    public BufferedImage get(String path, int width, int height) throws IOException {
+        String key = path + '@' + width + 'x' + height;
+        BufferedImage image = images.get(key);
+        if (image == null) {
+            BufferedImage prepared = prepare(assets.getImage(path), width, height);
+            image = images.putIfAbsent(key, prepared);
+            if (image == null) {
+                assets.addMemory(path, AssetManager.imageBytes(prepared));
+                image = prepared;
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Change l'échelle des sprites. Le cache est vidé si elle change réellement.
+     */
+    public synchronized void setScale(int scale) {
+        if (scale != this.scale) {
+            this.scale = scale;
+            clear();
+        }
+    }
+
+    public int getScale() {
+        return scale;
+    }
+
+    /**
+     * Vide le cache. Les images déjà distribuées restent valides pour ceux qui les détiennent.
+     */
+    public synchronized void clear() {
+        for (Map.Entry<String, BufferedImage> entry : images.entrySet()) {
+            String key = entry.getKey();
+            if (images.remove(key, entry.getValue())) {
+                assets.addMemory(key.substring(0, key.lastIndexOf('@')), -AssetManager.imageBytes(entry.getValue()));
+            }
+        }
+    }
+
+    /** Nombre d'images en cache */
+    public int size() {
+        return images.size();
+    }
+
+    /**
+     * Recopie l'image dans une image compatible à la taille demandée
+     * (agrandissement au plus proche voisin pour garder les pixels nets).
+     */
+    private BufferedImage prepare(BufferedImage source, int width, int height) {
+        BufferedImage image = graphicsConfig != null
+                ? graphicsConfig.createCompatibleImage(width, height, source.getTransparency())
+                : new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = image.createGraphics();
+        g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+        g2.setComposite(AlphaComposite.Src);
+        g2.drawImage(source, 0, 0, width, height, null);
+        g2.dispose();
+        return image;
+    }
+}
@@ -9,9 +9,10 @@ import java.awt.event.KeyListener;
  */
 public class KeyHandler implements KeyListener {
 
-    public boolean haut, bas, gauche, droite, attackDroite;  // touches de déplacement
+    // Écrits par l'EDT, lus par le thread de simulation
+    public volatile boolean haut, bas, gauche, droite, attackDroite;  // touches de déplacement
 
-    public boolean enterPressed;               // touche de validation (menu)
+    public volatile boolean enterPressed;               // touche de validation (menu)
 
     /**
      * Non utilisé ici, mais obligatoire à implémenter.
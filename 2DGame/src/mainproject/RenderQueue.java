@@ -0,0 +1,137 @@
+package mainproject;
+
+import java.awt.*;
+
+/**
+ * File de rendu réutilisable qui trie les objets Drawable par position verticale (worldY)
+ * pour que les objets les plus bas à l'écran soient dessinés par-dessus.
+ *
+ * Les objets hors de l'écran sont écartés avant le tri. L'ordre trié de la frame
+ * précédente est conservé (par index dans la liste source, qui reste stable d'une frame
+ * à l'autre) : la liste de départ est donc presque triée et le tri par insertion
+ * est quasi linéaire. Aucune allocation une fois la capacité atteinte.
+ */
+public class RenderQueue {
+
+    /** Index (dans la liste source) des objets visibles, triés par worldY */
+    private int[] order = new int[16];
+
+    /** Clés de tri (worldY) correspondant à order */
+    private int[] keys = new int[16];
+
+    /** Nombre d'objets visibles dans order */
+    private int size = 0;
+
+    /** Tampon de construction de l'ordre de la frame */
+    private int[] scratch = new int[16];
+
+    /** Marque les index déjà repris de l'ordre précédent */
+    private boolean[] seen = new boolean[16];
+
+    /** Liste source de la frame en cours */
+    private Drawable[] source;
+
+    /**
+     * Construit la file de la frame : écarte les objets hors écran puis trie les autres par worldY.
+     *
+     * @param drawables liste source (l'index de chaque objet doit rester stable entre les frames)
+     * @param count nombre d'objets valides dans la liste source
+     * @param cameraX coin supérieur gauche de la caméra dans le monde (X)
+     * @param cameraY coin supérieur gauche de la caméra dans le monde (Y)
+     * @param viewWidth largeur de la zone visible
+     * @param viewHeight hauteur de la zone visible
+     * @param itemSize taille d'un objet (pixels), pour garder ceux partiellement visibles
+     */
+    public void build(Drawable[] drawables, int count, int cameraX, int cameraY, int viewWidth, int viewHeight, int itemSize) {
+        ensureCapacity(count);
+        source = drawables;
+
+        int minX = cameraX - itemSize, maxX = cameraX + viewWidth;
+        int minY = cameraY - itemSize, maxY = cameraY + viewHeight;
+        int visible = 0;
+
+        // Reprendre l'ordre de la frame précédente pour les objets toujours visibles
+        for (int k = 0; k < size; k++) {
+            int id = order[k];
+            if (id < count && !seen[id] && isVisible(drawables[id], minX, maxX, minY, maxY)) {
+                seen[id] = true;
+                scratch[visible++] = id;
+            }
+        }
+
+        // Ajouter à la fin les objets nouvellement visibles
+        for (int id = 0; id < count; id++) {
+            if (seen[id]) {
+                seen[id] = false;
+            } else if (isVisible(drawables[id], minX, maxX, minY, maxY)) {
+                scratch[visible++] = id;
+            }
+        }
+
+        int[] previous = order;
+        order = scratch;
+        scratch = previous;
+        size = visible;
+
+        sortByWorldY();
+    }
+
+    private static boolean isVisible(Drawable drawable, int minX, int maxX, int minY, int maxY) {
+        int x = drawable.getWorldX();
+        int y = drawable.getWorldY();
+        return x > minX && x < maxX && y > minY && y < maxY;
+    }
+
+    /**
+     * Tri par insertion (stable) : quasi linéaire quand l'ordre a peu changé depuis la frame précédente.
+     */
+    private void sortByWorldY() {
+        for (int k = 0; k < size; k++) {
+            keys[k] = source[order[k]].getWorldY();
+        }
+
+        for (int i = 1; i < size; i++) {
+            int id = order[i];
+            int key = keys[i];
+            int j = i - 1;
+            while (j >= 0 && keys[j] > key) {
+                order[j + 1] = order[j];
+                keys[j + 1] = keys[j];
+                j--;
+            }
+            order[j + 1] = id;
+            keys[j + 1] = key;
+        }
+    }
+
+    /**
+     * Dessine les objets visibles dans l'ordre trié.
+     */
+    public void drawAll(Graphics2D g2) {
+        for (int k = 0; k < size; k++) {
+            source[order[k]].draw(g2);
+        }
+    }
+
+    /** Nombre d'objets visibles de la frame */
+    public int size() {
+        return size;
+    }
+
+    /** Objet visible à la position k de l'ordre de dessin */
+    public Drawable get(int k) {
+        return source[order[k]];
+    }
+
+    private void ensureCapacity(int count) {
+        if (count <= seen.length) return;
+
+        int capacity = Math.max(count, seen.length * 2);
+        int[] grownOrder = new int[capacity];
+        System.arraycopy(order, 0, grownOrder, 0, size);
+        order = grownOrder;
+        keys = new int[capacity];
+        scratch = new int[capacity];
+        seen = new boolean[capacity];
+    }
+}
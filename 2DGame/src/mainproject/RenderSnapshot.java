@@ -0,0 +1,173 @@
+package mainproject;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * Image figée de l'état du jeu à la fin d'un tick de simulation : tout ce dont le rendu
+ * a besoin (état du jeu, positions, sprites, valeurs du HUD).
+ * Le thread de simulation la remplit, le thread de rendu la dessine sans jamais lire
+ * les entités vivantes. Les instances sont réutilisées via un TripleBuffer.
+ */
+public class RenderSnapshot {
+
+    /** État du jeu au moment du tick (Start_screen, game_is_running, ...) */
+    public int gameState;
+
+    /** Instant de publication (System.nanoTime), pour calculer l'interpolation */
+    public long publishTime;
+
+    /** Durée d'un tick de simulation (en nanosecondes) */
+    public long tickNanos;
+
+    // Position du joueur (suivie par la caméra)
+    public int playerX, playerY, playerPrevX, playerPrevY;
+
+    // Valeurs du HUD
+    public int playerHealth, playerMaxHealth, playerStamina, playerMaxStamina;
+
+    /** Sprites à dessiner (les spriteCount premiers sont valides) */
+    public Sprite[] sprites = new Sprite[8];
+    public int spriteCount = 0;
+
+    // Écran titre et paramètres (remplis par ui.capture, seulement sur ces écrans)
+    public int skyOffset, mountainsOffset, groundOffset;
+    public int titleShakeX, titleShakeY;
+    public int characterX, characterY, characterFrame;
+    public int volumeKnobX, brightnessKnobX;
+    public boolean settingsButtonHovered, musicEnabled, worldLoaded;
+    public float brightnessLevel = 1, worldLoadProgress;
+    public String language = "fr";
+
+    /** Particules flottantes de l'écran titre (les particleCount premières sont valides) */
+    public int[] particleX = new int[0], particleY = new int[0], particleSize = new int[0];
+    public int particleCount = 0;
+
+    // Contexte de la frame en cours de dessin (rempli par le thread de rendu)
+    public double alpha;
+    public int worldCameraX, worldCameraY;   // caméra en pixels du monde
+    public int cameraX, cameraY;             // caméra dans le repère de destination
+    int pixelDivisor, tileSize, viewWidth, viewHeight;
+
+    public RenderSnapshot() {
+        for (int i = 0; i < sprites.length; i++) {
+            sprites[i] = new Sprite(this);
+        }
+    }
+
+    /**
+     * Vide la liste des sprites avant une nouvelle capture.
+     */
+    public void clearSprites() {
+        spriteCount = 0;
+    }
+
+    /**
+     * Réserve le prochain sprite de la capture (le tableau grandit si nécessaire).
+     */
+    public Sprite addSprite() {
+        if (spriteCount == sprites.length) {
+            Sprite[] grown = new Sprite[sprites.length * 2];
+            System.arraycopy(sprites, 0, grown, 0, sprites.length);
+            for (int i = sprites.length; i < grown.length; i++) {
+                grown[i] = new Sprite(this);
+            }
+            sprites = grown;
+        }
+        Sprite sprite = sprites[spriteCount++];
+        sprite.aggroRange = 0;
+        return sprite;
+    }
+
+    /**
+     * Prépare le dessin d'une frame : calcule l'interpolation et place la caméra
+     * sur la position interpolée du joueur.
+     * Le repère de destination peut être plus petit que le monde : une coordonnée du monde
+     * y est divisée par pixelDivisor (1 = pleine résolution, scale = résolution native des sprites).
+     *
+     * @param now instant du dessin (System.nanoTime)
+     * @param screenX position fixe du joueur à l'écran (X, pixels du monde)
+     * @param screenY position fixe du joueur à l'écran (Y, pixels du monde)
+     * @param pixelDivisor rapport entre pixels du monde et pixels de destination
+     * @param tileSize taille d'une tuile dans le repère de destination
+     * @param viewWidth largeur de la zone visible dans le repère de destination
+     * @param viewHeight hauteur de la zone visible dans le repère de destination
+     */
+    public void prepareFrame(long now, int screenX, int screenY, int pixelDivisor, int tileSize, int viewWidth, int viewHeight) {
+        alpha = Math.min(1.0, Math.max(0.0, (double) (now - publishTime) / tickNanos));
+        worldCameraX = lerp(playerPrevX, playerX, alpha) - screenX;
+        worldCameraY = lerp(playerPrevY, playerY, alpha) - screenY;
+        cameraX = Math.floorDiv(worldCameraX, pixelDivisor);
+        cameraY = Math.floorDiv(worldCameraY, pixelDivisor);
+        this.pixelDivisor = pixelDivisor;
+        this.tileSize = tileSize;
+        this.viewWidth = viewWidth;
+        this.viewHeight = viewHeight;
+    }
+
+    static int lerp(int previous, int current, double alpha) {
+        return (int) Math.round(previous + (current - previous) * alpha);
+    }
+
+    /**
+     * Sprite d'une entité tel que capturé au dernier tick.
+     */
+    public static class Sprite implements Drawable {
+        private final RenderSnapshot snapshot;
+
+        public BufferedImage image;
+        public int x, y, prevX, prevY;
+
+        /** Rayon d'aggro à afficher (0 = aucun) */
+        public int aggroRange;
+
+        Sprite(RenderSnapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        /**
+         * Capture la position courante et celle du tick précédent.
+         */
+        public void setPosition(int x, int y, int prevX, int prevY) {
+            this.x = x;
+            this.y = y;
+            this.prevX = prevX;
+            this.prevY = prevY;
+        }
+
+        @Override
+        public void draw(Graphics2D g2) {
+            int tileSize = snapshot.tileSize;
+            int divisor = snapshot.pixelDivisor;
+            int screenX = Math.floorDiv(lerp(prevX, x, snapshot.alpha), divisor) - snapshot.cameraX;
+            int screenY = Math.floorDiv(lerp(prevY, y, snapshot.alpha), divisor) - snapshot.cameraY;
+
+            // Dessiner uniquement si le sprite est visible à l'écran
+            if (screenX + tileSize <= 0 || screenX >= snapshot.viewWidth ||
+                    screenY + tileSize <= 0 || screenY >= snapshot.viewHeight) {
+                return;
+            }
+
+            if (image != null) {
+                g2.drawImage(image, screenX, screenY, tileSize, tileSize, null);
+            }
+
+            // Rayon d'aggro (débogage)
+            if (aggroRange > 0) {
+                int radius = aggroRange / divisor;
+                g2.setColor(Color.RED);
+                g2.drawOval(screenX + tileSize / 2 - radius, screenY + tileSize / 2 - radius, radius * 2, radius * 2);
+            }
+        }
+
+        @Override
+        public int getWorldX() {
+            return x;
+        }
+
+        @Override
+        public int getWorldY() {
+            return y;
+        }
+    }
+}
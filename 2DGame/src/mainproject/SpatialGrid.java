@@ -0,0 +1,209 @@
+package mainproject;
+
+import java.util.Arrays;
+
+/**
+ * Grille uniforme pour la phase large des collisions entre entités.
+ *
+ * Le monde est découpé en cellules carrées de cellSize pixels ; chaque hitbox est rangée
+ * dans toutes les cellules qu'elle recouvre, et seules les entités d'une même cellule sont
+ * comparées : le coût d'un tick devient proportionnel au nombre d'entités au lieu de N².
+ * Les cellules sont adressées par hachage de leurs coordonnées (le monde peut être immense)
+ * dans une table de listes chaînées en tableaux d'int : la grille est reconstruite à chaque
+ * tick (clear puis insert) sans aucune allocation une fois les tableaux dimensionnés.
+ *
+ * Les entités sont désignées par un identifiant dense (0 à n-1) choisi par l'appelant,
+ * typiquement leur index dans la liste des entités.
+ */
+public final class SpatialGrid {
+
+    /** Reçoit les paires candidates dont les hitboxes se chevauchent */
+    @FunctionalInterface
+    public interface PairVisitor {
+        void visit(int a, int b);
+    }
+
+    /** Reçoit les entités dont la hitbox chevauche une zone */
+    @FunctionalInterface
+    public interface EntityVisitor {
+        void visit(int id);
+    }
+
+    /** Côté d'une cellule (en pixels), au moins la taille des plus grandes hitboxes */
+    public final int cellSize;
+
+    /** Hitbox de chaque entité : [minX, maxX[ x [minY, maxY[ (en pixels du monde) */
+    private int[] minX, minY, maxX, maxY;
+
+    /** Première entrée de chaque seau (-1 = vide) ; nombre de seaux en puissance de 2 */
+    private int[] bucketHead;
+
+    /** Dernier passage ayant marqué le seau, pour ne ranger une entité qu'une fois par seau */
+    private int[] bucketMark;
+
+    /** Entrées : entité et entrée suivante du même seau */
+    private int[] entryId, entryNext;
+    private int entryCount;
+
+    /** Entités marquées par la requête en cours (évite les doublons d'une entité sur plusieurs cellules) */
+    private int[] entityMark;
+
+    /** Compteur de passages (insertions et requêtes), jamais remis à zéro */
+    private int stamp;
+
+    private int count;
+
+    /**
+     * @param cellSize côté d'une cellule (en pixels)
+     * @param capacity nombre d'entités prévu (les tableaux s'agrandissent au besoin)
+     */
+    public SpatialGrid(int cellSize, int capacity) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("Taille de cellule invalide : " + cellSize);
+        }
+        this.cellSize = cellSize;
+        capacity = Math.max(capacity, 16);
+        minX = new int[capacity];
+        minY = new int[capacity];
+        maxX = new int[capacity];
+        maxY = new int[capacity];
+        entityMark = new int[capacity];
+        entryId = new int[capacity * 4];
+        entryNext = new int[capacity * 4];
+        resizeBuckets(capacity);
+    }
+
+    /**
+     * Vide la grille avant de la reconstruire.
+     */
+    public void clear() {
+        if (count * 2 > bucketHead.length) {
+            resizeBuckets(count);
+        } else {
+            Arrays.fill(bucketHead, -1);
+        }
+        entryCount = 0;
+        count = 0;
+    }
+
+    /** Nombre d'entités insérées depuis le dernier clear() */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Range une hitbox dans la grille.
+     *
+     * @param id identifiant de l'entité (0 à n-1), inséré au plus une fois par reconstruction
+     * @param x coin gauche de la hitbox (en pixels du monde)
+     * @param y coin haut de la hitbox
+     * @param width largeur (en pixels)
+     * @param height hauteur (en pixels)
+     */
+    public void insert(int id, int x, int y, int width, int height) {
+        ensureEntityCapacity(id + 1);
+        minX[id] = x;
+        minY[id] = y;
+        maxX[id] = x + width;
+        maxY[id] = y + height;
+        count++;
+
+        int firstCol = Math.floorDiv(x, cellSize);
+        int firstRow = Math.floorDiv(y, cellSize);
+        int lastCol = Math.floorDiv(x + width - 1, cellSize);
+        int lastRow = Math.floorDiv(y + height - 1, cellSize);
+        int mark = ++stamp;
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int col = firstCol; col <= lastCol; col++) {
+                int bucket = bucket(col, row);
+                if (bucketMark[bucket] == mark) continue; // deux cellules de l'entité dans le même seau
+                bucketMark[bucket] = mark;
+                if (entryCount == entryId.length) {
+                    entryId = Arrays.copyOf(entryId, entryCount * 2);
+                    entryNext = Arrays.copyOf(entryNext, entryCount * 2);
+                }
+                entryId[entryCount] = id;
+                entryNext[entryCount] = bucketHead[bucket];
+                bucketHead[bucket] = entryCount++;
+            }
+        }
+    }
+
+    /**
+     * Visite une fois chaque paire d'entités dont les hitboxes se chevauchent.
+     * Une paire partagée par plusieurs cellules n'est signalée que dans la cellule qui contient
+     * le coin haut-gauche de l'intersection de leurs hitboxes.
+     */
+    public void forEachPair(PairVisitor visitor) {
+        for (int bucket = 0; bucket < bucketHead.length; bucket++) {
+            for (int i = bucketHead[bucket]; i != -1; i = entryNext[i]) {
+                int a = entryId[i];
+                for (int j = entryNext[i]; j != -1; j = entryNext[j]) {
+                    int b = entryId[j];
+                    if (!overlaps(a, b)) continue;
+                    int cornerCol = Math.floorDiv(Math.max(minX[a], minX[b]), cellSize);
+                    int cornerRow = Math.floorDiv(Math.max(minY[a], minY[b]), cellSize);
+                    if (bucket(cornerCol, cornerRow) == bucket) {
+                        visitor.visit(a, b);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Visite une fois chaque entité dont la hitbox chevauche la zone donnée.
+     *
+     * @param exclude identifiant à ignorer (l'entité qui interroge la grille), ou -1
+     */
+    public void query(int x, int y, int width, int height, int exclude, EntityVisitor visitor) {
+        int right = x + width;
+        int bottom = y + height;
+        int firstCol = Math.floorDiv(x, cellSize);
+        int firstRow = Math.floorDiv(y, cellSize);
+        int lastCol = Math.floorDiv(right - 1, cellSize);
+        int lastRow = Math.floorDiv(bottom - 1, cellSize);
+        int mark = ++stamp;
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int col = firstCol; col <= lastCol; col++) {
+                for (int i = bucketHead[bucket(col, row)]; i != -1; i = entryNext[i]) {
+                    int id = entryId[i];
+                    if (id == exclude || entityMark[id] == mark) continue;
+                    entityMark[id] = mark;
+                    if (minX[id] < right && x < maxX[id] && minY[id] < bottom && y < maxY[id]) {
+                        visitor.visit(id);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Indique si les hitboxes de deux entités insérées se chevauchent (même règle que Rectangle.intersects).
+     */
+    public boolean overlaps(int a, int b) {
+        return minX[a] < maxX[b] && minX[b] < maxX[a] && minY[a] < maxY[b] && minY[b] < maxY[a];
+    }
+
+    private int bucket(int col, int row) {
+        int h = col * 0x9E3779B1 ^ row * 0x85EBCA77;
+        return (h ^ (h >>> 15)) & (bucketHead.length - 1);
+    }
+
+    private void resizeBuckets(int entities) {
+        int buckets = Integer.highestOneBit(Math.max(entities, 16) * 4 - 1) << 1;
+        bucketHead = new int[buckets];
+        bucketMark = new int[buckets];
+        Arrays.fill(bucketHead, -1);
+    }
+
+    private void ensureEntityCapacity(int size) {
+        if (size <= minX.length) return;
+        int capacity = Math.max(size, minX.length * 2);
+        minX = Arrays.copyOf(minX, capacity);
+        minY = Arrays.copyOf(minY, capacity);
+        maxX = Arrays.copyOf(maxX, capacity);
+        maxY = Arrays.copyOf(maxY, capacity);
+        entityMark = Arrays.copyOf(entityMark, capacity);
+    }
+}
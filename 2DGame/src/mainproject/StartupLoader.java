@@ -0,0 +1,129 @@
+package mainproject;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Chargement du jeu en phases exécutées en parallèle sur un petit pool de threads.
+ * Une phase peut dépendre d'autres phases : elle démarre dès qu'elles sont terminées.
+ * La durée de chaque phase est mesurée pour le rapport de démarrage.
+ */
+public class StartupLoader {
+
+    /** Tâche de chargement (peut lever une exception vérifiée) */
+    public interface Task {
+        void run() throws Exception;
+    }
+
+    private final ExecutorService pool;
+
+    /** Instant de création du chargeur (System.nanoTime) */
+    private final long startTime = System.nanoTime();
+
+    /** Phases dans l'ordre de déclaration */
+    private final LinkedHashMap<String, CompletableFuture<Void>> phases = new LinkedHashMap<>();
+
+    /** Durée de chaque phase terminée (en nanosecondes) */
+    private final Map<String, Long> durations = new LinkedHashMap<>();
+
+    /**
+     * @param threads nombre maximal de chargements simultanés
+     */
+    public StartupLoader(int threads) {
+        AtomicInteger count = new AtomicInteger();
+        pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "chargement-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Un thread par cœur, sans dépasser 4 (au-delà, la lecture des ressources ne va pas plus vite).
+     */
+    public StartupLoader() {
+        this(Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors())));
+    }
+
+    /**
+     * Déclare une phase de chargement.
+     *
+     * @param name nom de la phase (pour le rapport)
+     * @param task travail à effectuer
+     * @param dependencies phases qui doivent être terminées avant de démarrer celle-ci
+     * @return la phase, utilisable comme dépendance
+     */
+    public CompletableFuture<Void> phase(String name, Task task, CompletableFuture<?>... dependencies) {
+        CompletableFuture<Void> phase = CompletableFuture.allOf(dependencies).thenRunAsync(() -> {
+            long start = System.nanoTime();
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            } finally {
+                recordDuration(name, System.nanoTime() - start);
+            }
+        }, pool);
+        phases.put(name, phase);
+        return phase;
+    }
+
+    private synchronized void recordDuration(String name, long nanos) {
+        durations.put(name, nanos);
+    }
+
+    /**
+     * Attend la fin de certaines phases. Une exception levée par l'une d'elles est relancée ici.
+     */
+    public void await(CompletableFuture<?>... waited) {
+        try {
+            CompletableFuture.allOf(waited).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            if (e.getCause() instanceof Error error) throw error;
+            throw e;
+        }
+    }
+
+    /**
+     * Termine le chargement : le pool est libéré quand toutes les phases déclarées sont finies.
+     *
+     * @return une tâche terminée avec la dernière phase (en erreur si une phase a échoué)
+     */
+    public CompletableFuture<Void> finish() {
+        return CompletableFuture.allOf(phases.values().toArray(new CompletableFuture<?>[0]))
+                .whenComplete((ignored, error) -> pool.shutdown());
+    }
+
+    /** Durée d'une phase terminée (en millisecondes), -1 si elle n'est pas terminée */
+    public synchronized double getPhaseMillis(String name) {
+        Long nanos = durations.get(name);
+        return nanos == null ? -1 : nanos / 1_000_000.0;
+    }
+
+    /** Temps écoulé depuis la création du chargeur (en millisecondes) */
+    public double getElapsedMillis() {
+        return (System.nanoTime() - startTime) / 1_000_000.0;
+    }
+
+    /**
+     * Affiche la durée de chaque phase et le temps total.
+     */
+    public synchronized void printReport() {
+        System.out.println("***************** Démarrage *****************");
+        double sum = 0;
+        for (String name : phases.keySet()) {
+            double millis = getPhaseMillis(name);
+            sum += Math.max(0, millis);
+            System.out.printf("  %-14s %8.1f ms%n", name, millis);
+        }
+        System.out.printf("  %-14s %8.1f ms (somme des phases : %.1f ms)%n", "total", getElapsedMillis(), sum);
+    }
+}
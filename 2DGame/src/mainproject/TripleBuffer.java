@@ -0,0 +1,63 @@
+package mainproject;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Triple tampon sans verrou entre un unique écrivain (thread de simulation)
+ * et un unique lecteur (thread de rendu).
+ * L'écrivain remplit son tampon puis le publie ; le lecteur récupère toujours
+ * le dernier tampon publié. Aucun des deux n'attend l'autre et aucun objet n'est alloué.
+ *
+ * @param <T> type des données échangées
+ */
+public class TripleBuffer<T> {
+
+    /** Bit indiquant que le tampon partagé contient une publication pas encore lue */
+    private static final int FRESH = 4;
+
+    private final T[] buffers;
+
+    /** Index du tampon partagé (bits 0-1) et drapeau FRESH */
+    private final AtomicInteger shared = new AtomicInteger(1);
+
+    /** Index du tampon en cours d'écriture (propriété de l'écrivain) */
+    private int writeIndex = 0;
+
+    /** Index du tampon en cours de lecture (propriété du lecteur) */
+    private int readIndex = 2;
+
+    /**
+     * @param first premier tampon
+     * @param second deuxième tampon
+     * @param third troisième tampon
+     */
+    @SuppressWarnings("unchecked")
+    public TripleBuffer(T first, T second, T third) {
+        buffers = (T[]) new Object[]{first, second, third};
+    }
+
+    /**
+     * Tampon à remplir par l'écrivain avant publish().
+     */
+    public T writeBuffer() {
+        return buffers[writeIndex];
+    }
+
+    /**
+     * Publie le tampon d'écriture et récupère un tampon libre pour la prochaine écriture.
+     */
+    public void publish() {
+        writeIndex = shared.getAndSet(writeIndex | FRESH) & 3;
+    }
+
+    /**
+     * Retourne la dernière publication (ou la précédente si rien de nouveau n'a été publié).
+     * Le tampon retourné reste la propriété du lecteur jusqu'au prochain appel.
+     */
+    public T latest() {
+        if ((shared.get() & FRESH) != 0) {
+            readIndex = shared.getAndSet(readIndex) & 3;
+        }
+        return buffers[readIndex];
+    }
+}
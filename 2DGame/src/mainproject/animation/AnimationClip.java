@@ -0,0 +1,86 @@
+package mainproject.animation;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * Clip d'animation : liste de frames, durée de chaque frame (en ticks de simulation) et
+ * mode de lecture. Un clip est partagé par toutes les entités qui le jouent ; chaque entité
+ * ne garde que le numéro du clip et sa position dans le temps (voir Animator).
+ */
+public final class AnimationClip {
+
+    /** Numéro du clip dans sa bibliothèque */
+    public final int id;
+    public final String name;
+
+    /** true : recommence au début ; false : reste sur la dernière frame */
+    public final boolean loop;
+
+    /** Chemin de l'image de chaque frame */
+    public final String[] framePaths;
+
+    /** Durée de chaque frame (en ticks) */
+    public final int[] frameTicks;
+
+    /** Durée totale du clip (en ticks) */
+    public final int totalTicks;
+
+    /** Frame affichée à chaque tick du clip : la frame d'un instant est un seul accès au tableau */
+    private final byte[] frameAtTick;
+
+    /** Images des frames, chargées par AnimationLibrary.loadImages (null avant) */
+    volatile BufferedImage[] frames;
+
+    AnimationClip(int id, String name, boolean loop, String[] framePaths, int[] frameTicks) {
+        if (framePaths.length == 0 || framePaths.length > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Nombre de frames invalide : " + framePaths.length);
+        }
+        this.id = id;
+        this.name = name;
+        this.loop = loop;
+        this.framePaths = framePaths;
+        this.frameTicks = frameTicks;
+        int total = 0;
+        for (int ticks : frameTicks) {
+            total += ticks;
+        }
+        totalTicks = total;
+        frameAtTick = new byte[total];
+        int tick = 0;
+        for (int frame = 0; frame < frameTicks.length; frame++) {
+            for (int i = 0; i < frameTicks[frame]; i++) {
+                frameAtTick[tick++] = (byte) frame;
+            }
+        }
+    }
+
+    /** Nombre de frames */
+    public int frameCount() {
+        return framePaths.length;
+    }
+
+    /**
+     * Frame affichée à un instant du clip.
+     *
+     * @param time position dans le clip (en ticks, de 0 à totalTicks-1)
+     */
+    public int frameAt(int time) {
+        return frameAtTick[time];
+    }
+
+    /**
+     * Image affichée à un instant du clip, ou null si les images ne sont pas chargées.
+     */
+    public BufferedImage imageAt(int time) {
+        BufferedImage[] images = frames;
+        return images == null ? null : images[frameAtTick[time]];
+    }
+
+    /**
+     * Ramène une position quelconque dans le clip (en boucle, ou bloquée sur la dernière frame).
+     */
+    int wrap(int time) {
+        if (time < totalTicks) return time;
+        return loop ? time % totalTicks : totalTicks - 1;
+    }
+}
@@ -0,0 +1,165 @@
+package mainproject.animation;
+
+import mainproject.ImageCache;
+
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.DoubleToIntFunction;
+
+/**
+ * Bibliothèque des clips d'animation, lue une fois depuis un descripteur texte
+ * (res/animations/clips.txt) et partagée par toutes les entités.
+ *
+ * Format : une ligne par clip, champs séparés par des espaces, # pour les commentaires :
+ * <pre>
+ *   nom   mode   durées   motif   premier-dernier
+ *   marche.bas   boucle   0.2   /player/row-4-column-%d.png   1-6
+ * </pre>
+ * mode vaut boucle ou unique ; durées est la durée d'une frame en secondes, ou une durée
+ * par frame séparées par des virgules ; %d est remplacé par le numéro de chaque frame.
+ */
+public final class AnimationLibrary {
+
+    /** Descripteur des clips du jeu */
+    public static final String DEFAULT = "/animations/clips.txt";
+
+    private final AnimationClip[] clips;
+    private final Map<String, Integer> ids = new HashMap<>();
+
+    private AnimationLibrary(List<AnimationClip> clips) {
+        this.clips = clips.toArray(new AnimationClip[0]);
+        for (AnimationClip clip : this.clips) {
+            ids.put(clip.name, clip.id);
+        }
+    }
+
+    /**
+     * Lit un descripteur de clips des ressources (sans charger les images).
+     *
+     * @param resource chemin du descripteur (ex : AnimationLibrary.DEFAULT)
+     * @param secondsToTicks conversion des durées en ticks de simulation
+     */
+    public static AnimationLibrary load(String resource, DoubleToIntFunction secondsToTicks) throws IOException {
+        InputStream is = AnimationLibrary.class.getResourceAsStream(resource);
+        if (is == null) {
+            throw new IOException("Descripteur d'animations introuvable : " + resource);
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
+            return parse(reader, secondsToTicks);
+        }
+    }
+
+    /**
+     * Lit un descripteur de clips.
+     */
+    public static AnimationLibrary parse(BufferedReader reader, DoubleToIntFunction secondsToTicks) throws IOException {
+        List<AnimationClip> clips = new ArrayList<>();
+        Map<String, Integer> names = new HashMap<>();
+        String text;
+        int lineNumber = 0;
+        while ((text = reader.readLine()) != null) {
+            lineNumber++;
+            int comment = text.indexOf('#');
+            if (comment >= 0) {
+                text = text.substring(0, comment);
+            }
+            text = text.strip();
+            if (text.isEmpty()) continue;
+
+            String[] fields = text.split("\\s+");
+            if (fields.length != 5) {
+                throw new IOException("ligne " + lineNumber + " : 5 champs attendus (nom mode durées motif frames)");
+            }
+            String name = fields[0];
+            if (names.putIfAbsent(name, clips.size()) != null) {
+                throw new IOException("ligne " + lineNumber + " : clip en double : " + name);
+            }
+            boolean loop = switch (fields[1]) {
+                case "boucle" -> true;
+                case "unique" -> false;
+                default -> throw new IOException("ligne " + lineNumber + " : mode inconnu : " + fields[1]);
+            };
+            try {
+                String[] range = fields[4].split("-");
+                int first = Integer.parseInt(range[0]);
+                int last = range.length > 1 ? Integer.parseInt(range[1]) : first;
+                if (range.length > 2 || last < first) {
+                    throw new IOException("ligne " + lineNumber + " : frames invalides : " + fields[4]);
+                }
+                int count = last - first + 1;
+                String[] paths = new String[count];
+                for (int i = 0; i < count; i++) {
+                    paths[i] = String.format(fields[3], first + i);
+                }
+
+                String[] durations = fields[2].split(",");
+                if (durations.length != 1 && durations.length != count) {
+                    throw new IOException("ligne " + lineNumber + " : " + count + " durées attendues");
+                }
+                int[] ticks = new int[count];
+                for (int i = 0; i < count; i++) {
+                    double seconds = Double.parseDouble(durations[durations.length == 1 ? 0 : i]);
+                    if (!(seconds > 0)) {
+                        throw new IOException("ligne " + lineNumber + " : durée invalide : " + seconds);
+                    }
+                    ticks[i] = secondsToTicks.applyAsInt(seconds);
+                }
+                clips.add(new AnimationClip(clips.size(), name, loop, paths, ticks));
+            } catch (NumberFormatException e) {
+                throw new IOException("ligne " + lineNumber + " : nombre invalide (" + e.getMessage() + ")");
+            } catch (IllegalArgumentException e) {
+                // Motif de chemin ou nombre de frames invalide
+                throw new IOException("ligne " + lineNumber + " : " + e.getMessage());
+            }
+        }
+        return new AnimationLibrary(clips);
+    }
+
+    /**
+     * Charge (ou recharge, après un changement d'échelle) les images de tous les clips,
+     * à la taille des sprites.
+     */
+    public void loadImages(ImageCache imageCache) throws IOException {
+        for (AnimationClip clip : clips) {
+            BufferedImage[] images = new BufferedImage[clip.frameCount()];
+            for (int i = 0; i < images.length; i++) {
+                images[i] = imageCache.getSprite(clip.framePaths[i]);
+            }
+            clip.frames = images;
+        }
+    }
+
+    /**
+     * Numéro d'un clip d'après son nom.
+     *
+     * @throws IllegalArgumentException si le descripteur ne définit pas ce clip
+     */
+    public int id(String name) {
+        Integer id = ids.get(name);
+        if (id == null) {
+            throw new IllegalArgumentException("Clip d'animation inconnu : " + name);
+        }
+        return id;
+    }
+
+    public AnimationClip get(int id) {
+        return clips[id];
+    }
+
+    public AnimationClip get(String name) {
+        return clips[id(name)];
+    }
+
+    /** Nombre de clips */
+    public int size() {
+        return clips.length;
+    }
+}
@@ -0,0 +1,121 @@
+package mainproject.animation;
+
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+/**
+ * Lecteur de toutes les animations du jeu. L'état d'animation d'une entité se réduit à
+ * deux int rangés ici, à l'emplacement qui lui est attribué par add() : le clip joué et
+ * la position dans ce clip (en ticks). update() fait avancer toutes les entités animées
+ * en une seule passe par tick.
+ *
+ * add() est appelé pendant le chargement, avant le démarrage du thread de simulation ;
+ * les autres méthodes par le thread de simulation seulement (le rendu se contente de lire
+ * les images courantes).
+ */
+public final class Animator {
+
+    public final AnimationLibrary library;
+
+    /** Clip joué par chaque emplacement */
+    private int[] clip;
+    /** Position dans le clip (en ticks) */
+    private int[] time;
+    private int count;
+
+    /**
+     * @param capacity nombre d'entités animées prévu (les tableaux s'agrandissent au besoin)
+     */
+    public Animator(AnimationLibrary library, int capacity) {
+        this.library = library;
+        capacity = Math.max(capacity, 4);
+        clip = new int[capacity];
+        time = new int[capacity];
+    }
+
+    /**
+     * Attribue un emplacement à une entité animée, qui commence à jouer un clip.
+     * Synchronisé seulement entre les phases de chargement, qui créent leurs entités en
+     * parallèle (écran titre, sprites) : update() et play() ne prennent pas de verrou, add()
+     * ne doit donc plus être appelé une fois le thread de simulation démarré.
+     *
+     * @return emplacement de l'entité
+     */
+    public synchronized int add(int clipId) {
+        library.get(clipId); // vérifie le numéro
+        if (count == clip.length) {
+            clip = Arrays.copyOf(clip, count * 2);
+            time = Arrays.copyOf(time, count * 2);
+        }
+        clip[count] = clipId;
+        time[count] = 0;
+        return count++;
+    }
+
+    /** Nombre d'entités animées */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Fait avancer toutes les animations d'un tick.
+     */
+    public void update() {
+        int n = count;
+        for (int i = 0; i < n; i++) {
+            AnimationClip c = library.get(clip[i]);
+            int t = time[i] + 1;
+            if (t >= c.totalTicks) {
+                t = c.loop ? 0 : c.totalTicks - 1;
+            }
+            time[i] = t;
+        }
+    }
+
+    /**
+     * Joue un clip depuis le début (sauf s'il est déjà en cours).
+     */
+    public void play(int slot, int clipId) {
+        if (clip[slot] != clipId) {
+            clip[slot] = clipId;
+            time[slot] = 0;
+        }
+    }
+
+    /**
+     * Passe à un autre clip en gardant la position dans le temps : par exemple, changer de
+     * direction en marchant ne fait pas recommencer le cycle de marche.
+     */
+    public void switchTo(int slot, int clipId) {
+        if (clip[slot] != clipId) {
+            clip[slot] = clipId;
+            time[slot] = library.get(clipId).wrap(time[slot]);
+        }
+    }
+
+    /** Clip joué par un emplacement */
+    public int clipOf(int slot) {
+        return clip[slot];
+    }
+
+    /** Position dans le clip (en ticks) */
+    public int timeOf(int slot) {
+        return time[slot];
+    }
+
+    /** Frame affichée par un emplacement */
+    public int frame(int slot) {
+        return library.get(clip[slot]).frameAt(time[slot]);
+    }
+
+    /** Image affichée par un emplacement (null si les images du clip ne sont pas chargées) */
+    public BufferedImage image(int slot) {
+        return library.get(clip[slot]).imageAt(time[slot]);
+    }
+
+    /** Indique si un clip joué une seule fois est arrivé à sa dernière frame */
+    public boolean isFinished(int slot) {
+        AnimationClip c = library.get(clip[slot]);
+        return !c.loop && time[slot] == c.totalTicks - 1;
+    }
+}
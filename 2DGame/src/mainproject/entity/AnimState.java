@@ -0,0 +1,17 @@
+package mainproject.entity;
+
+/**
+ * État d'animation d'une entité. L'ordinal sert de premier index dans la table des
+ * clips d'animation du joueur ([état][direction]).
+ */
+public enum AnimState {
+    /** Immobile */
+    IDLE,
+    /** En marche */
+    MARCHE,
+    /** En train d'attaquer */
+    ATTAQUE;
+
+    /** Nombre d'états (taille des tables indexées par état) */
+    public static final int COUNT = values().length;
+}
@@ -0,0 +1,29 @@
+package mainproject.entity;
+
+/**
+ * Direction d'une entité. L'ordinal sert d'index dans la table des clips d'animation
+ * du joueur ([état][direction]) et dans les tableaux de PnjStore.
+ */
+public enum Direction {
+    HAUT,
+    BAS,
+    GAUCHE,
+    DROITE;
+
+    /** Nombre de directions (taille des tables indexées par direction) */
+    public static final int COUNT = values().length;
+
+    /** Déplacement unitaire (en pixels) de chaque direction, par ordinal (privés : non modifiables) */
+    private static final int[] DX = {0, 0, -1, 1};
+    private static final int[] DY = {-1, 1, 0, 0};
+
+    /** Déplacement horizontal unitaire de la direction d'un ordinal (-1, 0 ou 1) */
+    public static int dx(int ordinal) {
+        return DX[ordinal];
+    }
+
+    /** Déplacement vertical unitaire de la direction d'un ordinal (-1, 0 ou 1) */
+    public static int dy(int ordinal) {
+        return DY[ordinal];
+    }
+}
@@ -0,0 +1,106 @@
+package mainproject.entity;
+
+import java.util.Arrays;
+
+/**
+ * Correspondance entre poignées stables et index denses des collections d'entités (PnjStore).
+ *
+ * Les éléments vivants occupent les index 0 à size-1 sans trou ; la collection range ses
+ * données aux mêmes index. Une poignée (int positif) est faite d'un numéro d'emplacement et
+ * de la génération de cet emplacement : une poignée d'élément supprimé ne désigne plus rien,
+ * même si son emplacement a été réutilisé (jusqu'à 2048 réutilisations du même emplacement).
+ */
+final class HandleTable {
+
+    private static final int SLOT_BITS = 20;
+    private static final int SLOT_MASK = (1 << SLOT_BITS) - 1;
+    private static final int GENERATION_MASK = (1 << (31 - SLOT_BITS)) - 1;
+
+    /** Emplacement de chaque élément vivant */
+    private int[] denseSlot;
+    private int size;
+
+    /** Index de l'élément de chaque emplacement occupé, ou emplacement libre suivant */
+    private int[] slotIndex;
+    /** Génération de chaque emplacement, incrémentée à chaque suppression */
+    private int[] slotGeneration;
+    private int slotCount;
+    private int freeSlot = -1;
+
+    HandleTable(int capacity) {
+        denseSlot = new int[capacity];
+        slotIndex = new int[capacity];
+        slotGeneration = new int[capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Réserve l'index size() pour un nouvel élément.
+     *
+     * @return poignée du nouvel élément
+     */
+    int add() {
+        int slot;
+        if (freeSlot != -1) {
+            slot = freeSlot;
+            freeSlot = slotIndex[slot];
+        } else {
+            if (slotCount > SLOT_MASK) {
+                throw new IllegalStateException("Trop d'entités : " + slotCount);
+            }
+            if (slotCount == slotIndex.length) {
+                slotIndex = Arrays.copyOf(slotIndex, slotCount * 2);
+                slotGeneration = Arrays.copyOf(slotGeneration, slotCount * 2);
+            }
+            slot = slotCount++;
+        }
+        if (size == denseSlot.length) {
+            denseSlot = Arrays.copyOf(denseSlot, size * 2);
+        }
+        denseSlot[size] = slot;
+        slotIndex[slot] = size;
+        size++;
+        return (slotGeneration[slot] << SLOT_BITS) | slot;
+    }
+
+    int handleAt(int index) {
+        int slot = denseSlot[index];
+        return (slotGeneration[slot] << SLOT_BITS) | slot;
+    }
+
+    /**
+     * Index de l'élément désigné par une poignée, ou -1 s'il a été supprimé.
+     */
+    int indexOf(int handle) {
+        if (handle < 0) return -1;
+        int slot = handle & SLOT_MASK;
+        if (slot >= slotCount || slotGeneration[slot] != handle >>> SLOT_BITS) return -1;
+        int index = slotIndex[slot];
+        return index >= 0 && index < size && denseSlot[index] == slot ? index : -1;
+    }
+
+    /**
+     * Libère l'index donné : l'élément du dernier index prend sa place.
+     * La collection doit déplacer ses données de l'index renvoyé vers index (rien à faire
+     * si les deux sont égaux).
+     *
+     * @return ancien index du dernier élément
+     */
+    int removeAt(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        int slot = denseSlot[index];
+        int last = --size;
+        denseSlot[index] = denseSlot[last];
+        slotIndex[denseSlot[index]] = index;
+
+        slotGeneration[slot] = (slotGeneration[slot] + 1) & GENERATION_MASK;
+        slotIndex[slot] = freeSlot;
+        freeSlot = slot;
+        return last;
+    }
+}
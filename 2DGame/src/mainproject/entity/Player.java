@@ -2,8 +2,8 @@ package mainproject.entity;
 
 import mainproject.GamePanel;
 import mainproject.KeyHandler;
+import mainproject.RenderSnapshot;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
@@ -31,10 +31,14 @@ public class Player extends Entity {
     public final int screenX;
     public final int screenY;
 
+    /** Clip de chaque état et de chaque direction : clips[état][direction] */
+    private final int[][] clips = new int[AnimState.COUNT][Direction.COUNT];
+
     // Attributs pour gérer l'attaque
-    private String attackDirection = "droite"; // Direction de l'attaque
+    private Direction attackDirection = Direction.DROITE; // Direction de l'attaque
     private int attackSpeed = 8; // Vitesse spéciale pour l'attaque
     private int attackCounter = 0; // Compteur pour suivre les mouvements d'attaque
+    private int attackDuration; // Durée d'une attaque (en ticks, 0.25 seconde)
     private boolean isAttacking = false; // État pour indiquer si le joueur est en train d'attaquer
     public int maxHealth = 100; // Maximum de points de vie
     public int currentHealth = 100; // Points de vie actuels
@@ -42,7 +46,7 @@ public class Player extends Entity {
     // Variables pour la régénération des HP après la mort
     private boolean isDead = false; // Indique si le joueur est mort
     private int regenCounter = 0; // Compteur pour gérer la régénération des HP
-    private int regenInterval = 60; // Intervalle entre chaque régénération (60 frames = 1 seconde à 60 FPS)
+    private int regenInterval; // Intervalle entre chaque régénération (en ticks, 1 seconde)
     private int regenAmount = 1; // Quantité de HP régénérée à chaque intervalle
 
     // Variables pour la stamina
@@ -50,7 +54,7 @@ public class Player extends Entity {
     private int currentStamina = 100; // Stamina actuelle
     private int staminaCost = 20; // Coût en stamina par attaque
     private int staminaRegenCounter = 0; // Compteur pour gérer la régénération de la stamina
-    private int staminaRegenInterval = 30; // Intervalle entre chaque régénération (30 frames = 0.5 seconde à 60 FPS)
+    private int staminaRegenInterval; // Intervalle entre chaque régénération (en ticks, 0.5 seconde)
     private int staminaRegenAmount = 2; // Quantité de stamina régénérée à chaque intervalle
 
     /**
@@ -71,6 +75,21 @@ public class Player extends Entity {
         // Définir la hitbox pour les collisions
         hitbox = new Rectangle(8, 16, 16, 16);
 
+        // Durées exprimées en secondes, converties selon la cadence de simulation
+        regenInterval = gp.secondsToTicks(1.0);
+        staminaRegenInterval = gp.secondsToTicks(0.5);
+        attackDuration = gp.secondsToTicks(0.25);
+
+        // Clips nommés état.direction dans le descripteur des animations (ex : marche.gauche)
+        for (AnimState state : AnimState.values()) {
+            for (Direction d : Direction.values()) {
+                clips[state.ordinal()][d.ordinal()] =
+                        gp.animations.id(state.name().toLowerCase() + "." + d.name().toLowerCase());
+            }
+        }
+        animator = gp.animator;
+        animation = animator.add(clips[AnimState.IDLE.ordinal()][Direction.BAS.ordinal()]);
+
         setDefaultValues();
         getPlayerImage();
     }
@@ -82,97 +101,19 @@ public class Player extends Entity {
         worldx = gp.tileSize * 23;
         worldy = gp.tileSize * 21;
         speed = 4;
-        direction = "bas";
+        direction = Direction.BAS;
         currentHealth = maxHealth; // Initialiser les HP
         currentStamina = maxStamina; // Initialiser la stamina
+        savePreviousPosition();
     }
 
     /**
-     * Charge tous les sprites d'animation du joueur (marche, idle et attaque) pour chaque direction.
+     * Charge les images des clips d'animation (marche, idle et attaque) à l'échelle courante.
+     * Les images sont partagées par la bibliothèque des animations.
      */
     public void getPlayerImage() {
         try {
-            // Haut
-            haut1 = ImageIO.read(getClass().getResourceAsStream("/player/row-6-column-1.png"));
-            haut2 = ImageIO.read(getClass().getResourceAsStream("/player/row-6-column-2.png"));
-            haut3 = ImageIO.read(getClass().getResourceAsStream("/player/row-6-column-3.png"));
-            haut4 = ImageIO.read(getClass().getResourceAsStream("/player/row-6-column-4.png"));
-            haut5 = ImageIO.read(getClass().getResourceAsStream("/player/row-6-column-5.png"));
-            haut6 = ImageIO.read(getClass().getResourceAsStream("/player/row-6-column-6.png"));
-
-            // Bas
-            bas1 = ImageIO.read(getClass().getResourceAsStream("/player/row-4-column-1.png"));
-            bas2 = ImageIO.read(getClass().getResourceAsStream("/player/row-4-column-2.png"));
-            bas3 = ImageIO.read(getClass().getResourceAsStream("/player/row-4-column-3.png"));
-            bas4 = ImageIO.read(getClass().getResourceAsStream("/player/row-4-column-4.png"));
-            bas5 = ImageIO.read(getClass().getResourceAsStream("/player/row-4-column-5.png"));
-            bas6 = ImageIO.read(getClass().getResourceAsStream("/player/row-4-column-6.png"));
-
-            // Gauche
-            gauche1 = ImageIO.read(getClass().getResourceAsStream("/player/row-5-column-1-gauche.png"));
-            gauche2 = ImageIO.read(getClass().getResourceAsStream("/player/row-5-column-2-gauche.png"));
-            gauche3 = ImageIO.read(getClass().getResourceAsStream("/player/row-5-column-3-gauche.png"));
-            gauche4 = ImageIO.read(getClass().getResourceAsStream("/player/row-5-column-4-gauche.png"));
-            gauche5 = ImageIO.read(getClass().getResourceAsStream("/player/row-5-column-5-gauche.png"));
-            gauche6 = ImageIO.read(getClass().getResourceAsStream("/player/row-5-column-6-gauche.png"));
-
-            // Droite
-            droite1 = ImageIO.read(getClass().getResourceAsStream("/player/row-5-column-1.png"));
-            droite2 = ImageIO.read(getClass().getResourceAsStream("/player/row-5-column-2.png"));
-            droite3 = ImageIO.read(getClass().getResourceAsStream("/player/row-5-column-3.png"));
-            droite4 = ImageIO.read(getClass().getResourceAsStream("/player/row-5-column-4.png"));
-            droite5 = ImageIO.read(getClass().getResourceAsStream("/player/row-5-column-5.png"));
-            droite6 = ImageIO.read(getClass().getResourceAsStream("/player/row-5-column-6.png"));
-
-            // Idle
-            idleHaut1 = ImageIO.read(getClass().getResourceAsStream("/player/idle-haut-1.png"));
-            idleHaut2 = ImageIO.read(getClass().getResourceAsStream("/player/idle-haut-2.png"));
-            idleHaut3 = ImageIO.read(getClass().getResourceAsStream("/player/idle-haut-3.png"));
-            idleHaut4 = ImageIO.read(getClass().getResourceAsStream("/player/idle-haut-4.png"));
-            idleHaut5 = ImageIO.read(getClass().getResourceAsStream("/player/idle-haut-5.png"));
-            idleHaut6 = ImageIO.read(getClass().getResourceAsStream("/player/idle-haut-6.png"));
-
-            idleBas1 = ImageIO.read(getClass().getResourceAsStream("/player/idle-bas-1.png"));
-            idleBas2 = ImageIO.read(getClass().getResourceAsStream("/player/idle-bas-2.png"));
-            idleBas3 = ImageIO.read(getClass().getResourceAsStream("/player/idle-bas-3.png"));
-            idleBas4 = ImageIO.read(getClass().getResourceAsStream("/player/idle-bas-4.png"));
-            idleBas5 = ImageIO.read(getClass().getResourceAsStream("/player/idle-bas-5.png"));
-            idleBas6 = ImageIO.read(getClass().getResourceAsStream("/player/idle-bas-6.png"));
-
-            idleGauche1 = ImageIO.read(getClass().getResourceAsStream("/player/idle-gauche-1.png"));
-            idleGauche2 = ImageIO.read(getClass().getResourceAsStream("/player/idle-gauche-2.png"));
-            idleGauche3 = ImageIO.read(getClass().getResourceAsStream("/player/idle-gauche-3.png"));
-            idleGauche4 = ImageIO.read(getClass().getResourceAsStream("/player/idle-gauche-4.png"));
-            idleGauche5 = ImageIO.read(getClass().getResourceAsStream("/player/idle-gauche-5.png"));
-            idleGauche6 = ImageIO.read(getClass().getResourceAsStream("/player/idle-gauche-6.png"));
-
-            idleDroite1 = ImageIO.read(getClass().getResourceAsStream("/player/idle-droite-1.png"));
-            idleDroite2 = ImageIO.read(getClass().getResourceAsStream("/player/idle-droite-2.png"));
-            idleDroite3 = ImageIO.read(getClass().getResourceAsStream("/player/idle-droite-3.png"));
-            idleDroite4 = ImageIO.read(getClass().getResourceAsStream("/player/idle-droite-4.png"));
-            idleDroite5 = ImageIO.read(getClass().getResourceAsStream("/player/idle-droite-5.png"));
-            idleDroite6 = ImageIO.read(getClass().getResourceAsStream("/player/idle-droite-6.png"));
-
-            // Attaque
-            attackHaut1 = ImageIO.read(getClass().getResourceAsStream("/player/row-9-column-1.png"));
-            attackHaut2 = ImageIO.read(getClass().getResourceAsStream("/player/row-9-column-2.png"));
-            attackHaut3 = ImageIO.read(getClass().getResourceAsStream("/player/row-9-column-3.png"));
-            attackHaut4 = ImageIO.read(getClass().getResourceAsStream("/player/row-9-column-4.png"));
-
-            attackBas1 = ImageIO.read(getClass().getResourceAsStream("/player/row-7-column-1.png"));
-            attackBas2 = ImageIO.read(getClass().getResourceAsStream("/player/row-7-column-2.png"));
-            attackBas3 = ImageIO.read(getClass().getResourceAsStream("/player/row-7-column-3.png"));
-            attackBas4 = ImageIO.read(getClass().getResourceAsStream("/player/row-7-column-4.png"));
-
-            attackGauche1 = ImageIO.read(getClass().getResourceAsStream("/player/row-7-column-1.png"));
-            attackGauche2 = ImageIO.read(getClass().getResourceAsStream("/player/row-7-column-2.png"));
-            attackGauche3 = ImageIO.read(getClass().getResourceAsStream("/player/row-7-column-3.png"));
-            attackGauche4 = ImageIO.read(getClass().getResourceAsStream("/player/row-7-column-4.png"));
-
-            attackDroite1 = ImageIO.read(getClass().getResourceAsStream("/player/row-8-column-1.png"));
-            attackDroite2 = ImageIO.read(getClass().getResourceAsStream("/player/row-8-column-2.png"));
-            attackDroite3 = ImageIO.read(getClass().getResourceAsStream("/player/row-8-column-3.png"));
-            attackDroite4 = ImageIO.read(getClass().getResourceAsStream("/player/row-8-column-4.png"));
+            gp.animations.loadImages(gp.imageCache);
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -217,6 +158,8 @@ public class Player extends Entity {
         if (isDead) {
             isMoving = false;
             isAttacking = false;
+            animState = AnimState.IDLE;
+            animator.switchTo(animation, clips[AnimState.IDLE.ordinal()][direction.ordinal()]);
             return;
         }
 
@@ -238,7 +181,7 @@ public class Player extends Entity {
         }
 
         if (isAttacking) {
-            if (attackCounter < 15) { // Limiter à 15 mouvements
+            if (attackCounter < attackDuration) { // Limiter la durée de l'attaque
                 speed = attackSpeed;
                 attackCounter++;
             } else {
@@ -264,169 +207,74 @@ public class Player extends Entity {
             speedY *= diagonalSpeed / speed;
         }
 
-        // Vérification des collisions avec la carte
-        collisionOn = false;
-        int originalWorldX = worldx;
-        int originalWorldY = worldy;
-
-        if (speedX != 0) {
-            worldx += speedX;
-            gp.collisionChecker.checkTile(this);
-            if (collisionOn) worldx = originalWorldX;
-        }
-
-        if (speedY != 0) {
-            worldy += speedY;
-            gp.collisionChecker.checkTile(this);
-            if (collisionOn) worldy = originalWorldY;
-        }
+        // Déplacement contre la carte : chaque axe avance jusqu'au mur (glissement le long des murs)
+        // Même arrondi qu'un worldx += speedX
+        int dx = (int) (worldx + speedX) - worldx;
+        int dy = (int) (worldy + speedY) - worldy;
+        gp.collisionChecker.move(this, dx, dy);
 
         // Mettre à jour la direction principale pour l'animation
-        if (movingUp && !movingDown) direction = "haut";
-        else if (movingDown && !movingUp) direction = "bas";
-        if (movingLeft && !movingRight) direction = "gauche";
-        else if (movingRight && !movingLeft) direction = "droite";
+        if (movingUp && !movingDown) direction = Direction.HAUT;
+        else if (movingDown && !movingUp) direction = Direction.BAS;
+        if (movingLeft && !movingRight) direction = Direction.GAUCHE;
+        else if (movingRight && !movingLeft) direction = Direction.DROITE;
 
         isMoving = movingUp || movingDown || movingLeft || movingRight || isAttacking;
         updateAnimation();
     }
 
     /**
-     * Dessine le joueur à l'écran avec le bon sprite selon sa direction et son état (marche, idle ou attaque).
-     *
-     * @param g2 Contexte graphique utilisé pour le dessin.
+     * Capture le sprite du joueur et les valeurs du HUD pour le rendu.
+     * Le joueur mort n'a pas de sprite, mais ses barres de PV et de stamina restent affichées.
      */
-    public void draw(Graphics2D g2) {
-        BufferedImage image = null;
-
-        if (isAttacking) {
-            switch (attackDirection) {
-                case "haut":
-                    switch (attackCounter / 6) {
-                        case 0: image = attackHaut1; break;
-                        case 1: image = attackHaut2; break;
-                        case 2: image = attackHaut3; break;
-                        case 3: image = attackHaut4; break;
-                        default: image = attackHaut1; break;
-                    }
-                    break;
-                case "bas":
-                    switch (attackCounter / 6) {
-                        case 0: image = attackBas1; break;
-                        case 1: image = attackBas2; break;
-                        case 2: image = attackBas3; break;
-                        case 3: image = attackBas4; break;
-                        default: image = attackBas1; break;
-                    }
-                    break;
-                case "gauche":
-                    switch (attackCounter / 6) {
-                        case 0: image = attackGauche1; break;
-                        case 1: image = attackGauche2; break;
-                        case 2: image = attackGauche3; break;
-                        case 3: image = attackGauche4; break;
-                        default: image = attackGauche1; break;
-                    }
-                    break;
-                case "droite":
-                    switch (attackCounter / 6) {
-                        case 0: image = attackDroite1; break;
-                        case 1: image = attackDroite2; break;
-                        case 2: image = attackDroite3; break;
-                        case 3: image = attackDroite4; break;
-                        default: image = attackDroite1; break;
-                    }
-                    break;
-            }
-        } else if (isMoving) {
-            switch (direction) {
-                case "haut":
-                    image = getMovingSprite(haut1, haut2, haut3, haut4, haut5, haut6);
-                    break;
-                case "bas":
-                    image = getMovingSprite(bas1, bas2, bas3, bas4, bas5, bas6);
-                    break;
-                case "gauche":
-                    image = getMovingSprite(gauche1, gauche2, gauche3, gauche4, gauche5, gauche6);
-                    break;
-                case "droite":
-                    image = getMovingSprite(droite1, droite2, droite3, droite4, droite5, droite6);
-                    break;
-            }
-        } else {
-            switch (direction) {
-                case "haut":
-                    image = getIdleSprite(idleHaut1, idleHaut2, idleHaut3, idleHaut4, idleHaut5, idleHaut6);
-                    break;
-                case "bas":
-                    image = getIdleSprite(idleBas1, idleBas2, idleBas3, idleBas4, idleBas5, idleBas6);
-                    break;
-                case "gauche":
-                    image = getIdleSprite(idleGauche1, idleGauche2, idleGauche3, idleGauche4, idleGauche5, idleGauche6);
-                    break;
-                case "droite":
-                    image = getIdleSprite(idleDroite1, idleDroite2, idleDroite3, idleDroite4, idleDroite5, idleDroite6);
-                    break;
-            }
-        }
-
-        // Ne pas dessiner le joueur s'il est mort (optionnel, selon votre préférence)
-        if (!isDead) {
-            g2.drawImage(image, screenX, screenY, gp.tileSize, gp.tileSize, null);
+    @Override
+    public RenderSnapshot.Sprite captureSprite(RenderSnapshot snapshot) {
+        RenderSnapshot.Sprite sprite = super.captureSprite(snapshot);
+        if (isDead) {
+            sprite.image = null;
         }
 
-        // Toujours dessiner les barres de PV et de stamina, même si le joueur est mort
-        drawHealthBar(g2);
-        drawStaminaBar(g2);
+        snapshot.playerX = worldx;
+        snapshot.playerY = worldy;
+        snapshot.playerPrevX = prevWorldx;
+        snapshot.playerPrevY = prevWorldy;
+        snapshot.playerHealth = currentHealth;
+        snapshot.playerMaxHealth = maxHealth;
+        snapshot.playerStamina = currentStamina;
+        snapshot.playerMaxStamina = maxStamina;
+        return sprite;
     }
 
     /**
-     * Retourne le sprite correspondant à l'animation de marche.
+     * Dessine les barres de PV et de stamina à partir des valeurs capturées.
      */
-    private BufferedImage getMovingSprite(BufferedImage sprite1, BufferedImage sprite2, BufferedImage sprite3, BufferedImage sprite4, BufferedImage sprite5, BufferedImage sprite6) {
-        switch (spriteNum) {
-            case 1: return sprite1;
-            case 2: return sprite2;
-            case 3: return sprite3;
-            case 4: return sprite4;
-            case 5: return sprite5;
-            case 6: return sprite6;
-            default: return sprite1;
-        }
+    public void drawHud(Graphics2D g2, RenderSnapshot snapshot) {
+        drawHealthBar(g2, snapshot.playerHealth, snapshot.playerMaxHealth);
+        drawStaminaBar(g2, snapshot.playerStamina, snapshot.playerMaxStamina);
     }
 
     /**
-     * Retourne le sprite correspondant à l'animation idle.
-     */
-    private BufferedImage getIdleSprite(BufferedImage sprite1, BufferedImage sprite2, BufferedImage sprite3, BufferedImage sprite4, BufferedImage sprite5, BufferedImage sprite6) {
-        switch (spriteNum) {
-            case 1: return sprite1;
-            case 2: return sprite2;
-            case 3: return sprite3;
-            case 4: return sprite4;
-            case 5: return sprite5;
-            case 6: return sprite6;
-            default: return sprite1;
-        }
-    }
-
-    /**
-     * Gère l’animation du joueur.
-     * Incrémente un compteur pour changer de sprite toutes les 12 frames.
+     * Choisit le clip du joueur selon son état (marche, idle ou attaque) et sa direction
+     * (celle de l'attaque pendant une attaque). Une attaque part de sa première frame ;
+     * la marche et l'idle gardent leur cadence en changeant de direction.
+     * Les clips avancent ensuite avec toutes les animations (Animator.update).
      */
     public void updateAnimation() {
-        spriteCounter++;
-        if (spriteCounter >= 12) {
-            spriteNum++;
-            if (spriteNum > 6) spriteNum = 1;
-            spriteCounter = 0;
+        AnimState state = isAttacking ? AnimState.ATTAQUE : isMoving ? AnimState.MARCHE : AnimState.IDLE;
+        Direction facing = isAttacking ? attackDirection : direction;
+        int clip = clips[state.ordinal()][facing.ordinal()];
+        if (state == AnimState.ATTAQUE && animState != AnimState.ATTAQUE) {
+            animator.play(animation, clip);
+        } else {
+            animator.switchTo(animation, clip);
         }
+        animState = state;
     }
 
     /**
      * Dessine la barre de PV avec Graphics2D.
      */
-    public void drawHealthBar(Graphics2D g2) {
+    public void drawHealthBar(Graphics2D g2, int currentHealth, int maxHealth) {
         // Dimensions totales (incluant le texte "HP" et la barre)
         int totalWidth = 48; // Largeur totale (texte "HP" + barre)
         int totalHeight = 6; // Hauteur de la barre
@@ -470,7 +318,7 @@ public class Player extends Entity {
     /**
      * Dessine la barre de stamina avec Graphics2D.
      */
-    public void drawStaminaBar(Graphics2D g2) {
+    public void drawStaminaBar(Graphics2D g2, int currentStamina, int maxStamina) {
         // Dimensions totales (incluant le texte "ST" et la barre)
         int totalWidth = 48; // Largeur totale (texte "ST" + barre)
         int totalHeight = 6; // Hauteur de la barre
@@ -516,8 +364,9 @@ public class Player extends Entity {
      */
     private void respawn() {
         // Réinitialiser la position au milieu de la carte
-        worldx = gp.tileSize * (gp.maxWorldCol / 2);
-        worldy = gp.tileSize * (gp.maxWorldRow / 2);
+        worldx = gp.tileSize * (gp.tileManager.maxWorldCol / 2);
+        worldy = gp.tileSize * (gp.tileManager.maxWorldRow / 2);
+        savePreviousPosition(); // ne pas interpoler la téléportation
 
         // Réinitialiser les HP à une petite valeur (par exemple, 10%)
         currentHealth = maxHealth / 10; // 10% de la vie maximale
@@ -0,0 +1,285 @@
+package mainproject.entity;
+
+import mainproject.Diagnostics;
+import mainproject.GamePanel;
+import mainproject.RenderSnapshot;
+import mainproject.SpatialGrid;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Stockage des PNJ (Personnages Non-Joueurs) en colonnes : chaque donnée d'un PNJ
+ * (position, vitesse, hitbox, direction, état) est rangée dans son propre tableau de
+ * primitives, au même index pour tous les tableaux.
+ *
+ * Un PNJ ne coûte ainsi qu'une quarantaine d'octets, sans objet ni String, et les systèmes
+ * (IA et déplacement, collisions, capture pour le rendu) parcourent les tableaux
+ * linéairement. Les images et les réglages sont communs à tous les PNJ.
+ *
+ * Les PNJ vivants occupent les index 0 à size()-1 (suppression par swap-remove) et sont
+ * désignés durablement par leur poignée (voir HandleTable).
+ * Non thread-safe : modifié par le thread de simulation seulement.
+ */
+public final class PnjStore {
+
+    // États
+    public static final byte ERRANCE = 0;   // déplacement au hasard
+    public static final byte AGGRO = 1;     // joueur dans le rayon d'aggro : poursuite/attaque
+
+    private final GamePanel gp;
+    private final HandleTable handles;
+
+    // Réglages communs
+    public int aggroRange = 100;    // distance à laquelle un PNJ détecte le joueur (en pixels)
+    public int attackDamage = 10;   // dégâts infligés par attaque
+    public int attackCooldown;      // délai entre deux attaques (en ticks, 1 seconde)
+    public int wanderInterval;      // délai avant de changer de direction au hasard (en ticks)
+
+    /** Sprites communs, par direction (ordinal de Direction) */
+    private final BufferedImage[] sprites = new BufferedImage[Direction.COUNT];
+
+    // Composants, de 0 à size()-1
+    public int[] x, y, prevX, prevY;
+    public int[] speed;
+    public short[] hitboxX, hitboxY, hitboxWidth, hitboxHeight;
+    public byte[] direction;      // ordinal de Direction
+    public byte[] state;
+    public int[] attackCounter;   // ticks depuis la dernière attaque
+    public int[] wanderCounter;   // ticks depuis le dernier changement de direction
+
+    /** Générateur pseudo-aléatoire (xorshift) des directions d'errance */
+    private int seed = 0x2545F491;
+
+    /**
+     * @param capacity nombre de PNJ prévu (les tableaux s'agrandissent au besoin)
+     */
+    public PnjStore(GamePanel gp, int capacity) {
+        this.gp = gp;
+        capacity = Math.max(capacity, 4);
+        handles = new HandleTable(capacity);
+        attackCooldown = gp.secondsToTicks(1.0);
+        wanderInterval = gp.secondsToTicks(100 / 60.0);
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        x = new int[capacity];
+        y = new int[capacity];
+        prevX = new int[capacity];
+        prevY = new int[capacity];
+        speed = new int[capacity];
+        hitboxX = new short[capacity];
+        hitboxY = new short[capacity];
+        hitboxWidth = new short[capacity];
+        hitboxHeight = new short[capacity];
+        direction = new byte[capacity];
+        state = new byte[capacity];
+        attackCounter = new int[capacity];
+        wanderCounter = new int[capacity];
+    }
+
+    private void grow() {
+        int capacity = x.length * 2;
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        prevX = Arrays.copyOf(prevX, capacity);
+        prevY = Arrays.copyOf(prevY, capacity);
+        speed = Arrays.copyOf(speed, capacity);
+        hitboxX = Arrays.copyOf(hitboxX, capacity);
+        hitboxY = Arrays.copyOf(hitboxY, capacity);
+        hitboxWidth = Arrays.copyOf(hitboxWidth, capacity);
+        hitboxHeight = Arrays.copyOf(hitboxHeight, capacity);
+        direction = Arrays.copyOf(direction, capacity);
+        state = Arrays.copyOf(state, capacity);
+        attackCounter = Arrays.copyOf(attackCounter, capacity);
+        wanderCounter = Arrays.copyOf(wanderCounter, capacity);
+    }
+
+    /**
+     * Charge les images communes des PNJ.
+     */
+    public void loadImages() {
+        try {
+            sprites[Direction.HAUT.ordinal()] = gp.imageCache.getSprite("/pnj/haut1.png");
+            sprites[Direction.BAS.ordinal()] = gp.imageCache.getSprite("/pnj/bas1.png");
+            sprites[Direction.GAUCHE.ordinal()] = gp.imageCache.getSprite("/pnj/gauche1.png");
+            sprites[Direction.DROITE.ordinal()] = gp.imageCache.getSprite("/pnj/droite1.png");
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /** Nombre de PNJ vivants */
+    public int size() {
+        return handles.size();
+    }
+
+    /** Poignée du PNJ à un index */
+    public int handleAt(int index) {
+        return handles.handleAt(index);
+    }
+
+    /** Index du PNJ désigné par une poignée, ou -1 s'il a été supprimé */
+    public int indexOf(int handle) {
+        return handles.indexOf(handle);
+    }
+
+    public boolean contains(int handle) {
+        return handles.indexOf(handle) >= 0;
+    }
+
+    /**
+     * Ajoute un PNJ immobile, tourné vers le bas.
+     *
+     * @return poignée du PNJ
+     */
+    public int spawn(int worldX, int worldY) {
+        int i = handles.size();
+        if (i == x.length) {
+            grow();
+        }
+        int handle = handles.add();
+        x[i] = prevX[i] = worldX;
+        y[i] = prevY[i] = worldY;
+        speed[i] = 1;
+        hitboxX[i] = 8;
+        hitboxY[i] = 16;
+        hitboxWidth[i] = 16;
+        hitboxHeight[i] = 16;
+        direction[i] = (byte) Direction.BAS.ordinal();
+        state[i] = ERRANCE;
+        attackCounter[i] = 0;
+        wanderCounter[i] = 0;
+        return handle;
+    }
+
+    /**
+     * Supprime le PNJ désigné par une poignée.
+     *
+     * @return false si le PNJ n'existait plus
+     */
+    public boolean remove(int handle) {
+        int index = handles.indexOf(handle);
+        if (index < 0) return false;
+        removeAt(index);
+        return true;
+    }
+
+    /**
+     * Supprime le PNJ d'un index : le dernier PNJ prend sa place.
+     */
+    public void removeAt(int index) {
+        int last = handles.removeAt(index);
+        if (last == index) return;
+        x[index] = x[last];
+        y[index] = y[last];
+        prevX[index] = prevX[last];
+        prevY[index] = prevY[last];
+        speed[index] = speed[last];
+        hitboxX[index] = hitboxX[last];
+        hitboxY[index] = hitboxY[last];
+        hitboxWidth[index] = hitboxWidth[last];
+        hitboxHeight[index] = hitboxHeight[last];
+        direction[index] = direction[last];
+        state[index] = state[last];
+        attackCounter[index] = attackCounter[last];
+        wanderCounter[index] = wanderCounter[last];
+    }
+
+    /**
+     * Mémorise les positions actuelles comme positions du tick précédent (interpolation).
+     */
+    public void savePreviousPositions() {
+        int n = size();
+        System.arraycopy(x, 0, prevX, 0, n);
+        System.arraycopy(y, 0, prevY, 0, n);
+    }
+
+    /**
+     * IA et déplacement de tous les PNJ : un PNJ proche du joueur se tourne vers lui et
+     * l'attaque à chaque fin de délai, les autres errent au hasard.
+     */
+    public void update(Player player) {
+        int n = size();
+        int playerX = player.worldx;
+        int playerY = player.worldy;
+        long aggroRangeSq = (long) aggroRange * aggroRange;
+        for (int i = 0; i < n; i++) {
+            attackCounter[i]++;
+
+            int dx = playerX - x[i];
+            int dy = playerY - y[i];
+            if ((long) dx * dx + (long) dy * dy <= aggroRangeSq) {
+                state[i] = AGGRO;
+                if (attackCounter[i] >= attackCooldown) {
+                    player.takeDamage(attackDamage);
+                    gp.diagnostics.record(Diagnostics.Event.PNJ_ATTACK, player.currentHealth);
+                    attackCounter[i] = 0;
+                }
+                // Faire face au joueur (priorité à l'axe le plus éloigné)
+                Direction facing;
+                if (Math.abs(dx) > Math.abs(dy)) {
+                    facing = dx > 0 ? Direction.DROITE : Direction.GAUCHE;
+                } else {
+                    facing = dy > 0 ? Direction.BAS : Direction.HAUT;
+                }
+                direction[i] = (byte) facing.ordinal();
+            } else {
+                state[i] = ERRANCE;
+                if (++wanderCounter[i] > wanderInterval) {
+                    direction[i] = (byte) ((nextRandom() & 0x7FFFFFFF) % Direction.COUNT);
+                    wanderCounter[i] = 0;
+                }
+                // Déplacer le PNJ selon sa direction, sans branchement
+                int d = direction[i];
+                x[i] += Direction.dx(d) * speed[i];
+                y[i] += Direction.dy(d) * speed[i];
+            }
+        }
+    }
+
+    /**
+     * Range les hitboxes de tous les PNJ dans la grille des collisions (identifiant = index).
+     */
+    public void insertHitboxes(SpatialGrid grid) {
+        int n = size();
+        for (int i = 0; i < n; i++) {
+            grid.insert(i, x[i] + hitboxX[i], y[i] + hitboxY[i], hitboxWidth[i], hitboxHeight[i]);
+        }
+    }
+
+    /**
+     * Capture les sprites des PNJ proches de la zone visible, avec leur rayon d'aggro
+     * (débogage) s'ils poursuivent le joueur.
+     *
+     * @param left bord gauche de la zone à capturer (en pixels du monde)
+     * @param top bord haut de la zone à capturer
+     * @param right bord droit de la zone à capturer
+     * @param bottom bord bas de la zone à capturer
+     */
+    public void captureSprites(RenderSnapshot snapshot, int left, int top, int right, int bottom) {
+        int n = size();
+        for (int i = 0; i < n; i++) {
+            int px = x[i];
+            int py = y[i];
+            if (px < left || px > right || py < top || py > bottom) continue;
+            RenderSnapshot.Sprite sprite = snapshot.addSprite();
+            sprite.image = sprites[direction[i]];
+            sprite.setPosition(px, py, prevX[i], prevY[i]);
+            if (state[i] == AGGRO) {
+                sprite.aggroRange = aggroRange;
+            }
+        }
+    }
+
+    private int nextRandom() {
+        int s = seed;
+        s ^= s << 13;
+        s ^= s >>> 17;
+        s ^= s << 5;
+        seed = s;
+        return s;
+    }
+}
@@ -0,0 +1,198 @@
+package mainproject.test;
+
+/**
+ * ╔══════════════════════════════════════════════════════╗
+ * ║                 CLASSE ANIMATOR_TEST                 ║
+ * ╚══════════════════════════════════════════════════════╝
+ * Tests des clips d'animation et de leur lecteur.
+ *
+ * La classe vérifie :
+ * - La lecture du descripteur de clips (durées, frames, modes) et le refus des lignes invalides.
+ * - Un clip en boucle qui recommence au début, un clip unique qui reste sur sa dernière frame.
+ * - play() et switchTo() : redémarrage du clip ou conservation de la position dans le temps.
+ */
+import mainproject.animation.AnimationClip;
+import mainproject.animation.AnimationLibrary;
+import mainproject.animation.Animator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.function.DoubleToIntFunction;
+
+public class AnimatorTest {
+
+    /** Conversion des durées des tests : 10 ticks par seconde. */
+    private static final DoubleToIntFunction TICKS = seconds -> (int) Math.round(seconds * 10);
+
+    /** Descripteur de test : une marche en boucle (3 frames de 2 ticks), une attaque unique (1 puis 3 ticks). */
+    private static final String CLIPS = String.join("\n",
+            "# clips de test",
+            "marche.bas    boucle   0.2       /test/marche-%d.png   1-3",
+            "",
+            "attaque.bas   unique   0.1,0.3   /test/attaque-%d.png  4-5   # durée par frame",
+            "marche.haut   boucle   0.1       /test/haut-%d.png     1-4");
+
+    private static AnimationLibrary parse(String text) throws IOException {
+        return AnimationLibrary.parse(new BufferedReader(new StringReader(text)), TICKS);
+    }
+
+    /** Indique si un descripteur est refusé. */
+    private static boolean isRejected(String text) {
+        try {
+            parse(text);
+            return false;
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    private static void check(boolean success, String description) {
+        System.out.println((success ? "✅ Test réussi : " : "❌ Test échoué : ") + description);
+    }
+
+    /**
+     * ╔══════════════════════╗
+     * ║  TEST : Descripteur  ║
+     * ╚══════════════════════╝
+     * Lit le descripteur de test et celui du jeu, puis des lignes invalides.
+     */
+    public void testParse() {
+        System.out.println("┌──── TEST : Animator.Descripteur ────┐");
+        try {
+            AnimationLibrary library = parse(CLIPS);
+            AnimationClip walk = library.get("marche.bas");
+            AnimationClip attack = library.get("attaque.bas");
+            check(library.size() == 3 && library.id("attaque.bas") == 1 && attack.id == 1,
+                    "Clips numérotés dans l'ordre du descripteur (commentaires et lignes vides ignorés)");
+            check(walk.loop && walk.frameCount() == 3 && walk.totalTicks == 6 && walk.framePaths[2].equals("/test/marche-3.png"),
+                    "Clip en boucle : frames, durée et chemins des images");
+            check(!attack.loop && attack.frameTicks[0] == 1 && attack.frameTicks[1] == 3 && attack.totalTicks == 4
+                            && attack.framePaths[0].equals("/test/attaque-4.png"),
+                    "Clip unique avec une durée par frame");
+
+            AnimationLibrary game = AnimationLibrary.load(AnimationLibrary.DEFAULT, TICKS);
+            check(game.size() > 0 && game.get("marche.bas").loop, "Descripteur du jeu lu");
+
+            check(isRejected("a boucle 0.2 /x-%d.png"), "Ligne incomplète refusée");
+            check(isRejected("a boucle 0.2 /x-%d.png 1-2\na unique 0.2 /y-%d.png 1-2"), "Clip en double refusé");
+            check(isRejected("a lent 0.2 /x-%d.png 1-2"), "Mode inconnu refusé");
+            check(isRejected("a boucle 0.1,0.2 /x-%d.png 1-3"), "Nombre de durées incorrect refusé");
+            check(isRejected("a boucle 0 /x-%d.png 1-3") && isRejected("a boucle abc /x-%d.png 1-3"), "Durée invalide refusée");
+            check(isRejected("a boucle 0.2 /x-%d.png 3-1"), "Frames dans le désordre refusées");
+        } catch (Exception e) {
+            System.out.println("❌ Test échoué : Exception levée -> " + e);
+        }
+        System.out.println("└───────────────────────────────────────────┘");
+    }
+
+    /**
+     * ╔══════════════════════╗
+     * ║    TEST : Lecture    ║
+     * ╚══════════════════════╝
+     * Fait avancer une marche en boucle et une attaque unique tick par tick.
+     */
+    public void testPlayback() {
+        System.out.println("┌──── TEST : Animator.Lecture ────┐");
+        try {
+            AnimationLibrary library = parse(CLIPS);
+            Animator animator = new Animator(library, 1);
+            int walk = animator.add(library.id("marche.bas"));
+            int attack = animator.add(library.id("attaque.bas"));
+
+            // Marche : frames 0, 0, 1, 1, 2, 2 puis retour au début
+            int[] expectedWalk = { 0, 0, 1, 1, 2, 2, 0, 0, 1, 1, 2, 2, 0 };
+            // Attaque : frame 0 pendant 1 tick, frame 1 pendant 3 ticks, puis bloquée sur la frame 1
+            int[] expectedAttack = { 0, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1 };
+            boolean walkOk = true, attackOk = true, finishedOk = true;
+            for (int tick = 0; tick < expectedWalk.length; tick++) {
+                walkOk &= animator.frame(walk) == expectedWalk[tick] && !animator.isFinished(walk);
+                attackOk &= animator.frame(attack) == expectedAttack[tick];
+                finishedOk &= animator.isFinished(attack) == (tick >= 3);
+                animator.update();
+            }
+            check(walkOk, "Clip en boucle recommencé au début après sa dernière frame");
+            check(attackOk && animator.timeOf(attack) == 3, "Clip unique bloqué sur sa dernière frame");
+            check(finishedOk, "isFinished vrai à partir de la dernière frame du clip unique seulement");
+
+            // Plus d'emplacements que la capacité prévue
+            for (int i = 0; i < 20; i++) {
+                animator.add(library.id("marche.haut"));
+            }
+            animator.update();
+            check(animator.size() == 22 && animator.timeOf(21) == 1 && animator.timeOf(attack) == 3,
+                    "Emplacements ajoutés au-delà de la capacité, animés indépendamment");
+        } catch (Exception e) {
+            System.out.println("❌ Test échoué : Exception levée -> " + e);
+        }
+        System.out.println("└───────────────────────────────────────────┘");
+    }
+
+    /**
+     * ╔══════════════════════╗
+     * ║  TEST : Changements  ║
+     * ╚══════════════════════╝
+     * play() recommence un nouveau clip mais pas celui en cours ; switchTo() garde la position,
+     * ramenée dans le nouveau clip s'il est plus court.
+     */
+    public void testClipChanges() {
+        System.out.println("┌──── TEST : Animator.Changements ────┐");
+        try {
+            AnimationLibrary library = parse(CLIPS);
+            int walkDown = library.id("marche.bas"), walkUp = library.id("marche.haut"), attack = library.id("attaque.bas");
+            Animator animator = new Animator(library, 4);
+            int slot = animator.add(walkDown);
+
+            animator.update();
+            animator.update();
+            animator.update();
+            animator.play(slot, walkDown);
+            check(animator.timeOf(slot) == 3, "play() du clip en cours sans effet");
+
+            animator.switchTo(slot, walkUp);
+            check(animator.clipOf(slot) == walkUp && animator.timeOf(slot) == 3 && animator.frame(slot) == 3,
+                    "switchTo() garde la position dans le temps");
+
+            animator.play(slot, walkDown);
+            animator.update();
+            animator.update();
+            animator.update();
+            animator.update();
+            animator.update();
+            animator.switchTo(slot, walkUp);
+            check(animator.timeOf(slot) == 1, "switchTo() vers un clip en boucle plus court : position ramenée en boucle");
+
+            animator.play(slot, walkDown);
+            check(animator.clipOf(slot) == walkDown && animator.timeOf(slot) == 0, "play() d'un autre clip recommence au début");
+
+            for (int i = 0; i < 5; i++) {
+                animator.update();
+            }
+            animator.switchTo(slot, attack);
+            check(animator.timeOf(slot) == 3 && animator.isFinished(slot),
+                    "switchTo() vers un clip unique plus court : dernière frame");
+        } catch (Exception e) {
+            System.out.println("❌ Test échoué : Exception levée -> " + e);
+        }
+        System.out.println("└───────────────────────────────────────────┘");
+    }
+
+    /**
+     * ╔══════════════════════╗
+     * ║    MÉTHODE : main    ║
+     * ╚══════════════════════╝
+     * Point d'entrée principal.
+     *
+     * @param args Arguments de la ligne de commande (non utilisés).
+     */
+    public static void main(String[] args) {
+        System.out.println("══════ DÉBUT DES TESTS DE LA CLASSE ANIMATOR ══════");
+
+        AnimatorTest tester = new AnimatorTest();
+        tester.testParse();
+        tester.testPlayback();
+        tester.testClipChanges();
+
+        System.out.println("══════ FIN DES TESTS DE LA CLASSE ANIMATOR ══════");
+    }
+}
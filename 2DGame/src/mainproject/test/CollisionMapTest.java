@@ -0,0 +1,165 @@
+package mainproject.test;
+
+/**
+ * ╔══════════════════════════════════════════════════════╗
+ * ║               CLASSE COLLISIONMAP_TEST               ║
+ * ╚══════════════════════════════════════════════════════╝
+ * Tests de la carte des collisions (un bit par case).
+ *
+ * La classe vérifie :
+ * - La cuisson à partir des couches bloquantes, comparée au test tuile par tuile.
+ * - La mise à jour d'une case après la modification d'une tuile.
+ * - Les tuiles vides ou inconnues et les couches absentes, qui ne bloquent pas.
+ */
+import mainproject.tile.CollisionMap;
+import mainproject.tile.TileMap;
+
+import java.util.Random;
+
+public class CollisionMapTest {
+
+    /** Carte de test : dimensions qui ne tombent pas sur un multiple de 64 bits. */
+    private static final int COLS = 53, ROWS = 37, LAYERS = 3;
+
+    /** Couches bloquantes, comme TileManager.COLLISION_LAYERS. */
+    private static final int[] BLOCKING_LAYERS = {0, 2};
+
+    /** Types de tuiles : les tuiles 2, 5 et 7 bloquent le passage. */
+    private static final boolean[] BLOCKING_TYPES = {false, false, true, false, false, true, false, true};
+
+    /** Carte aléatoire : tuiles vides et tuiles au-delà des types connus comprises. */
+    private static TileMap createMap(Random random) {
+        TileMap map = new TileMap(LAYERS, COLS, ROWS);
+        for (int layer = 0; layer < LAYERS; layer++) {
+            for (int row = 0; row < ROWS; row++) {
+                for (int col = 0; col < COLS; col++) {
+                    map.setTile(layer, col, row, randomTile(random));
+                }
+            }
+        }
+        return map;
+    }
+
+    /** Tuile aléatoire entre EMPTY et un type inconnu (au-delà de BLOCKING_TYPES). */
+    private static int randomTile(Random random) {
+        return random.nextInt(BLOCKING_TYPES.length + 3) - 1;
+    }
+
+    /** Test de référence : une case bloque si une tuile d'une couche bloquante est collisionnable. */
+    private static boolean isBlockedBruteForce(TileMap map, int col, int row) {
+        for (int layer : BLOCKING_LAYERS) {
+            int tile = map.getTile(layer, col, row);
+            if (tile >= 0 && tile < BLOCKING_TYPES.length && BLOCKING_TYPES[tile]) return true;
+        }
+        return false;
+    }
+
+    /** Indique si toutes les cases de la carte des collisions correspondent au test de référence. */
+    private static boolean matchesBruteForce(CollisionMap collisions, TileMap map) {
+        for (int row = 0; row < ROWS; row++) {
+            for (int col = 0; col < COLS; col++) {
+                if (collisions.isBlocked(col, row) != isBlockedBruteForce(map, col, row)) return false;
+            }
+        }
+        return true;
+    }
+
+    private static void check(boolean success, String description) {
+        System.out.println((success ? "✅ Test réussi : " : "❌ Test échoué : ") + description);
+    }
+
+    /**
+     * ╔══════════════════════╗
+     * ║     TEST : Bake      ║
+     * ╚══════════════════════╝
+     * Cuit plusieurs cartes aléatoires et compare chaque case au test tuile par tuile.
+     */
+    public void testBake() {
+        System.out.println("┌──── TEST : CollisionMap.Bake ────┐");
+        try {
+            Random random = new Random(18);
+            boolean success = true;
+            for (int n = 0; n < 20 && success; n++) {
+                TileMap map = createMap(random);
+                success = matchesBruteForce(CollisionMap.bake(map, BLOCKING_TYPES, BLOCKING_LAYERS), map);
+            }
+            check(success, "Carte cuite identique au test tuile par tuile (20 cartes aléatoires)");
+
+            // La couche 1 ne compte pas, même remplie de tuiles bloquantes
+            TileMap map = new TileMap(LAYERS, COLS, ROWS);
+            map.fillLayer(0, 0);
+            map.fillLayer(1, 2);
+            map.fillLayer(2, TileMap.EMPTY);
+            CollisionMap collisions = CollisionMap.bake(map, BLOCKING_TYPES, BLOCKING_LAYERS);
+            check(!collisions.isBlocked(0, 0) && !collisions.isBlocked(COLS - 1, ROWS - 1),
+                    "Couche non bloquante ignorée");
+
+            // Une carte à une seule couche ignore la couche 2 absente
+            TileMap single = new TileMap(1, COLS, ROWS);
+            single.fillLayer(0, 5);
+            check(CollisionMap.bake(single, BLOCKING_TYPES, BLOCKING_LAYERS).isBlocked(COLS - 1, ROWS - 1),
+                    "Couche absente ignorée, dernière case cuite");
+        } catch (Exception e) {
+            System.out.println("❌ Test échoué : Exception levée -> " + e);
+        }
+        System.out.println("└───────────────────────────────────────────┘");
+    }
+
+    /**
+     * ╔══════════════════════╗
+     * ║    TEST : Update     ║
+     * ╚══════════════════════╝
+     * Modifie des tuiles au hasard en tenant la carte des collisions à jour case par case,
+     * puis la compare au test tuile par tuile et à une nouvelle cuisson.
+     */
+    public void testUpdate() {
+        System.out.println("┌──── TEST : CollisionMap.Update ────┐");
+        try {
+            Random random = new Random(81);
+            TileMap map = createMap(random);
+            CollisionMap collisions = CollisionMap.bake(map, BLOCKING_TYPES, BLOCKING_LAYERS);
+
+            boolean success = true;
+            for (int n = 0; n < 100_000 && success; n++) {
+                int layer = random.nextInt(LAYERS);
+                int col = random.nextInt(COLS);
+                int row = random.nextInt(ROWS);
+                map.setTile(layer, col, row, randomTile(random));
+                collisions.update(map, col, row, BLOCKING_TYPES, BLOCKING_LAYERS);
+                success = collisions.isBlocked(col, row) == isBlockedBruteForce(map, col, row);
+            }
+            check(success, "Case à jour après chaque modification (100 000 modifications)");
+            check(matchesBruteForce(collisions, map), "Aucune autre case touchée par les mises à jour");
+
+            // Retirer la seule tuile bloquante d'une case la libère
+            map.setTile(0, 4, 4, 2);
+            map.setTile(2, 4, 4, TileMap.EMPTY);
+            collisions.update(map, 4, 4, BLOCKING_TYPES, BLOCKING_LAYERS);
+            boolean blocked = collisions.isBlocked(4, 4);
+            map.setTile(0, 4, 4, 0);
+            collisions.update(map, 4, 4, BLOCKING_TYPES, BLOCKING_LAYERS);
+            check(blocked && !collisions.isBlocked(4, 4), "Case libérée quand sa tuile bloquante disparaît");
+        } catch (Exception e) {
+            System.out.println("❌ Test échoué : Exception levée -> " + e);
+        }
+        System.out.println("└───────────────────────────────────────────┘");
+    }
+
+    /**
+     * ╔══════════════════════╗
+     * ║    MÉTHODE : main    ║
+     * ╚══════════════════════╝
+     * Point d'entrée principal.
+     *
+     * @param args Arguments de la ligne de commande (non utilisés).
+     */
+    public static void main(String[] args) {
+        System.out.println("══════ DÉBUT DES TESTS DE LA CLASSE COLLISIONMAP ══════");
+
+        CollisionMapTest tester = new CollisionMapTest();
+        tester.testBake();
+        tester.testUpdate();
+
+        System.out.println("══════ FIN DES TESTS DE LA CLASSE COLLISIONMAP ══════");
+    }
+}
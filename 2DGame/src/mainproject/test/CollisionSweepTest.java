@@ -0,0 +1,242 @@
+package mainproject.test;
+
+/**
+ * ╔══════════════════════════════════════════════════════╗
+ * ║              CLASSE COLLISIONSWEEP_TEST              ║
+ * ╚══════════════════════════════════════════════════════╝
+ * Tests du déplacement balayé (sweepX, sweepY, move) de CollisionChecker.
+ *
+ * La classe vérifie :
+ * - L'arrêt au ras d'un mur dans les quatre directions, et aux bords du monde.
+ * - L'absence de traversée d'un mur d'une case à grande vitesse.
+ * - Le glissement le long d'un mur (l'axe libre continue).
+ * - Des déplacements aléatoires : jamais de chevauchement, arrêt toujours au ras du mur.
+ */
+import mainproject.CollisionChecker;
+import mainproject.GamePanel;
+import mainproject.entity.Entity;
+import mainproject.tile.TileManager;
+
+import java.awt.Rectangle;
+import java.util.Random;
+
+public class CollisionSweepTest {
+
+    /** Monde de test (en tuiles). */
+    private static final int COLS = 40, ROWS = 30;
+
+    private GamePanel gp;
+    private TileManager tileManager;
+    private CollisionChecker checker;
+
+    /** Taille d'une tuile (pixels). */
+    private int tileSize;
+
+    /** Vide le monde de test : aucune case bloquante. */
+    private void clearWorld() {
+        tileManager.setMapSize(COLS, ROWS);
+    }
+
+    /** Crée une entité de test, hitbox plus petite qu'une tuile et décalée comme celle du joueur. */
+    private Entity createEntity(int worldx, int worldy) {
+        Entity entity = new Entity();
+        entity.hitbox = new Rectangle(8, 16, tileSize - 16, tileSize - 20);
+        entity.worldx = worldx;
+        entity.worldy = worldy;
+        return entity;
+    }
+
+    /** Indique si la hitbox, décalée de (offsetX, offsetY), touche une case bloquante ou sort du monde. */
+    private boolean overlapsBlocked(Entity entity, int offsetX, int offsetY) {
+        int left = entity.worldx + entity.hitbox.x + offsetX;
+        int top = entity.worldy + entity.hitbox.y + offsetY;
+        int right = left + entity.hitbox.width - 1;
+        int bottom = top + entity.hitbox.height - 1;
+        for (int row = Math.floorDiv(top, tileSize); row <= Math.floorDiv(bottom, tileSize); row++) {
+            for (int col = Math.floorDiv(left, tileSize); col <= Math.floorDiv(right, tileSize); col++) {
+                if (col < 0 || row < 0 || col >= COLS || row >= ROWS || tileManager.isBlocked(col, row)) return true;
+            }
+        }
+        return false;
+    }
+
+    private static void check(boolean success, String description) {
+        System.out.println((success ? "✅ Test réussi : " : "❌ Test échoué : ") + description);
+    }
+
+    /**
+     * ╔══════════════════════╗
+     * ║    TEST : Au ras     ║
+     * ╚══════════════════════╝
+     * Une entité lancée vers un mur s'arrête au pixel près contre lui, dans les quatre directions.
+     */
+    public void testFlushToWall() {
+        System.out.println("┌──── TEST : CollisionSweep.AuRas ────┐");
+        try {
+            clearWorld();
+            // Case bloquante au centre, l'entité part de trois cases à gauche, à droite, au-dessus, en dessous
+            int wallCol = 20, wallRow = 15;
+            tileManager.collisionMap.setBlocked(wallCol, wallRow, true);
+
+            Entity entity = createEntity((wallCol - 3) * tileSize, wallRow * tileSize - 16 + 2);
+            entity.worldx += checker.sweepX(entity, 10 * tileSize);
+            check(entity.worldx + entity.hitbox.x + entity.hitbox.width == wallCol * tileSize,
+                    "Arrêt au ras du mur vers la droite");
+
+            entity = createEntity((wallCol + 3) * tileSize, wallRow * tileSize - 16 + 2);
+            entity.worldx += checker.sweepX(entity, -10 * tileSize);
+            check(entity.worldx + entity.hitbox.x == (wallCol + 1) * tileSize, "Arrêt au ras du mur vers la gauche");
+
+            entity = createEntity(wallCol * tileSize, (wallRow - 3) * tileSize);
+            entity.worldy += checker.sweepY(entity, 10 * tileSize);
+            check(entity.worldy + entity.hitbox.y + entity.hitbox.height == wallRow * tileSize,
+                    "Arrêt au ras du mur vers le bas");
+
+            entity = createEntity(wallCol * tileSize, (wallRow + 3) * tileSize);
+            entity.worldy += checker.sweepY(entity, -10 * tileSize);
+            check(entity.worldy + entity.hitbox.y == (wallRow + 1) * tileSize, "Arrêt au ras du mur vers le haut");
+
+            // Bords du monde
+            entity = createEntity(2 * tileSize, 2 * tileSize);
+            entity.worldx += checker.sweepX(entity, -100 * tileSize);
+            entity.worldy += checker.sweepY(entity, -100 * tileSize);
+            check(entity.worldx + entity.hitbox.x == 0 && entity.worldy + entity.hitbox.y == 0,
+                    "Arrêt au ras des bords gauche et haut du monde");
+            entity.worldx += checker.sweepX(entity, 100 * tileSize);
+            entity.worldy += checker.sweepY(entity, 100 * tileSize);
+            check(entity.worldx + entity.hitbox.x + entity.hitbox.width == COLS * tileSize
+                            && entity.worldy + entity.hitbox.y + entity.hitbox.height == ROWS * tileSize,
+                    "Arrêt au ras des bords droit et bas du monde");
+
+            // Déplacement libre : rien n'est raccourci
+            entity = createEntity(5 * tileSize, 5 * tileSize);
+            check(checker.sweepX(entity, 37) == 37 && checker.sweepY(entity, -37) == -37 && checker.sweepX(entity, 0) == 0,
+                    "Déplacement libre non raccourci");
+        } catch (Exception e) {
+            System.out.println("❌ Test échoué : Exception levée -> " + e);
+        }
+        System.out.println("└───────────────────────────────────────────┘");
+    }
+
+    /**
+     * ╔══════════════════════╗
+     * ║  TEST : Traversée    ║
+     * ╚══════════════════════╝
+     * À une vitesse de plusieurs tuiles par tick, un mur d'une case d'épaisseur arrête l'entité,
+     * même si la hitbox ne touche qu'un coin de la case ; move() glisse le long du mur.
+     */
+    public void testNoTunnelling() {
+        System.out.println("┌──── TEST : CollisionSweep.Traversée ────┐");
+        try {
+            clearWorld();
+            // Mur vertical d'une case d'épaisseur, colonne 20
+            for (int row = 0; row < ROWS; row++) {
+                tileManager.collisionMap.setBlocked(20, row, true);
+            }
+
+            Entity entity = createEntity(10 * tileSize, 10 * tileSize);
+            entity.worldx += checker.sweepX(entity, 500);
+            check(!overlapsBlocked(entity, 0, 0) && overlapsBlocked(entity, 1, 0), "Mur d'une case non traversé à 500 px");
+
+            // Une seule case qui ne touche que le bas de la hitbox arrête aussi le balayage
+            clearWorld();
+            tileManager.collisionMap.setBlocked(20, 11, true);
+            entity = createEntity(10 * tileSize, 10 * tileSize + tileSize / 2);
+            entity.worldx += checker.sweepX(entity, 500);
+            check(entity.worldx + entity.hitbox.x + entity.hitbox.width == 20 * tileSize,
+                    "Case touchée par un seul coin de la hitbox bloquante");
+
+            // Glissement : le déplacement diagonal contre le mur garde sa composante verticale
+            entity = createEntity(18 * tileSize, 2 * tileSize);
+            tileManager.collisionMap.setBlocked(19, 2, true);
+            tileManager.collisionMap.setBlocked(19, 3, true);
+            int startY = entity.worldy;
+            checker.move(entity, 40, 30);
+            check(entity.collisionOn && entity.worldy == startY + 30 && !overlapsBlocked(entity, 0, 0),
+                    "Glissement le long du mur (axe Y conservé, collisionOn activé)");
+            checker.move(entity, 0, 30);
+            check(!entity.collisionOn, "collisionOn désactivé sur un déplacement libre");
+        } catch (Exception e) {
+            System.out.println("❌ Test échoué : Exception levée -> " + e);
+        }
+        System.out.println("└───────────────────────────────────────────┘");
+    }
+
+    /**
+     * ╔══════════════════════╗
+     * ║   TEST : Aléatoire   ║
+     * ╚══════════════════════╝
+     * 200 000 déplacements aléatoires de 1 à 500 px sur un monde parsemé de murs :
+     * la hitbox ne chevauche jamais une case bloquante, et chaque axe raccourci s'arrête au ras du mur.
+     */
+    public void testRandomMoves() {
+        System.out.println("┌──── TEST : CollisionSweep.Aléatoire ────┐");
+        try {
+            clearWorld();
+            Random random = new Random(19);
+            for (int row = 0; row < ROWS; row++) {
+                for (int col = 0; col < COLS; col++) {
+                    tileManager.collisionMap.setBlocked(col, row, random.nextInt(6) == 0);
+                }
+            }
+
+            Entity entity = createEntity(0, 0);
+            boolean noOverlap = true, flush = true, bounded = true;
+            for (int n = 0; n < 200_000 && noOverlap && flush && bounded; n++) {
+                // Point de départ libre tiré au hasard de temps en temps
+                if (n % 1000 == 0) {
+                    do {
+                        entity.worldx = random.nextInt(COLS * tileSize);
+                        entity.worldy = random.nextInt(ROWS * tileSize);
+                    } while (overlapsBlocked(entity, 0, 0));
+                }
+
+                int speed = 1 + random.nextInt(500);
+                int dx = random.nextInt(3) - 1, dy = random.nextInt(3) - 1;
+                // Chaque axe raccourci doit finir au ras du mur (vérifié avant de bouger sur l'autre axe)
+                int allowedX = checker.sweepX(entity, dx * speed);
+                entity.worldx += allowedX;
+                if (allowedX != dx * speed) flush = overlapsBlocked(entity, dx, 0);
+                int allowedY = checker.sweepY(entity, dy * speed);
+                entity.worldy += allowedY;
+                if (allowedY != dy * speed) flush &= overlapsBlocked(entity, 0, dy);
+
+                bounded = Math.abs(allowedX) <= speed && Math.abs(allowedY) <= speed
+                        && allowedX * dx >= 0 && allowedY * dy >= 0;
+                noOverlap = !overlapsBlocked(entity, 0, 0);
+            }
+            check(bounded, "Déplacement autorisé de même sens et jamais plus grand que demandé");
+            check(noOverlap, "Aucun chevauchement de case bloquante (200 000 déplacements)");
+            check(flush, "Chaque déplacement raccourci s'arrête au ras du mur");
+        } catch (Exception e) {
+            System.out.println("❌ Test échoué : Exception levée -> " + e);
+        }
+        System.out.println("└───────────────────────────────────────────┘");
+    }
+
+    /**
+     * ╔══════════════════════╗
+     * ║    MÉTHODE : main    ║
+     * ╚══════════════════════╝
+     * Point d'entrée principal : les tests remplacent la carte chargée par un monde de test.
+     *
+     * @param args Arguments de la ligne de commande (non utilisés).
+     */
+    public static void main(String[] args) {
+        System.out.println("══════ DÉBUT DES TESTS DU DÉPLACEMENT BALAYÉ ══════");
+
+        CollisionSweepTest tester = new CollisionSweepTest();
+        tester.gp = new GamePanel();
+        tester.gp.awaitWorldLoaded();
+        tester.tileManager = tester.gp.tileManager;
+        tester.checker = tester.gp.collisionChecker;
+        tester.tileSize = tester.gp.tileSize;
+
+        tester.testFlushToWall();
+        tester.testNoTunnelling();
+        tester.testRandomMoves();
+
+        System.out.println("══════ FIN DES TESTS DU DÉPLACEMENT BALAYÉ ══════");
+        System.exit(0);
+    }
+}
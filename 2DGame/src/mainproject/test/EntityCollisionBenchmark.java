@@ -0,0 +1,158 @@
+package mainproject.test;
+
+/**
+ * ╔══════════════════════════════════════════════════════╗
+ * ║           CLASSE ENTITY_COLLISION_BENCHMARK          ║
+ * ╚══════════════════════════════════════════════════════╝
+ * Mesure le coût d'un tick de collisions entre entités en fonction de leur nombre
+ * (100, 1 000 et 10 000), à densité constante : le monde grandit avec le nombre d'entités.
+ *
+ * Compare l'ancien test de toutes les paires (deux Rectangle alloués par paire, reproduit ici
+ * à titre de comparaison), le même test de toutes les paires sans allocation, et la grille
+ * uniforme (SpatialGrid) reconstruite à chaque tick. Les trois doivent trouver les mêmes paires.
+ */
+import mainproject.SpatialGrid;
+
+import java.awt.*;
+import java.util.Random;
+
+public class EntityCollisionBenchmark {
+
+    /** Nombres d'entités testés. */
+    private static final int[] ENTITY_COUNTS = {100, 1_000, 10_000};
+
+    /** Taille des hitboxes (en pixels), comme celles du joueur et des PNJ. */
+    private static final int HITBOX = 16;
+
+    /** Surface moyenne du monde par entité (en pixels de côté). */
+    private static final int SPACING = 64;
+
+    /** Côté des cellules de la grille (deux tuiles de 48 pixels). */
+    private static final int CELL_SIZE = 96;
+
+    /** Durée minimale de mesure par algorithme (en nanosecondes). */
+    private static final long MEASURE_NANOS = 1_000_000_000L;
+
+    private static int[] xs, ys;
+    private static int pairCount;
+
+    /**
+     * Ancien algorithme : chaque paire alloue deux Rectangle et appelle intersects.
+     */
+    private static int allPairsRectangles(int n) {
+        int pairs = 0;
+        for (int a = 0; a < n; a++) {
+            for (int b = a + 1; b < n; b++) {
+                Rectangle hitbox1 = new Rectangle(xs[a], ys[a], HITBOX, HITBOX);
+                Rectangle hitbox2 = new Rectangle(xs[b], ys[b], HITBOX, HITBOX);
+                if (hitbox1.intersects(hitbox2)) pairs++;
+            }
+        }
+        return pairs;
+    }
+
+    /**
+     * Toutes les paires, avec un test de chevauchement sur des int.
+     */
+    private static int allPairs(int n) {
+        int pairs = 0;
+        for (int a = 0; a < n; a++) {
+            int ax = xs[a], ay = ys[a];
+            for (int b = a + 1; b < n; b++) {
+                if (ax < xs[b] + HITBOX && xs[b] < ax + HITBOX && ay < ys[b] + HITBOX && ys[b] < ay + HITBOX) {
+                    pairs++;
+                }
+            }
+        }
+        return pairs;
+    }
+
+    /**
+     * Reconstruit la grille puis visite les paires candidates.
+     */
+    private static int grid(SpatialGrid grid, int n) {
+        grid.clear();
+        for (int i = 0; i < n; i++) {
+            grid.insert(i, xs[i], ys[i], HITBOX, HITBOX);
+        }
+        pairCount = 0;
+        grid.forEachPair(EntityCollisionBenchmark::countPair);
+        return pairCount;
+    }
+
+    private static void countPair(int a, int b) {
+        pairCount++;
+    }
+
+    /**
+     * Déplace chaque entité de quelques pixels, comme un tick de jeu.
+     */
+    private static void move(Random random, int n, int worldSize) {
+        for (int i = 0; i < n; i++) {
+            xs[i] = Math.floorMod(xs[i] + random.nextInt(9) - 4, worldSize);
+            ys[i] = Math.floorMod(ys[i] + random.nextInt(9) - 4, worldSize);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Tick {
+        int run();
+    }
+
+    /**
+     * Mesure le temps moyen d'un tick (en microsecondes) ; chaque tick déplace les entités.
+     */
+    private static double measure(Tick tick, Random random, int n, int worldSize) {
+        for (int i = 0; i < 20; i++) { // chauffe (JIT)
+            move(random, n, worldSize);
+            tick.run();
+        }
+        int ticks = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            move(random, n, worldSize);
+            tick.run();
+            ticks++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < MEASURE_NANOS);
+        return elapsed / 1000.0 / ticks;
+    }
+
+    public static void main(String[] args) {
+        System.out.println("╔══════════════════════════════════════════════════════╗");
+        System.out.println("║     Benchmark des collisions entre entités (tick)    ║");
+        System.out.println("╚══════════════════════════════════════════════════════╝");
+        System.out.printf("%10s %12s %16s %16s %12s %8s%n",
+                "Entités", "Paires", "Rect. (µs)", "Paires (µs)", "Grille (µs)", "Gain");
+
+        SpatialGrid grid = new SpatialGrid(CELL_SIZE, 16);
+        boolean consistent = true;
+        for (int n : ENTITY_COUNTS) {
+            Random random = new Random(42);
+            int worldSize = (int) Math.sqrt((double) n) * SPACING;
+            xs = new int[n];
+            ys = new int[n];
+            for (int i = 0; i < n; i++) {
+                xs[i] = random.nextInt(worldSize);
+                ys[i] = random.nextInt(worldSize);
+            }
+
+            int expected = allPairs(n);
+            if (allPairsRectangles(n) != expected || grid(grid, n) != expected) {
+                consistent = false;
+            }
+
+            double rectangles = measure(() -> allPairsRectangles(n), random, n, worldSize);
+            double pairs = measure(() -> allPairs(n), random, n, worldSize);
+            double gridTime = measure(() -> grid(grid, n), random, n, worldSize);
+            System.out.printf("%10d %12d %16.1f %16.1f %12.1f %7.0fx%n",
+                    n, expected, rectangles, pairs, gridTime, rectangles / gridTime);
+        }
+
+        System.out.println();
+        System.out.println(consistent
+                ? "✅ La grille trouve les mêmes paires que le test de toutes les paires"
+                : "❌ La grille ne trouve pas les mêmes paires que le test de toutes les paires");
+    }
+}
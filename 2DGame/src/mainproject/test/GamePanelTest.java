@@ -23,6 +23,7 @@ import mainproject.KeyHandler;
 
 import java.awt.*;
 import java.awt.event.MouseEvent;
+import java.awt.event.MouseListener;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 
@@ -241,6 +242,55 @@ public class GamePanelTest {
         System.out.println("└───────────────────────────────────────────┘");
     }
 
+    /**
+     * ╔══════════════════════╗
+     * ║    TEST : MouseQueue  ║
+     * ╚══════════════════════╝
+     * Teste le passage des événements de souris par la file : un clic reçu par l'EDT
+     * ne change l'état du jeu qu'au tick de simulation suivant.
+     */
+    public void testMouseQueue() {
+        System.out.println("┌──── TEST : GamePanel.MouseQueue ────┐");
+
+        try {
+            // Récupère le bouton "Paramètres" de l'écran titre
+            Field uiField = GamePanel.class.getDeclaredField("ui");
+            uiField.setAccessible(true);
+            ui ui = (ui) uiField.get(gp);
+            Field settingsButtonField = ui.getClass().getDeclaredField("settingsButton");
+            settingsButtonField.setAccessible(true);
+            Rectangle settingsButton = (Rectangle) settingsButtonField.get(ui);
+
+            // Clic sur le bouton, transmis aux écouteurs du panneau comme le ferait l'EDT
+            gp.Game_state = gp.Start_screen;
+            MouseEvent press = new MouseEvent(gp, MouseEvent.MOUSE_PRESSED, 0, 0,
+                    (int) settingsButton.getCenterX(), (int) settingsButton.getCenterY(), 1, false);
+            for (MouseListener listener : gp.getMouseListeners()) {
+                listener.mousePressed(press);
+            }
+
+            if (gp.Game_state == gp.Start_screen) {
+                System.out.println("✅ Test réussi : Clic mis en file sans changer l'état du jeu");
+            } else {
+                System.out.println("❌ Test échoué : Clic appliqué hors du tick de simulation");
+            }
+
+            // Le tick suivant traite la file
+            gp.update();
+
+            if (gp.Game_state == gp.settings_screen) {
+                System.out.println("✅ Test réussi : Clic appliqué au tick suivant (écran des paramètres)");
+            } else {
+                System.out.println("❌ Test échoué : Clic en file non traité par update()");
+            }
+        } catch (Exception e) {
+            System.out.println("❌ Test échoué : Erreur lors du traitement de la file de souris - " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        System.out.println("└───────────────────────────────────────────┘");
+    }
+
     /**
      * ╔══════════════════════╗
      * ║    TEST : PaintComponent  ║
@@ -303,6 +353,7 @@ public class GamePanelTest {
 
         // Configure l'environnement de test
         gp = new GamePanel();
+        gp.awaitWorldLoaded(); // le monde se charge en arrière-plan de l'écran titre
 
         // Crée une instance de GamePanelTest pour exécuter les tests
         GamePanelTest tester = new GamePanelTest();
@@ -312,6 +363,7 @@ public class GamePanelTest {
         tester.testStartGameThread();
         tester.testUpdate();
         tester.testMouseEvents();
+        tester.testMouseQueue();
         tester.testPaintComponent();
 
         System.out.println("══════ FIN DES TESTS DE LA CLASSE GAMEPANEL ══════");
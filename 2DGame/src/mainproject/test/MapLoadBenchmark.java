@@ -0,0 +1,180 @@
+package mainproject.test;
+
+/**
+ * ╔══════════════════════════════════════════════════════╗
+ * ║               CLASSE MAPLOAD_BENCHMARK               ║
+ * ╚══════════════════════════════════════════════════════╝
+ * Compare la lecture des cartes texte par l'ancien TileManager.loadMap
+ * (readLine + split + parseInt, reproduit ici) et par MapTextParser
+ * (lecture octet par octet, sans String), sur test6.txt et sur une carte
+ * synthétique de 2000 x 2000 tuiles (3 couches).
+ *
+ * Pour chaque lecteur : temps moyen et mémoire allouée par chargement.
+ * L'ancien lecteur remplit un int[couche][colonne][ligne], le nouveau une TileMap (short).
+ */
+import mainproject.tile.MapTextParser;
+import mainproject.tile.TileMap;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+public class MapLoadBenchmark {
+
+    /** Nombre de chargements de chauffe (JIT) avant la mesure. */
+    private static final int WARMUP_RUNS = 3;
+
+    /** Nombre de chargements mesurés par lecteur. */
+    private static final int MEASURED_RUNS = 5;
+
+    /** Côté de la carte synthétique (en tuiles). */
+    private static final int SYNTHETIC_SIZE = 2000;
+
+    /** Source d'un fichier de carte (ressource ou fichier temporaire), ouvrable plusieurs fois. */
+    private interface MapSource {
+        InputStream open() throws IOException;
+    }
+
+    /** Lecteur de carte à mesurer (retourne la tuile de chaque case, pour comparer les lecteurs). */
+    private interface MapReader {
+        TileReader read(MapSource source, int cols, int rows) throws IOException;
+    }
+
+    /** Accès à une tuile de la carte lue. */
+    private interface TileReader {
+        int getTile(int layer, int col, int row);
+    }
+
+    /**
+     * Ancien algorithme : une String par ligne, un tableau de String et une String par nombre.
+     */
+    private static TileReader readLegacy(MapSource source, int cols, int rows) throws IOException {
+        int[][][] tiles = new int[3][cols][rows];
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(source.open()))) {
+            for (int layer = 0; layer < 3; layer++) {
+                for (int row = 0; row < rows; row++) {
+                    String[] numbers = br.readLine().split(" ");
+                    for (int col = 0; col < cols; col++) {
+                        tiles[layer][col][row] = Integer.parseInt(numbers[col]);
+                    }
+                }
+            }
+        }
+        return (layer, col, row) -> tiles[layer][col][row];
+    }
+
+    /**
+     * Nouveau lecteur : deux passes octet par octet, dimensions déduites du fichier.
+     */
+    private static TileReader readStreaming(MapSource source, int cols, int rows) throws IOException {
+        MapTextParser parser = new MapTextParser();
+        MapTextParser.Dimensions dimensions;
+        try (InputStream in = source.open()) {
+            dimensions = parser.scan(in, 3);
+        }
+        TileMap tiles = new TileMap(dimensions.layers, dimensions.cols, dimensions.rows);
+        try (InputStream in = source.open()) {
+            parser.parse(in, dimensions, tiles, null);
+        }
+        return tiles::getTile;
+    }
+
+    /**
+     * Écrit une carte aléatoire de size x size tuiles sur 3 couches.
+     */
+    private static Path writeSyntheticMap(int size) throws IOException {
+        Path file = Files.createTempFile("carte-synthetique", ".txt");
+        Random random = new Random(42);
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            for (int layer = 0; layer < 3; layer++) {
+                for (int row = 0; row < size; row++) {
+                    StringBuilder line = new StringBuilder(size * 3);
+                    for (int col = 0; col < size; col++) {
+                        if (col > 0) line.append(' ');
+                        line.append(layer == 0 ? random.nextInt(7) : (random.nextInt(10) == 0 ? 7 + random.nextInt(4) : -1));
+                    }
+                    writer.write(line.toString());
+                    writer.newLine();
+                }
+            }
+        }
+        return file;
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * Mesure un lecteur et affiche le temps moyen et la mémoire allouée par chargement.
+     *
+     * @return le résultat du dernier chargement (pour vérifier que les lecteurs concordent)
+     */
+    private static TileReader measure(String name, MapReader reader, MapSource source, int cols, int rows,
+                                      int bytesPerTile) throws IOException {
+        TileReader tiles = null;
+        for (int run = 0; run < WARMUP_RUNS; run++) {
+            tiles = reader.read(source, cols, rows);
+        }
+
+        long allocated = allocatedBytes();
+        long start = System.nanoTime();
+        for (int run = 0; run < MEASURED_RUNS; run++) {
+            tiles = reader.read(source, cols, rows);
+        }
+        double millis = (System.nanoTime() - start) / 1_000_000.0 / MEASURED_RUNS;
+        double megabytes = (allocatedBytes() - allocated) / 1024.0 / 1024.0 / MEASURED_RUNS;
+        // Part de l'allocation qui ne sert pas au tableau de tuiles lui-même
+        double tileMegabytes = 3.0 * cols * rows * bytesPerTile / 1024.0 / 1024.0;
+
+        System.out.printf("  %-22s %10.1f ms | %8.1f Mo alloués (dont %.1f Mo de tuiles)%n",
+                name, millis, megabytes, tileMegabytes);
+        return tiles;
+    }
+
+    private static void compare(String title, MapSource source, int cols, int rows) throws IOException {
+        System.out.println(title + " (" + cols + " x " + rows + ", 3 couches)");
+        TileReader legacy = measure("readLine + split", MapLoadBenchmark::readLegacy, source, cols, rows, Integer.BYTES);
+        TileReader streaming = measure("MapTextParser", MapLoadBenchmark::readStreaming, source, cols, rows, Short.BYTES);
+        System.out.println("  Résultats identiques : " + (sameTiles(legacy, streaming, cols, rows) ? "oui" : "NON"));
+    }
+
+    private static boolean sameTiles(TileReader a, TileReader b, int cols, int rows) {
+        for (int layer = 0; layer < 3; layer++) {
+            for (int row = 0; row < rows; row++) {
+                for (int col = 0; col < cols; col++) {
+                    if (a.getTile(layer, col, row) != b.getTile(layer, col, row)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Point d'entrée du benchmark.
+     *
+     * @param args Arguments de la ligne de commande (non utilisés).
+     */
+    public static void main(String[] args) throws IOException {
+        System.out.println("══════ BENCHMARK : chargement des cartes texte ══════");
+
+        compare("test6.txt", () -> MapLoadBenchmark.class.getResourceAsStream("/maps/test6.txt"), 100, 100);
+
+        Path synthetic = writeSyntheticMap(SYNTHETIC_SIZE);
+        try {
+            compare("Carte synthétique", () -> Files.newInputStream(synthetic), SYNTHETIC_SIZE, SYNTHETIC_SIZE);
+        } finally {
+            Files.delete(synthetic);
+        }
+
+        System.out.println("══════ FIN DU BENCHMARK ══════");
+    }
+}
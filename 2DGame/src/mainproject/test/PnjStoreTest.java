@@ -0,0 +1,201 @@
+package mainproject.test;
+
+/**
+ * ╔══════════════════════════════════════════════════════╗
+ * ║                 CLASSE PNJSTORE_TEST                 ║
+ * ╚══════════════════════════════════════════════════════╝
+ * Tests du stockage des PNJ en colonnes et de ses poignées.
+ *
+ * La classe vérifie :
+ * - Les poignées : un PNJ supprimé n'est plus désigné, même quand son emplacement
+ *   est réutilisé, et les poignées des autres PNJ suivent leurs déplacements d'index.
+ * - La suppression par swap-remove : le dernier PNJ prend la place libérée avec toutes
+ *   ses colonnes, et les données survivent à l'agrandissement des tableaux.
+ */
+import mainproject.GamePanel;
+import mainproject.entity.PnjStore;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class PnjStoreTest {
+
+    private GamePanel gp;
+
+    /** Donne à toutes les colonnes du PNJ d'un index des valeurs dérivées de son numéro. */
+    private static void tag(PnjStore store, int index, int id) {
+        store.x[index] = id;
+        store.y[index] = id * 2;
+        store.prevX[index] = id * 3;
+        store.prevY[index] = id * 4;
+        store.speed[index] = id % 7 + 1;
+        store.hitboxX[index] = (short) (id % 100);
+        store.hitboxY[index] = (short) (id % 101);
+        store.hitboxWidth[index] = (short) (id % 102);
+        store.hitboxHeight[index] = (short) (id % 103);
+        store.direction[index] = (byte) (id % 4);
+        store.state[index] = (byte) (id % 2);
+        store.attackCounter[index] = id * 5;
+        store.wanderCounter[index] = id * 6;
+    }
+
+    /** Indique si toutes les colonnes du PNJ d'un index portent les valeurs de son numéro. */
+    private static boolean hasTag(PnjStore store, int index, int id) {
+        return store.x[index] == id && store.y[index] == id * 2
+                && store.prevX[index] == id * 3 && store.prevY[index] == id * 4
+                && store.speed[index] == id % 7 + 1
+                && store.hitboxX[index] == id % 100 && store.hitboxY[index] == id % 101
+                && store.hitboxWidth[index] == id % 102 && store.hitboxHeight[index] == id % 103
+                && store.direction[index] == id % 4 && store.state[index] == id % 2
+                && store.attackCounter[index] == id * 5 && store.wanderCounter[index] == id * 6;
+    }
+
+    private static void check(boolean success, String description) {
+        System.out.println((success ? "✅ Test réussi : " : "❌ Test échoué : ") + description);
+    }
+
+    /**
+     * ╔══════════════════════╗
+     * ║    TEST : Poignées   ║
+     * ╚══════════════════════╝
+     * Une poignée de PNJ supprimé ne désigne plus rien, puis des ajouts et suppressions
+     * aléatoires sont comparés à une table de référence (poignée -> PNJ).
+     */
+    public void testHandles() {
+        System.out.println("┌──── TEST : PnjStore.Poignées ────┐");
+        try {
+            PnjStore store = new PnjStore(gp, 4);
+            int a = store.spawn(10, 0);
+            int b = store.spawn(20, 0);
+            check(store.contains(a) && store.indexOf(a) == 0 && store.indexOf(b) == 1, "Poignées valides après l'ajout");
+
+            check(store.remove(a) && !store.contains(a) && store.indexOf(a) == -1, "Poignée supprimée invalide");
+            check(!store.remove(a), "Seconde suppression refusée");
+            check(store.indexOf(b) == 0 && store.x[0] == 20, "Poignée suivant le PNJ déplacé à l'index libéré");
+
+            // Le nouvel élément réutilise l'emplacement de a avec une autre génération
+            int c = store.spawn(30, 0);
+            check(c != a && !store.contains(a) && store.indexOf(c) == 1, "Poignée périmée même après réutilisation de son emplacement");
+            check(store.indexOf(-1) == -1 && store.indexOf(Integer.MAX_VALUE) == -1, "Poignées invalides rejetées");
+
+            // Ajouts et suppressions aléatoires : x[index] porte le numéro du PNJ
+            Random random = new Random(22);
+            store = new PnjStore(gp, 4);
+            Map<Integer, Integer> live = new HashMap<>();
+            List<Integer> liveHandles = new ArrayList<>();
+            ArrayDeque<Integer> removed = new ArrayDeque<>();
+            boolean success = true;
+            for (int n = 0; n < 100_000 && success; n++) {
+                if (liveHandles.isEmpty() || random.nextInt(100) < 55) {
+                    int handle = store.spawn(n, 0);
+                    success = !live.containsKey(handle);
+                    live.put(handle, n);
+                    liveHandles.add(handle);
+                } else {
+                    int k = random.nextInt(liveHandles.size());
+                    int handle = liveHandles.get(k);
+                    liveHandles.set(k, liveHandles.get(liveHandles.size() - 1));
+                    liveHandles.remove(liveHandles.size() - 1);
+                    live.remove(handle);
+                    success = store.remove(handle);
+                    removed.addLast(handle);
+                    // Une poignée ne redevient valide qu'après 2048 suppressions de son emplacement
+                    if (removed.size() > 1000) removed.removeFirst();
+                }
+
+                if (n % 100 == 0) {
+                    success &= store.size() == live.size();
+                    for (Map.Entry<Integer, Integer> entry : live.entrySet()) {
+                        int index = store.indexOf(entry.getKey());
+                        success &= index >= 0 && store.x[index] == entry.getValue() && store.handleAt(index) == entry.getKey();
+                    }
+                    for (int handle : removed) {
+                        success &= !store.contains(handle);
+                    }
+                }
+            }
+            check(success, "Poignées identiques à la table de référence (100 000 opérations)");
+        } catch (Exception e) {
+            System.out.println("❌ Test échoué : Exception levée -> " + e);
+        }
+        System.out.println("└───────────────────────────────────────────┘");
+    }
+
+    /**
+     * ╔══════════════════════╗
+     * ║  TEST : SwapRemove   ║
+     * ╚══════════════════════╝
+     * Supprime des PNJ au début, au milieu et à la fin : les PNJ restent rangés sans trou,
+     * et chaque colonne du PNJ déplacé le suit à sa nouvelle place.
+     */
+    public void testSwapRemove() {
+        System.out.println("┌──── TEST : PnjStore.SwapRemove ────┐");
+        try {
+            // 10 PNJ pour une capacité de 4 : les tableaux sont agrandis deux fois
+            PnjStore store = new PnjStore(gp, 4);
+            int[] handles = new int[10];
+            for (int id = 0; id < handles.length; id++) {
+                handles[id] = store.spawn(0, 0);
+                tag(store, id, id);
+            }
+            boolean intact = store.size() == 10;
+            for (int id = 0; id < handles.length; id++) {
+                intact &= hasTag(store, id, id);
+            }
+            check(intact, "Colonnes intactes après l'agrandissement des tableaux");
+
+            store.removeAt(2);
+            check(store.size() == 9 && hasTag(store, 2, 9) && store.indexOf(handles[9]) == 2,
+                    "Dernier PNJ déplacé à l'index libéré avec toutes ses colonnes");
+
+            store.removeAt(store.size() - 1);
+            check(store.size() == 8 && !store.contains(handles[8]) && hasTag(store, 7, 7),
+                    "Suppression du dernier PNJ sans déplacement");
+
+            store.remove(handles[0]);
+            check(store.size() == 7 && hasTag(store, 0, 7) && hasTag(store, 2, 9) && hasTag(store, 1, 1),
+                    "Suppression du premier PNJ : les autres restent à leur place");
+
+            try {
+                store.removeAt(store.size());
+                check(false, "Index hors limites refusé");
+            } catch (IndexOutOfBoundsException e) {
+                check(store.size() == 7, "Index hors limites refusé");
+            }
+
+            while (store.size() > 0) {
+                store.removeAt(0);
+            }
+            int handle = store.spawn(5, 6);
+            check(store.size() == 1 && store.indexOf(handle) == 0 && store.x[0] == 5 && store.y[0] == 6,
+                    "Ajout après avoir tout vidé");
+        } catch (Exception e) {
+            System.out.println("❌ Test échoué : Exception levée -> " + e);
+        }
+        System.out.println("└───────────────────────────────────────────┘");
+    }
+
+    /**
+     * ╔══════════════════════╗
+     * ║    MÉTHODE : main    ║
+     * ╚══════════════════════╝
+     * Point d'entrée principal.
+     *
+     * @param args Arguments de la ligne de commande (non utilisés).
+     */
+    public static void main(String[] args) {
+        System.out.println("══════ DÉBUT DES TESTS DE LA CLASSE PNJSTORE ══════");
+
+        PnjStoreTest tester = new PnjStoreTest();
+        tester.gp = new GamePanel();
+        tester.testHandles();
+        tester.testSwapRemove();
+
+        System.out.println("══════ FIN DES TESTS DE LA CLASSE PNJSTORE ══════");
+        System.exit(0);
+    }
+}
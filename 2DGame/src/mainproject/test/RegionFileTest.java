@@ -0,0 +1,317 @@
+package mainproject.test;
+
+/**
+ * ╔══════════════════════════════════════════════════════╗
+ * ║                CLASSE REGIONFILE_TEST                ║
+ * ╚══════════════════════════════════════════════════════╝
+ * Tests des fichiers de région (.treg) et des mondes paginés qui les utilisent.
+ *
+ * La classe vérifie :
+ * - L'aller-retour création / lecture, chunks vides compris.
+ * - La réécriture d'un chunk à sa place ou à la fin du fichier.
+ * - Le compactage et la réouverture du fichier.
+ * - L'enregistrement des chunks modifiés d'un ChunkedWorld (ou leur conservation
+ *   en mémoire si la région est en lecture seule ou si l'écriture échoue).
+ */
+import mainproject.tile.ChunkSource;
+import mainproject.tile.ChunkedWorld;
+import mainproject.tile.RegionFile;
+import mainproject.tile.TileMap;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+public class RegionFileTest {
+
+    /** Taille des chunks des régions de test (en tuiles). */
+    private static final int CHUNK = 16;
+
+    /** Monde de test : 40 x 24 tuiles, 2 couches (chunks de bord incomplets). */
+    private static final int COLS = 40, ROWS = 24, LAYERS = 2;
+
+    /** Fichier de région du test en cours. */
+    private Path file;
+
+    /**
+     * Monde de test : la couche 0 est remplie, la couche 1 est vide sauf dans le chunk (0, 0).
+     * Le chunk (1, 1) est entièrement vide sur les deux couches.
+     */
+    private static TileMap createWorld() {
+        TileMap world = new TileMap(LAYERS, COLS, ROWS);
+        world.fillLayer(1, TileMap.EMPTY);
+        for (int row = 0; row < ROWS; row++) {
+            for (int col = 0; col < COLS; col++) {
+                boolean emptyChunk = col / CHUNK == 1 && row / CHUNK == 1;
+                world.setTile(0, col, row, emptyChunk ? TileMap.EMPTY : (col + row) % 5);
+            }
+        }
+        world.setTile(1, 3, 4, 7);
+        return world;
+    }
+
+    /** Lit un chunk de la région (taille réduite sur les bords). */
+    private static TileMap readChunk(RegionFile region, int chunkCol, int chunkRow) throws Exception {
+        int firstCol = chunkCol * CHUNK;
+        int firstRow = chunkRow * CHUNK;
+        TileMap chunk = new TileMap(LAYERS, Math.min(CHUNK, COLS - firstCol), Math.min(CHUNK, ROWS - firstRow));
+        region.readChunk(firstCol, firstRow, chunk);
+        return chunk;
+    }
+
+    /** Indique si un chunk a les mêmes tuiles que la zone correspondante du monde. */
+    private static boolean matches(TileMap chunk, TileMap world, int chunkCol, int chunkRow) {
+        for (int layer = 0; layer < LAYERS; layer++) {
+            for (int row = 0; row < chunk.rows; row++) {
+                for (int col = 0; col < chunk.cols; col++) {
+                    if (chunk.getTile(layer, col, row) != world.getTile(layer, chunkCol * CHUNK + col, chunkRow * CHUNK + row)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /** Indique si toute la région a les mêmes tuiles que le monde. */
+    private static boolean matchesAll(RegionFile region, TileMap world) throws Exception {
+        for (int chunkRow = 0; chunkRow < region.chunkRows; chunkRow++) {
+            for (int chunkCol = 0; chunkCol < region.chunkCols; chunkCol++) {
+                if (!matches(readChunk(region, chunkCol, chunkRow), world, chunkCol, chunkRow)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /** Région dont l'écriture échoue tant que failing vaut true. */
+    private static final class FailingSource implements ChunkSource, AutoCloseable {
+        final RegionFile region;
+        boolean failing = true;
+
+        FailingSource(RegionFile region) {
+            this.region = region;
+        }
+
+        @Override
+        public int getCols() {
+            return region.getCols();
+        }
+
+        @Override
+        public int getRows() {
+            return region.getRows();
+        }
+
+        @Override
+        public int getLayerCount() {
+            return region.getLayerCount();
+        }
+
+        @Override
+        public void readChunk(int firstCol, int firstRow, TileMap target) throws IOException {
+            region.readChunk(firstCol, firstRow, target);
+        }
+
+        @Override
+        public boolean isWritable() {
+            return true;
+        }
+
+        @Override
+        public void writeChunk(int firstCol, int firstRow, TileMap chunk) throws IOException {
+            if (failing) throw new IOException("écriture en échec (test)");
+            region.writeChunk(firstCol, firstRow, chunk);
+        }
+
+        @Override
+        public void close() throws IOException {
+            region.close();
+        }
+    }
+
+    private static void check(boolean success, String description) {
+        System.out.println((success ? "✅ Test réussi : " : "❌ Test échoué : ") + description);
+    }
+
+    /**
+     * ╔══════════════════════╗
+     * ║   TEST : RoundTrip   ║
+     * ╚══════════════════════╝
+     * Crée une région puis la relit chunk par chunk, y compris le chunk vide.
+     */
+    public void testRoundTrip() {
+        System.out.println("┌──── TEST : RegionFile.RoundTrip ────┐");
+        try {
+            TileMap world = createWorld();
+            RegionFile.create(file, world, CHUNK);
+            try (RegionFile region = RegionFile.open(file, false)) {
+                check(region.cols == COLS && region.rows == ROWS && region.layers == LAYERS && region.chunkSize == CHUNK,
+                        "En-tête relu (dimensions, couches, taille des chunks)");
+                check(matchesAll(region, world), "Tuiles identiques après relecture");
+
+                TileMap empty = readChunk(region, 1, 1);
+                check(empty.getTile(0, 0, 0) == TileMap.EMPTY && empty.getTile(1, 7, 7) == TileMap.EMPTY,
+                        "Chunk vide relu avec TileMap.EMPTY");
+                check(!region.isWritable(), "Région ouverte en lecture seule");
+                try {
+                    region.writeChunk(0, 0, readChunk(region, 0, 0));
+                    check(false, "Écriture refusée en lecture seule");
+                } catch (IOException e) {
+                    check(true, "Écriture refusée en lecture seule");
+                }
+            }
+        } catch (Exception e) {
+            System.out.println("❌ Test échoué : Exception levée -> " + e);
+        }
+        System.out.println("└───────────────────────────────────────────┘");
+    }
+
+    /**
+     * ╔══════════════════════╗
+     * ║  TEST : WriteChunk   ║
+     * ╚══════════════════════╝
+     * Réécrit un chunk qui tient à sa place, puis un chunk qui grossit (déplacé à la fin),
+     * puis vide un chunk ; compacte et rouvre le fichier.
+     */
+    public void testWriteAndCompact() {
+        System.out.println("┌──── TEST : RegionFile.WriteChunk ────┐");
+        try {
+            TileMap world = createWorld();
+            RegionFile.create(file, world, CHUNK);
+            try (RegionFile region = RegionFile.open(file, true)) {
+                long initialSize = region.size();
+
+                // Seule tuile de la couche 1 effacée : le chunk compresse mieux et tient à sa place
+                TileMap chunk = readChunk(region, 0, 0);
+                chunk.setTile(1, 3, 4, TileMap.EMPTY);
+                world.setTile(1, 3, 4, TileMap.EMPTY);
+                region.writeChunk(0, 0, chunk);
+                check(region.size() == initialSize && region.getWastedBytes() == 0,
+                        "Chunk réécrit à sa place (taille inchangée, aucune place perdue)");
+
+                // Tuiles aléatoires : le chunk ne compresse plus, il est déplacé à la fin
+                Random random = new Random(42);
+                chunk = readChunk(region, 1, 0);
+                for (int row = 0; row < chunk.rows; row++) {
+                    for (int col = 0; col < chunk.cols; col++) {
+                        int tile = random.nextInt(12);
+                        chunk.setTile(0, col, row, tile);
+                        world.setTile(0, CHUNK + col, row, tile);
+                    }
+                }
+                region.writeChunk(CHUNK, 0, chunk);
+                check(region.size() > initialSize && region.getWastedBytes() > 0,
+                        "Chunk trop grand déplacé à la fin du fichier (ancienne place perdue)");
+
+                // Chunk vidé : il n'occupe plus de place
+                chunk = readChunk(region, 0, 1);
+                for (int layer = 0; layer < LAYERS; layer++) {
+                    chunk.fillLayer(layer, TileMap.EMPTY);
+                }
+                region.writeChunk(0, CHUNK, chunk);
+                for (int row = CHUNK; row < ROWS; row++) {
+                    for (int col = 0; col < CHUNK; col++) {
+                        world.setTile(0, col, row, TileMap.EMPTY);
+                        world.setTile(1, col, row, TileMap.EMPTY);
+                    }
+                }
+                check(matchesAll(region, world), "Tuiles à jour après les réécritures");
+
+                long beforeCompact = region.size();
+                region.compact();
+                check(region.getWastedBytes() == 0 && region.size() < beforeCompact,
+                        "Compactage : plus de place perdue, fichier plus petit");
+                check(matchesAll(region, world), "Tuiles intactes après compactage");
+                check(!Files.exists(file.resolveSibling(file.getFileName() + ".tmp")), "Fichier temporaire supprimé");
+            }
+
+            try (RegionFile region = RegionFile.open(file, false)) {
+                check(matchesAll(region, world), "Tuiles intactes après réouverture");
+            }
+        } catch (Exception e) {
+            System.out.println("❌ Test échoué : Exception levée -> " + e);
+        }
+        System.out.println("└───────────────────────────────────────────┘");
+    }
+
+    /**
+     * ╔══════════════════════════╗
+     * ║  TEST : ChunkedWorld     ║
+     * ╚══════════════════════════╝
+     * Un chunk modifié puis libéré est réécrit dans une région ouverte en écriture ;
+     * avec une région en lecture seule ou une écriture en échec, il reste en mémoire avec sa modification.
+     */
+    public void testChunkedWorldEdits() {
+        System.out.println("┌──── TEST : RegionFile.ChunkedWorld ────┐");
+        try {
+            RegionFile.create(file, createWorld(), CHUNK);
+
+            // Région en écriture : la modification est enregistrée à la libération du chunk
+            ChunkedWorld world = new ChunkedWorld(RegionFile.open(file, true), LAYERS, CHUNK, 0);
+            world.loadAround(0, 0);
+            world.setTile(0, 2, 2, 9);
+            world.loadAround(COLS - 1, ROWS - 1); // libère le chunk (0, 0), à plus d'un chunk
+            check(world.getTile(0, 2, 2) == ChunkedWorld.UNLOADED, "Chunk modifié libéré (source en écriture)");
+            world.close();
+            try (RegionFile region = RegionFile.open(file, false)) {
+                check(readChunk(region, 0, 0).getTile(0, 2, 2) == 9, "Modification enregistrée dans la région");
+            }
+
+            // Région en lecture seule : le chunk modifié n'est pas libéré
+            world = new ChunkedWorld(RegionFile.open(file, false), LAYERS, CHUNK, 0);
+            world.loadAround(0, 0);
+            world.setTile(0, 2, 2, 4);
+            world.loadAround(COLS - 1, ROWS - 1);
+            check(world.getTile(0, 2, 2) == 4, "Chunk modifié gardé en mémoire (source en lecture seule)");
+            world.close();
+
+            // Écriture en échec : le chunk modifié reste en mémoire, enregistré dès que l'écriture passe
+            FailingSource failing = new FailingSource(RegionFile.open(file, true));
+            world = new ChunkedWorld(failing, LAYERS, CHUNK, 0);
+            world.loadAround(0, 0);
+            world.setTile(0, 2, 2, 6);
+            world.loadAround(COLS - 1, ROWS - 1);
+            check(world.getTile(0, 2, 2) == 6, "Chunk modifié gardé en mémoire (écriture en échec)");
+            failing.failing = false;
+            world.close();
+            try (RegionFile region = RegionFile.open(file, false)) {
+                check(readChunk(region, 0, 0).getTile(0, 2, 2) == 6, "Modification enregistrée une fois l'écriture rétablie");
+            }
+
+            check(world.getTile(0, -1, 0) == ChunkedWorld.UNLOADED && world.isBlocked(-1, 0) && world.isBlocked(COLS, 0),
+                    "Cases hors du monde absentes et bloquantes");
+        } catch (Exception e) {
+            System.out.println("❌ Test échoué : Exception levée -> " + e);
+        }
+        System.out.println("└───────────────────────────────────────────┘");
+    }
+
+    /**
+     * ╔══════════════════════╗
+     * ║    MÉTHODE : main    ║
+     * ╚══════════════════════╝
+     * Point d'entrée principal : chaque test travaille sur un fichier temporaire.
+     *
+     * @param args Arguments de la ligne de commande (non utilisés).
+     */
+    public static void main(String[] args) throws Exception {
+        System.out.println("══════ DÉBUT DES TESTS DE LA CLASSE REGIONFILE ══════");
+
+        RegionFileTest tester = new RegionFileTest();
+        Path directory = Files.createTempDirectory("region-test");
+        tester.file = directory.resolve("monde" + RegionFile.EXTENSION);
+        try {
+            tester.testRoundTrip();
+            tester.testWriteAndCompact();
+            tester.testChunkedWorldEdits();
+        } finally {
+            Files.deleteIfExists(tester.file);
+            Files.deleteIfExists(directory);
+        }
+
+        System.out.println("══════ FIN DES TESTS DE LA CLASSE REGIONFILE ══════");
+    }
+}
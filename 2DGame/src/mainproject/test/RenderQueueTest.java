@@ -0,0 +1,199 @@
+package mainproject.test;
+
+/**
+ * ╔══════════════════════════════════════════════════════╗
+ * ║                CLASSE RENDERQUEUE_TEST               ║
+ * ╚══════════════════════════════════════════════════════╝
+ * Tests de la file de rendu triée par worldY.
+ *
+ * La classe vérifie :
+ * - Le tri par worldY et la stabilité à worldY égal.
+ * - L'écart des objets hors de l'écran (et la conservation des objets partiellement visibles).
+ * - La cohérence avec un tri complet quand les objets bougent d'une frame à l'autre.
+ */
+import mainproject.Drawable;
+import mainproject.RenderQueue;
+
+import java.awt.Graphics2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+public class RenderQueueTest {
+
+    /** Taille d'un objet de test (pixels). */
+    private static final int SIZE = 48;
+
+    /** Zone visible des tests : 800 x 600 à partir de (0, 0). */
+    private static final int VIEW_WIDTH = 800, VIEW_HEIGHT = 600;
+
+    /** Objet de test : une position dans le monde, rien à dessiner. */
+    private static class Item implements Drawable {
+        int worldX, worldY;
+
+        Item(int worldX, int worldY) {
+            this.worldX = worldX;
+            this.worldY = worldY;
+        }
+
+        @Override
+        public void draw(Graphics2D g2) {
+        }
+
+        @Override
+        public int getWorldX() {
+            return worldX;
+        }
+
+        @Override
+        public int getWorldY() {
+            return worldY;
+        }
+    }
+
+    /** Indique si un objet est au moins partiellement dans la zone visible. */
+    private static boolean isVisible(Item item, int cameraX, int cameraY) {
+        return item.worldX > cameraX - SIZE && item.worldX < cameraX + VIEW_WIDTH
+                && item.worldY > cameraY - SIZE && item.worldY < cameraY + VIEW_HEIGHT;
+    }
+
+    /** Indique si la file contient exactement les objets visibles, triés par worldY. */
+    private static boolean matchesBruteForce(RenderQueue queue, Item[] items, int cameraX, int cameraY) {
+        List<Item> expected = new ArrayList<>();
+        for (Item item : items) {
+            if (isVisible(item, cameraX, cameraY)) expected.add(item);
+        }
+        expected.sort(Comparator.comparingInt(Item::getWorldY));
+
+        if (queue.size() != expected.size()) return false;
+        for (int k = 0; k < queue.size(); k++) {
+            if (queue.get(k).getWorldY() != expected.get(k).worldY) return false;
+            if (!isVisible((Item) queue.get(k), cameraX, cameraY)) return false;
+        }
+        return true;
+    }
+
+    private static void check(boolean success, String description) {
+        System.out.println((success ? "✅ Test réussi : " : "❌ Test échoué : ") + description);
+    }
+
+    /**
+     * ╔══════════════════════╗
+     * ║    TEST : Ordre      ║
+     * ╚══════════════════════╝
+     * Trie quelques objets par worldY ; à worldY égal, l'ordre de la liste source est gardé.
+     */
+    public void testOrder() {
+        System.out.println("┌──── TEST : RenderQueue.Ordre ────┐");
+        try {
+            Item a = new Item(100, 300), b = new Item(200, 100), c = new Item(300, 200), d = new Item(400, 100);
+            Item[] items = { a, b, c, d };
+            RenderQueue queue = new RenderQueue();
+            queue.build(items, items.length, 0, 0, VIEW_WIDTH, VIEW_HEIGHT, SIZE);
+
+            check(queue.size() == 4, "Tous les objets visibles gardés");
+            check(queue.get(0) == b && queue.get(1) == d && queue.get(2) == c && queue.get(3) == a,
+                    "Objets triés par worldY, ordre source gardé à worldY égal");
+
+            // Un objet passe devant les autres : l'ordre de la frame précédente est corrigé
+            a.worldY = 50;
+            queue.build(items, items.length, 0, 0, VIEW_WIDTH, VIEW_HEIGHT, SIZE);
+            check(queue.get(0) == a && queue.get(1) == b && queue.get(2) == d && queue.get(3) == c,
+                    "Ordre corrigé après un déplacement");
+        } catch (Exception e) {
+            System.out.println("❌ Test échoué : Exception levée -> " + e);
+        }
+        System.out.println("└───────────────────────────────────────────┘");
+    }
+
+    /**
+     * ╔══════════════════════╗
+     * ║    TEST : Culling    ║
+     * ╚══════════════════════╝
+     * Écarte les objets hors de l'écran, garde ceux qui dépassent à peine du bord.
+     */
+    public void testCulling() {
+        System.out.println("┌──── TEST : RenderQueue.Culling ────┐");
+        try {
+            Item inside = new Item(1000, 1000);
+            Item partial = new Item(1000 - SIZE + 1, 1000);
+            Item left = new Item(1000 - SIZE, 1000);
+            Item below = new Item(1000, 1000 + VIEW_HEIGHT);
+            Item[] items = { inside, partial, left, below };
+            RenderQueue queue = new RenderQueue();
+            queue.build(items, items.length, 1000, 1000, VIEW_WIDTH, VIEW_HEIGHT, SIZE);
+
+            check(queue.size() == 2, "Objets hors de l'écran écartés");
+            check((queue.get(0) == inside || queue.get(0) == partial) && (queue.get(1) == inside || queue.get(1) == partial),
+                    "Objet partiellement visible gardé");
+
+            // Seuls les count premiers objets de la liste source sont pris en compte
+            queue.build(items, 1, 1000, 1000, VIEW_WIDTH, VIEW_HEIGHT, SIZE);
+            check(queue.size() == 1 && queue.get(0) == inside, "Objets au-delà de count ignorés");
+        } catch (Exception e) {
+            System.out.println("❌ Test échoué : Exception levée -> " + e);
+        }
+        System.out.println("└───────────────────────────────────────────┘");
+    }
+
+    /**
+     * ╔══════════════════════╗
+     * ║  TEST : Déplacements ║
+     * ╚══════════════════════╝
+     * 5 000 objets se déplacent au hasard avec la caméra pendant 200 frames :
+     * la file doit correspondre à chaque frame à un filtrage puis un tri complet.
+     */
+    public void testMovingItems() {
+        System.out.println("┌──── TEST : RenderQueue.Déplacements ────┐");
+        try {
+            Random random = new Random(7);
+            Item[] items = new Item[5000];
+            for (int i = 0; i < items.length; i++) {
+                items[i] = new Item(random.nextInt(4000), random.nextInt(4000));
+            }
+
+            RenderQueue queue = new RenderQueue();
+            int cameraX = 1500, cameraY = 1500;
+            boolean success = true;
+            for (int frame = 0; frame < 200 && success; frame++) {
+                for (Item item : items) {
+                    item.worldX += random.nextInt(9) - 4;
+                    item.worldY += random.nextInt(9) - 4;
+                }
+                cameraX += random.nextInt(11) - 5;
+                cameraY += random.nextInt(11) - 5;
+
+                // La liste source grandit en cours de route (nouvelles entités)
+                int count = frame < 100 ? items.length / 2 : items.length;
+                Item[] source = Arrays.copyOf(items, count);
+                queue.build(items, count, cameraX, cameraY, VIEW_WIDTH, VIEW_HEIGHT, SIZE);
+                success = matchesBruteForce(queue, source, cameraX, cameraY);
+            }
+            check(success, "File identique à un tri complet sur 200 frames");
+        } catch (Exception e) {
+            System.out.println("❌ Test échoué : Exception levée -> " + e);
+        }
+        System.out.println("└───────────────────────────────────────────┘");
+    }
+
+    /**
+     * ╔══════════════════════╗
+     * ║    MÉTHODE : main    ║
+     * ╚══════════════════════╝
+     * Point d'entrée principal.
+     *
+     * @param args Arguments de la ligne de commande (non utilisés).
+     */
+    public static void main(String[] args) {
+        System.out.println("══════ DÉBUT DES TESTS DE LA CLASSE RENDERQUEUE ══════");
+
+        RenderQueueTest tester = new RenderQueueTest();
+        tester.testOrder();
+        tester.testCulling();
+        tester.testMovingItems();
+
+        System.out.println("══════ FIN DES TESTS DE LA CLASSE RENDERQUEUE ══════");
+    }
+}
@@ -0,0 +1,167 @@
+package mainproject.test;
+
+/**
+ * ╔══════════════════════════════════════════════════════╗
+ * ║               CLASSE SPATIALGRID_TEST                ║
+ * ╚══════════════════════════════════════════════════════╝
+ * Tests de la grille uniforme (phase large des collisions entre entités).
+ *
+ * La classe vérifie :
+ * - Les paires signalées, comparées à un test de toutes les paires (N²) :
+ *   chaque paire qui se chevauche une seule fois, même partagée par plusieurs cellules.
+ * - Les requêtes de zone : chaque entité une seule fois, l'entité exclue ignorée.
+ * - Les reconstructions successives (clear puis insert), grille agrandie comprise.
+ */
+import mainproject.SpatialGrid;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class SpatialGridTest {
+
+    /** Côté des cellules de la grille de test (pixels). */
+    private static final int CELL = 64;
+
+    /** Hitboxes de test : [x, y, largeur, hauteur] par entité. */
+    private int[][] boxes;
+
+    /** Tire des hitboxes au hasard, dont certaines plus grandes qu'une cellule et en coordonnées négatives. */
+    private void createBoxes(Random random, int count, int worldSize) {
+        boxes = new int[count][];
+        for (int id = 0; id < count; id++) {
+            int width = 1 + random.nextInt(random.nextInt(10) == 0 ? 3 * CELL : CELL);
+            int height = 1 + random.nextInt(random.nextInt(10) == 0 ? 3 * CELL : CELL);
+            boxes[id] = new int[] { random.nextInt(worldSize) - worldSize / 2, random.nextInt(worldSize) - worldSize / 2, width, height };
+        }
+    }
+
+    /** Reconstruit la grille avec les hitboxes courantes. */
+    private void fill(SpatialGrid grid) {
+        grid.clear();
+        for (int id = 0; id < boxes.length; id++) {
+            grid.insert(id, boxes[id][0], boxes[id][1], boxes[id][2], boxes[id][3]);
+        }
+    }
+
+    /** Test de référence : chevauchement de deux hitboxes (même règle que Rectangle.intersects). */
+    private boolean overlapsBruteForce(int a, int b) {
+        int[] p = boxes[a], q = boxes[b];
+        return p[0] < q[0] + q[2] && q[0] < p[0] + p[2] && p[1] < q[1] + q[3] && q[1] < p[1] + p[3];
+    }
+
+    /** Indique si la grille signale chaque paire qui se chevauche exactement une fois, et aucune autre. */
+    private boolean pairsMatchBruteForce(SpatialGrid grid) {
+        Map<Long, Integer> visits = new HashMap<>();
+        grid.forEachPair((a, b) -> visits.merge(pairKey(a, b), 1, Integer::sum));
+
+        int expected = 0;
+        for (int a = 0; a < boxes.length; a++) {
+            for (int b = a + 1; b < boxes.length; b++) {
+                if (!overlapsBruteForce(a, b)) continue;
+                expected++;
+                if (!Integer.valueOf(1).equals(visits.get(pairKey(a, b)))) return false;
+            }
+        }
+        return visits.size() == expected;
+    }
+
+    private static long pairKey(int a, int b) {
+        return (long) Math.min(a, b) << 32 | Math.max(a, b);
+    }
+
+    private static void check(boolean success, String description) {
+        System.out.println((success ? "✅ Test réussi : " : "❌ Test échoué : ") + description);
+    }
+
+    /**
+     * ╔══════════════════════╗
+     * ║    TEST : Paires     ║
+     * ╚══════════════════════╝
+     * Deux hitboxes qui partagent quatre cellules ne sont signalées qu'une fois,
+     * puis des mondes aléatoires sont comparés au test de toutes les paires.
+     */
+    public void testPairs() {
+        System.out.println("┌──── TEST : SpatialGrid.Paires ────┐");
+        try {
+            // Deux grandes hitboxes qui se chevauchent sur 2 x 2 cellules
+            boxes = new int[][] { { 0, 0, 3 * CELL, 3 * CELL }, { CELL / 2, CELL / 2, 2 * CELL, 2 * CELL }, { 10 * CELL, 0, 8, 8 } };
+            SpatialGrid grid = new SpatialGrid(CELL, boxes.length);
+            fill(grid);
+            int[] visits = new int[1];
+            grid.forEachPair((a, b) -> visits[0]++);
+            check(visits[0] == 1 && grid.overlaps(0, 1) && !grid.overlaps(0, 2), "Paire partagée par plusieurs cellules signalée une fois");
+
+            // Hitboxes qui se touchent bord à bord : pas de chevauchement
+            boxes = new int[][] { { 0, 0, CELL, CELL }, { CELL, 0, CELL, CELL } };
+            fill(grid);
+            visits[0] = 0;
+            grid.forEachPair((a, b) -> visits[0]++);
+            check(visits[0] == 0, "Hitboxes bord à bord non signalées");
+
+            // Mondes aléatoires, de plus en plus peuplés : la grille s'agrandit entre deux reconstructions
+            Random random = new Random(20);
+            boolean success = true;
+            for (int count = 50; count <= 1600 && success; count *= 2) {
+                createBoxes(random, count, 40 * CELL);
+                fill(grid);
+                success = grid.size() == count && pairsMatchBruteForce(grid);
+            }
+            check(success, "Paires identiques au test de toutes les paires (50 à 1 600 entités)");
+        } catch (Exception e) {
+            System.out.println("❌ Test échoué : Exception levée -> " + e);
+        }
+        System.out.println("└───────────────────────────────────────────┘");
+    }
+
+    /**
+     * ╔══════════════════════╗
+     * ║    TEST : Requête    ║
+     * ╚══════════════════════╝
+     * Des zones aléatoires sont interrogées et comparées à un parcours de toutes les entités.
+     */
+    public void testQuery() {
+        System.out.println("┌──── TEST : SpatialGrid.Requête ────┐");
+        try {
+            Random random = new Random(200);
+            createBoxes(random, 800, 30 * CELL);
+            SpatialGrid grid = new SpatialGrid(CELL, 16);
+            fill(grid);
+
+            boolean success = true;
+            for (int n = 0; n < 2000 && success; n++) {
+                int exclude = random.nextInt(boxes.length);
+                int[] area = boxes[exclude];
+                int[] visits = new int[boxes.length];
+                grid.query(area[0], area[1], area[2], area[3], exclude, id -> visits[id]++);
+
+                for (int id = 0; id < boxes.length && success; id++) {
+                    int expected = id != exclude && overlapsBruteForce(id, exclude) ? 1 : 0;
+                    success = visits[id] == expected;
+                }
+            }
+            check(success, "Chaque entité de la zone visitée une fois, entité exclue ignorée (2 000 requêtes)");
+        } catch (Exception e) {
+            System.out.println("❌ Test échoué : Exception levée -> " + e);
+        }
+        System.out.println("└───────────────────────────────────────────┘");
+    }
+
+    /**
+     * ╔══════════════════════╗
+     * ║    MÉTHODE : main    ║
+     * ╚══════════════════════╝
+     * Point d'entrée principal.
+     *
+     * @param args Arguments de la ligne de commande (non utilisés).
+     */
+    public static void main(String[] args) {
+        System.out.println("══════ DÉBUT DES TESTS DE LA CLASSE SPATIALGRID ══════");
+
+        SpatialGridTest tester = new SpatialGridTest();
+        tester.testPairs();
+        tester.testQuery();
+
+        System.out.println("══════ FIN DES TESTS DE LA CLASSE SPATIALGRID ══════");
+    }
+}
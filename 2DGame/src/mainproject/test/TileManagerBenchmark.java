@@ -0,0 +1,134 @@
+package mainproject.test;
+
+/**
+ * ╔══════════════════════════════════════════════════════╗
+ * ║               CLASSE TILEMANAGER_BENCHMARK           ║
+ * ╚══════════════════════════════════════════════════════╝
+ * Mesure le coût d'une frame de TileManager.draw (3 couches) en fonction
+ * de la taille du monde (maxWorldCol x maxWorldRow).
+ *
+ * Le dessin borné à la caméra doit garder un coût constant quelle que soit
+ * la taille de la carte, contrairement à l'ancien parcours complet de la carte
+ * (reproduit ici à titre de comparaison). Le dessin borné est mesuré avec et
+ * sans le cache de chunks des couches statiques.
+ */
+import mainproject.GamePanel;
+import mainproject.tile.TileManager;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+public class TileManagerBenchmark {
+
+    /** Tailles de monde testées (en tuiles de côté). */
+    private static final int[] WORLD_SIZES = {100, 500, 1000, 2000};
+
+    /** Nombre de frames de chauffe (JIT) avant la mesure. */
+    private static final int WARMUP_FRAMES = 200;
+
+    /** Nombre de frames mesurées par taille de monde. */
+    private static final int MEASURED_FRAMES = 500;
+
+    /**
+     * Remplit la carte avec des tuiles aléatoires (couche 0 pleine, couches 1 et 2 clairsemées).
+     */
+    private static void fillMap(TileManager tileManager, Random random) {
+        for (int col = 0; col < tileManager.maxWorldCol; col++) {
+            for (int row = 0; row < tileManager.maxWorldRow; row++) {
+                tileManager.tileMap.setTile(0, col, row, random.nextInt(7));
+                tileManager.tileMap.setTile(1, col, row, random.nextInt(10) == 0 ? 7 + random.nextInt(3) : -1);
+                tileManager.tileMap.setTile(2, col, row, random.nextInt(20) == 0 ? 10 : -1);
+            }
+        }
+    }
+
+    /**
+     * Ancien algorithme : parcourt toutes les cases de la couche et ne dessine que les visibles.
+     */
+    private static void drawFullScan(GamePanel gp, TileManager tileManager, Graphics2D g2, int layer) {
+        for (int worldRow = 0; worldRow < tileManager.maxWorldRow; worldRow++) {
+            for (int worldCol = 0; worldCol < tileManager.maxWorldCol; worldCol++) {
+                int tileNum = tileManager.tileMap.getTile(layer, worldCol, worldRow);
+                int worldX = worldCol * gp.tileSize;
+                int worldY = worldRow * gp.tileSize;
+
+                if (worldX + gp.tileSize > gp.player.worldx - gp.player.screenX &&
+                        worldX - gp.tileSize < gp.player.worldx + gp.player.screenX &&
+                        worldY + gp.tileSize > gp.player.worldy - gp.player.screenY &&
+                        worldY - gp.tileSize < gp.player.worldy + gp.player.screenY &&
+                        tileNum >= 0) {
+                    int screenX = worldX - gp.player.worldx + gp.player.screenX;
+                    int screenY = worldY - gp.player.worldy + gp.player.screenY;
+                    g2.drawImage(tileManager.tileTypes[tileNum].image, screenX, screenY, gp.tileSize, gp.tileSize, null);
+                }
+            }
+        }
+    }
+
+    /**
+     * Mesure le temps moyen (en microsecondes) d'une frame de 3 couches.
+     */
+    private static double measure(GamePanel gp, TileManager tileManager, Graphics2D g2, boolean fullScan) {
+        for (int frame = 0; frame < WARMUP_FRAMES; frame++) {
+            drawFrame(gp, tileManager, g2, fullScan);
+        }
+
+        long start = System.nanoTime();
+        for (int frame = 0; frame < MEASURED_FRAMES; frame++) {
+            drawFrame(gp, tileManager, g2, fullScan);
+        }
+        return (System.nanoTime() - start) / 1000.0 / MEASURED_FRAMES;
+    }
+
+    private static void drawFrame(GamePanel gp, TileManager tileManager, Graphics2D g2, boolean fullScan) {
+        for (int layer = 0; layer < 3; layer++) {
+            if (fullScan) {
+                drawFullScan(gp, tileManager, g2, layer);
+            } else {
+                tileManager.draw(g2, layer);
+            }
+        }
+    }
+
+    /**
+     * Point d'entrée du benchmark.
+     *
+     * @param args Arguments de la ligne de commande (non utilisés).
+     */
+    public static void main(String[] args) {
+        System.out.println("══════ BENCHMARK : TileManager.draw ══════");
+
+        GamePanel gp = new GamePanel();
+        gp.awaitWorldLoaded();
+        TileManager tileManager = gp.tileManager;
+        BufferedImage image = new BufferedImage(gp.screenWidth, gp.screenHeight, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = image.createGraphics();
+        Random random = new Random(42);
+
+        double baseline = 0;
+        for (int size : WORLD_SIZES) {
+            tileManager.setMapSize(size, size);
+            fillMap(tileManager, random);
+
+            // Caméra au centre du monde
+            gp.player.worldx = gp.tileSize * (size / 2);
+            gp.player.worldy = gp.tileSize * (size / 2);
+            gp.player.savePreviousPosition();
+            gp.updateCamera();
+
+            tileManager.useChunkCache = false;
+            double bounded = measure(gp, tileManager, g2, false);
+            tileManager.useChunkCache = true;
+            double cached = measure(gp, tileManager, g2, false);
+            double fullScan = measure(gp, tileManager, g2, true);
+            if (baseline == 0) baseline = bounded;
+
+            System.out.printf("Monde %4d x %-4d : fenêtre caméra %8.1f µs/frame (x%.2f) | avec chunks %8.1f µs/frame | parcours complet %10.1f µs/frame%n",
+                    size, size, bounded, bounded / baseline, cached, fullScan);
+        }
+
+        g2.dispose();
+        System.out.println("══════ FIN DU BENCHMARK ══════");
+    }
+}
@@ -0,0 +1,43 @@
+package mainproject.tile;
+
+import java.io.IOException;
+
+/**
+ * Source des tuiles d'un monde découpé en chunks (voir ChunkedWorld) :
+ * carte binaire lue par zones, fichier de région, carte en mémoire...
+ * readChunk et writeChunk peuvent être appelés depuis le thread de chargement des chunks.
+ */
+public interface ChunkSource {
+
+    int getCols();
+
+    int getRows();
+
+    int getLayerCount();
+
+    /**
+     * Lit une zone rectangulaire de la carte.
+     *
+     * @param firstCol première colonne de la zone
+     * @param firstRow première ligne de la zone
+     * @param target destination, de la taille de la zone ; toutes ses couches sont remplies
+     *               (celles absentes de la source avec TileMap.EMPTY)
+     */
+    void readChunk(int firstCol, int firstRow, TileMap target) throws IOException;
+
+    /**
+     * Indique si writeChunk peut réécrire les zones modifiées. Par défaut la source est
+     * en lecture seule : un monde paginé garde alors ses chunks modifiés en mémoire.
+     */
+    default boolean isWritable() {
+        return false;
+    }
+
+    /**
+     * Réécrit une zone modifiée (monde paginé dont des tuiles ont changé).
+     * Par défaut la source est en lecture seule.
+     */
+    default void writeChunk(int firstCol, int firstRow, TileMap chunk) throws IOException {
+        throw new IOException("Source de chunks en lecture seule");
+    }
+}
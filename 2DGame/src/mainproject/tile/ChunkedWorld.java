@@ -0,0 +1,475 @@
+package mainproject.tile;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Monde découpé en chunks de chunkSize x chunkSize tuiles, chargés depuis une ChunkSource
+ * autour de la caméra et libérés quand ils s'en éloignent : la mémoire occupée dépend
+ * du rayon de résidence, pas de la taille du monde.
+ *
+ * Un thread de chargement (démon) suit le centre donné par setCenter() : il libère les chunks
+ * à plus de radius + 1 chunks du centre, puis charge ceux à moins de radius chunks, du plus
+ * proche au plus éloigné. Les lectures (getTile) sont sans verrou depuis n'importe quel thread ;
+ * une case d'un chunk absent vaut TileGrid.UNLOADED.
+ * Les chunks modifiés par setTile sont réécrits dans la source quand ils sont libérés
+ * et à la fermeture du monde ; une modification et la libération d'un même chunk sont
+ * sérialisées par le verrou du chunk, une modification n'est donc jamais perdue.
+ * Si la source est en lecture seule, les chunks modifiés restent en mémoire jusqu'à la
+ * fermeture du monde au lieu d'être libérés.
+ * Chaque chunk porte sa carte des collisions, cuite à son chargement (voir setCollisionRule).
+ */
+public final class ChunkedWorld implements TileGrid, AutoCloseable {
+
+    /** Nombre de tuiles de côté d'un chunk (multiple de TileChunkCache.CHUNK_SIZE) */
+    public static final int DEFAULT_CHUNK_SIZE = 32;
+
+    /** Rayon de résidence par défaut (en chunks autour du chunk central) */
+    public static final int DEFAULT_RADIUS = 2;
+
+    public final int cols, rows, layers, chunkSize;
+
+    /** Dimensions de la grille de chunks */
+    public final int chunkCols, chunkRows;
+
+    private final ChunkSource source;
+
+    /**
+     * Chunk en mémoire : ses tuiles et sa carte des collisions.
+     * Les modifications (setTile, recuisson) et la libération se font sous son verrou.
+     */
+    private static final class Chunk {
+        final TileMap tiles;
+        /** null tant que la règle de collision n'est pas connue */
+        volatile CollisionMap collision;
+        /** Modifié depuis son chargement : à réécrire dans la source (protégé par le verrou du chunk) */
+        boolean dirty;
+        /** Libéré : plus aucune modification acceptée (protégé par le verrou du chunk) */
+        boolean evicted;
+
+        Chunk(TileMap tiles) {
+            this.tiles = tiles;
+        }
+    }
+
+    /** Chunks en mémoire (null si absent), indexés chunkRow * chunkCols + chunkCol */
+    private final AtomicReferenceArray<Chunk> chunks;
+
+    // Règle de collision : types de tuiles bloquants et couches prises en compte
+    private volatile boolean[] blockingTypes;
+    private volatile int[] collisionLayers;
+
+    /** Index des chunks en mémoire (modifiés sous residencyLock) */
+    private int[] resident = new int[64];
+    private int residentCount = 0;
+
+    /** Chunks chargés ou modifiés depuis le dernier pollChangedChunk (pour invalider le cache de rendu) */
+    private final ConcurrentLinkedQueue<Integer> changedChunks = new ConcurrentLinkedQueue<>();
+
+    private final Object lock = new Object();
+    private final Object residencyLock = new Object();
+
+    // Demande courante du thread de chargement (protégée par lock)
+    private int centerChunkCol = -1, centerChunkRow = -1;
+    private int radius;
+    private boolean pending = false;
+    private boolean closed = false;
+
+    private final Thread loader;
+
+    /**
+     * @param source source des tuiles
+     * @param layers nombre de couches du monde (les couches absentes de la source sont vides)
+     * @param chunkSize nombre de tuiles de côté d'un chunk
+     * @param radius rayon de résidence (en chunks)
+     */
+    public ChunkedWorld(ChunkSource source, int layers, int chunkSize, int radius) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Taille de chunk invalide : " + chunkSize);
+        }
+        this.source = source;
+        this.cols = source.getCols();
+        this.rows = source.getRows();
+        this.layers = layers;
+        this.chunkSize = chunkSize;
+        this.radius = radius;
+        chunkCols = (int) ((cols + (long) chunkSize - 1) / chunkSize);
+        chunkRows = (int) ((rows + (long) chunkSize - 1) / chunkSize);
+        try {
+            chunks = new AtomicReferenceArray<>(Math.multiplyExact(chunkCols, chunkRows));
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Trop de chunks : " + chunkCols + " x " + chunkRows);
+        }
+
+        loader = new Thread(this::runLoader, "chargement-chunks");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    @Override
+    public int getCols() {
+        return cols;
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public int getLayerCount() {
+        return layers;
+    }
+
+    /**
+     * Une case hors du monde vaut UNLOADED, comme une case d'une zone absente.
+     */
+    @Override
+    public int getTile(int layer, int col, int row) {
+        if (!isInBounds(col, row)) {
+            return UNLOADED;
+        }
+        Chunk chunk = chunks.get((row / chunkSize) * chunkCols + col / chunkSize);
+        if (chunk == null) {
+            return UNLOADED;
+        }
+        return chunk.tiles.getTile(layer, col % chunkSize, row % chunkSize);
+    }
+
+    /**
+     * Indique si une case bloque le passage : un bit de la carte des collisions de son chunk.
+     * Une case d'un chunk absent ou hors du monde est bloquante.
+     */
+    public boolean isBlocked(int col, int row) {
+        if (!isInBounds(col, row)) {
+            return true;
+        }
+        Chunk chunk = chunks.get((row / chunkSize) * chunkCols + col / chunkSize);
+        if (chunk == null) {
+            return true;
+        }
+        CollisionMap collision = chunk.collision;
+        return collision != null && collision.isBlocked(col % chunkSize, row % chunkSize);
+    }
+
+    /**
+     * Définit les tuiles bloquantes : les chunks déjà en mémoire sont recuits,
+     * les suivants le seront à leur chargement.
+     *
+     * @param blockingTypes blockingTypes[n] vaut true si la tuile n bloque le passage
+     * @param layers couches prises en compte
+     */
+    public void setCollisionRule(boolean[] blockingTypes, int[] layers) {
+        synchronized (residencyLock) {
+            this.blockingTypes = blockingTypes;
+            this.collisionLayers = layers;
+            for (int i = 0; i < residentCount; i++) {
+                Chunk chunk = chunks.get(resident[i]);
+                if (chunk != null) {
+                    synchronized (chunk) {
+                        chunk.collision = CollisionMap.bake(chunk.tiles, blockingTypes, layers);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Modifie une tuile d'un chunk en mémoire ; le chunk sera réécrit dans la source.
+     *
+     * @throws IndexOutOfBoundsException si la case est hors du monde
+     * @throws IllegalStateException si la zone de la tuile n'est pas chargée (ou en cours de libération)
+     */
+    @Override
+    public void setTile(int layer, int col, int row, int tile) {
+        if (!isInBounds(col, row)) {
+            throw new IndexOutOfBoundsException("Case hors du monde : (" + col + ", " + row + ")");
+        }
+        int index = (row / chunkSize) * chunkCols + col / chunkSize;
+        Chunk chunk = chunks.get(index);
+        if (chunk == null) {
+            throw new IllegalStateException("Zone non chargée : (" + col + ", " + row + ")");
+        }
+        int localCol = col % chunkSize;
+        int localRow = row % chunkSize;
+        synchronized (chunk) {
+            // Le chunk a pu être libéré entre la lecture du tableau et la prise du verrou
+            if (chunk.evicted) {
+                throw new IllegalStateException("Zone non chargée : (" + col + ", " + row + ")");
+            }
+            chunk.tiles.setTile(layer, localCol, localRow, tile);
+            CollisionMap collision = chunk.collision;
+            if (collision != null) {
+                collision.update(chunk.tiles, localCol, localRow, blockingTypes, collisionLayers);
+            }
+            chunk.dirty = true;
+        }
+        changedChunks.add(index);
+    }
+
+    /**
+     * Déplace le centre de la zone résidente (position de la caméra, en tuiles).
+     * Ne bloque pas : le thread de chargement est réveillé si le chunk central change.
+     */
+    public void setCenter(int col, int row) {
+        int chunkCol = clamp(col / chunkSize, chunkCols);
+        int chunkRow = clamp(row / chunkSize, chunkRows);
+        synchronized (lock) {
+            if (chunkCol == centerChunkCol && chunkRow == centerChunkRow) {
+                return;
+            }
+            centerChunkCol = chunkCol;
+            centerChunkRow = chunkRow;
+            pending = true;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Charge immédiatement (sur le thread appelant) les chunks autour d'une position,
+     * puis en fait le centre de la zone résidente. Utilisé à l'ouverture du monde,
+     * pour que la première image ne soit pas vide.
+     */
+    public void loadAround(int col, int row) {
+        int chunkCol = clamp(col / chunkSize, chunkCols);
+        int chunkRow = clamp(row / chunkSize, chunkRows);
+        int currentRadius;
+        synchronized (lock) {
+            centerChunkCol = chunkCol;
+            centerChunkRow = chunkRow;
+            currentRadius = radius;
+        }
+        updateResidency(chunkCol, chunkRow, currentRadius, false);
+    }
+
+    /**
+     * Change le rayon de résidence (en chunks autour du chunk central).
+     */
+    public void setRadius(int radius) {
+        synchronized (lock) {
+            this.radius = radius;
+            pending = true;
+            lock.notifyAll();
+        }
+    }
+
+    public int getRadius() {
+        synchronized (lock) {
+            return radius;
+        }
+    }
+
+    /**
+     * Retourne l'index d'un chunk chargé ou modifié depuis le dernier appel, ou -1.
+     * Le thread de rendu s'en sert pour recuire les images des zones qui ont changé.
+     */
+    public int pollChangedChunk() {
+        Integer index = changedChunks.poll();
+        return index == null ? -1 : index;
+    }
+
+    /** Première colonne d'un chunk */
+    public int chunkFirstCol(int index) {
+        return (index % chunkCols) * chunkSize;
+    }
+
+    /** Première ligne d'un chunk */
+    public int chunkFirstRow(int index) {
+        return (index / chunkCols) * chunkSize;
+    }
+
+    public int getResidentChunkCount() {
+        synchronized (residencyLock) {
+            return residentCount;
+        }
+    }
+
+    /** Mémoire occupée par les tuiles des chunks en mémoire (en octets) */
+    public long getResidentBytes() {
+        synchronized (residencyLock) {
+            long bytes = 0;
+            for (int i = 0; i < residentCount; i++) {
+                Chunk chunk = chunks.get(resident[i]);
+                if (chunk == null) continue;
+                bytes += chunk.tiles.memoryBytes();
+                CollisionMap collision = chunk.collision;
+                if (collision != null) bytes += collision.memoryBytes();
+            }
+            return bytes;
+        }
+    }
+
+    /**
+     * Arrête le thread de chargement, réécrit les chunks modifiés et libère tous les chunks.
+     * La source est fermée si elle est AutoCloseable (fichier de région).
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+            lock.notifyAll();
+        }
+        synchronized (residencyLock) {
+            for (int i = 0; i < residentCount; i++) {
+                unload(resident[i], true);
+            }
+            residentCount = 0;
+        }
+        if (source instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                System.err.println("Fermeture de la source des chunks : " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Boucle du thread de chargement : attend un nouveau centre, puis met à jour la zone résidente.
+     */
+    private void runLoader() {
+        while (true) {
+            int chunkCol, chunkRow, currentRadius;
+            synchronized (lock) {
+                while (!pending && !closed) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (closed) return;
+                pending = false;
+                chunkCol = centerChunkCol;
+                chunkRow = centerChunkRow;
+                currentRadius = radius;
+            }
+            if (chunkCol >= 0) {
+                updateResidency(chunkCol, chunkRow, currentRadius, true);
+            }
+        }
+    }
+
+    /**
+     * Libère les chunks trop éloignés du centre et charge ceux du rayon de résidence,
+     * anneau par anneau à partir du centre.
+     *
+     * @param interruptible si true, s'arrête dès qu'un nouveau centre est demandé
+     */
+    private void updateResidency(int centerCol, int centerRow, int radius, boolean interruptible) {
+        synchronized (residencyLock) {
+            if (isClosed()) {
+                return;
+            }
+            // Une marge d'un chunk évite de libérer et recharger en boucle à la frontière
+            for (int i = residentCount - 1; i >= 0; i--) {
+                int index = resident[i];
+                int distance = Math.max(Math.abs(index % chunkCols - centerCol), Math.abs(index / chunkCols - centerRow));
+                if (distance > radius + 1 && unload(index, false)) {
+                    resident[i] = resident[--residentCount];
+                }
+            }
+
+            for (int ring = 0; ring <= radius; ring++) {
+                for (int chunkRow = centerRow - ring; chunkRow <= centerRow + ring; chunkRow++) {
+                    for (int chunkCol = centerCol - ring; chunkCol <= centerCol + ring; chunkCol++) {
+                        boolean onRing = Math.abs(chunkRow - centerRow) == ring || Math.abs(chunkCol - centerCol) == ring;
+                        if (!onRing || chunkCol < 0 || chunkCol >= chunkCols || chunkRow < 0 || chunkRow >= chunkRows) {
+                            continue;
+                        }
+                        int index = chunkRow * chunkCols + chunkCol;
+                        if (chunks.get(index) == null) {
+                            load(index);
+                        }
+                    }
+                }
+                if (interruptible && isInterrupted()) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private boolean isClosed() {
+        synchronized (lock) {
+            return closed;
+        }
+    }
+
+    private boolean isInterrupted() {
+        synchronized (lock) {
+            return pending || closed;
+        }
+    }
+
+    /**
+     * Lit un chunk depuis la source et le rend visible aux autres threads.
+     */
+    private void load(int index) {
+        int firstCol = chunkFirstCol(index);
+        int firstRow = chunkFirstRow(index);
+        TileMap chunk = new TileMap(layers, Math.min(chunkSize, cols - firstCol), Math.min(chunkSize, rows - firstRow));
+        try {
+            source.readChunk(firstCol, firstRow, chunk);
+        } catch (IOException e) {
+            // Un chunk illisible reste vide plutôt que bloquer le joueur en boucle
+            System.err.println("Chunk (" + firstCol + ", " + firstRow + ") illisible : " + e.getMessage());
+            for (int layer = 0; layer < layers; layer++) {
+                chunk.fillLayer(layer, TileMap.EMPTY);
+            }
+        }
+        Chunk loaded = new Chunk(chunk);
+        boolean[] blocking = blockingTypes;
+        if (blocking != null) {
+            loaded.collision = CollisionMap.bake(chunk, blocking, collisionLayers);
+        }
+        if (residentCount == resident.length) {
+            resident = Arrays.copyOf(resident, resident.length * 2);
+        }
+        resident[residentCount++] = index;
+        chunks.set(index, loaded);
+        changedChunks.add(index);
+    }
+
+    /**
+     * Libère un chunk, après l'avoir réécrit dans la source s'il a été modifié.
+     * Sous le verrou du chunk : une modification en cours se termine avant l'écriture,
+     * les suivantes sont refusées. Le chunk n'est retiré qu'une fois l'écriture réussie.
+     *
+     * @param closing si false, un chunk modifié qui ne peut pas être enregistré (source en
+     *                lecture seule ou écriture en échec) est gardé en mémoire
+     * @return false si le chunk reste en mémoire
+     */
+    private boolean unload(int index, boolean closing) {
+        Chunk chunk = chunks.get(index);
+        if (chunk == null) {
+            return true;
+        }
+        synchronized (chunk) {
+            if (chunk.dirty) {
+                if (!source.isWritable()) {
+                    // La modification serait perdue au prochain chargement depuis la source
+                    if (!closing) return false;
+                } else {
+                    try {
+                        source.writeChunk(chunkFirstCol(index), chunkFirstRow(index), chunk.tiles);
+                        chunk.dirty = false;
+                    } catch (IOException e) {
+                        System.err.println("Chunk (" + chunkFirstCol(index) + ", " + chunkFirstRow(index) + ") non enregistré : " + e.getMessage());
+                        // Gardé modifié en mémoire : une prochaine libération retentera l'écriture
+                        if (!closing) return false;
+                    }
+                }
+            }
+            chunks.set(index, null);
+            chunk.evicted = true;
+        }
+        return true;
+    }
+
+    private static int clamp(int value, int count) {
+        return Math.max(0, Math.min(count - 1, value));
+    }
+}
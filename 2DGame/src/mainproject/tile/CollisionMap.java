@@ -0,0 +1,80 @@
+package mainproject.tile;
+
+/**
+ * Carte des collisions : un bit par case (1 = bloquante), rangé ligne par ligne comme TileMap.
+ * Cuite une fois au chargement de la carte à partir des couches bloquantes, puis tenue à jour
+ * case par case quand une tuile change : tester une case revient à tester un bit.
+ */
+public final class CollisionMap {
+
+    public final int cols, rows;
+
+    /** Bit (row * cols + col) : case bloquante */
+    private final long[] bits;
+
+    /**
+     * Crée une carte des collisions sans case bloquante.
+     */
+    public CollisionMap(int cols, int rows) {
+        this.cols = cols;
+        this.rows = rows;
+        bits = new long[(int) (((long) cols * rows + 63) >>> 6)];
+    }
+
+    /**
+     * Cuit la carte des collisions d'une carte de tuiles de mêmes dimensions.
+     *
+     * @param tiles carte de tuiles
+     * @param blockingTypes blockingTypes[n] vaut true si la tuile n bloque le passage
+     * @param layers couches prises en compte
+     */
+    public static CollisionMap bake(TileMap tiles, boolean[] blockingTypes, int[] layers) {
+        CollisionMap map = new CollisionMap(tiles.cols, tiles.rows);
+        for (int layer : layers) {
+            if (layer >= tiles.getLayerCount()) continue;
+            short[] layerTiles = tiles.layer(layer);
+            for (int i = 0; i < layerTiles.length; i++) {
+                int tile = layerTiles[i];
+                if (tile >= 0 && tile < blockingTypes.length && blockingTypes[tile]) {
+                    map.bits[i >>> 6] |= 1L << i;
+                }
+            }
+        }
+        return map;
+    }
+
+    /**
+     * Recalcule une case après la modification d'une de ses tuiles.
+     */
+    public void update(TileGrid tiles, int col, int row, boolean[] blockingTypes, int[] layers) {
+        boolean blocked = false;
+        for (int layer : layers) {
+            if (layer >= tiles.getLayerCount()) continue;
+            int tile = tiles.getTile(layer, col, row);
+            if (tile >= 0 && tile < blockingTypes.length && blockingTypes[tile]) {
+                blocked = true;
+                break;
+            }
+        }
+        setBlocked(col, row, blocked);
+    }
+
+    public boolean isBlocked(int col, int row) {
+        int i = row * cols + col;
+        return (bits[i >>> 6] & (1L << i)) != 0;
+    }
+
+    public void setBlocked(int col, int row, boolean blocked) {
+        int i = row * cols + col;
+        if (blocked) {
+            bits[i >>> 6] |= 1L << i;
+        } else {
+            bits[i >>> 6] &= ~(1L << i);
+        }
+    }
+
+    /** Mémoire occupée par les bits (en octets) */
+    public long memoryBytes() {
+        return (long) bits.length * Long.BYTES;
+    }
+}
@@ -0,0 +1,84 @@
+package mainproject.tile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outil de conversion des cartes texte (res/maps/*.txt) vers le format binaire .tmap
+ * ou vers un fichier de région .treg (--region).
+ *
+ * Utilisation :
+ * <pre>
+ *   java mainproject.tile.MapConverter [--rle | --region] [--couches N] carte.txt [autre.txt ...]
+ * </pre>
+ * Chaque fichier est écrit à côté de l'original avec l'extension .tmap (ou .treg).
+ * Le jeu se sert d'une carte .tmap comme cache de la carte texte du même nom tant que
+ * le texte n'a pas changé depuis la conversion (voir MapFile.fingerprint).
+ * Les dimensions sont déduites du fichier (voir MapTextParser) ; --couches indique le nombre
+ * de couches quand elles ne sont pas séparées par des lignes vides (3 par défaut).
+ */
+public class MapConverter {
+
+    public static void main(String[] args) throws IOException {
+        byte encoding = MapFile.ENCODING_RAW;
+        int layers = 3;
+        String extension = MapFile.EXTENSION;
+        List<Path> inputs = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--rle" -> encoding = MapFile.ENCODING_RLE;
+                case "--region" -> extension = RegionFile.EXTENSION;
+                case "--couches" -> layers = Integer.parseInt(args[++i]);
+                default -> inputs.add(Path.of(args[i]));
+            }
+        }
+        if (inputs.isEmpty()) {
+            System.out.println("Utilisation : MapConverter [--rle | --region] [--couches N] carte.txt [autre.txt ...]");
+            return;
+        }
+
+        for (Path input : inputs) {
+            String name = input.getFileName().toString();
+            Path output = input.resolveSibling(name.substring(0, name.lastIndexOf('.')) + extension);
+            convert(input, output, layers, encoding);
+        }
+    }
+
+    /**
+     * Convertit une carte texte en carte binaire, ou en fichier de région si la sortie
+     * a l'extension .treg (l'encodage est alors ignoré).
+     */
+    public static void convert(Path input, Path output, int layers, byte encoding) throws IOException {
+        MapTextParser parser = new MapTextParser();
+        MapTextParser.Dimensions dimensions;
+        try (InputStream in = Files.newInputStream(input)) {
+            dimensions = parser.scan(in, layers);
+        }
+        int cols = dimensions.cols;
+        int rows = dimensions.rows;
+        layers = dimensions.layers;
+
+        TileMap tiles = new TileMap(layers, cols, rows);
+        try (InputStream in = Files.newInputStream(input)) {
+            parser.parse(in, dimensions, tiles, null);
+        }
+
+        if (RegionFile.isRegion(output.toString())) {
+            RegionFile.create(output, tiles, ChunkedWorld.DEFAULT_CHUNK_SIZE);
+        } else {
+            // L'empreinte du texte permet au jeu de savoir si la carte binaire est à jour
+            long fingerprint;
+            try (InputStream in = Files.newInputStream(input)) {
+                fingerprint = MapFile.fingerprint(in);
+            }
+            MapFile.write(output, tiles, encoding, fingerprint);
+        }
+        System.out.println(input + " -> " + output + " (" + cols + "x" + rows + ", " + layers + " couches, "
+                + Files.size(output) + " octets)");
+    }
+}
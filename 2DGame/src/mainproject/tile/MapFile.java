@@ -0,0 +1,366 @@
+package mainproject.tile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.DoubleConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * Format binaire compact des cartes (.tmap), lu par projection mémoire (FileChannel.map)
+ * directement dans les tableaux de tuiles, sans passer par des String.
+ *
+ * Structure (gros-boutiste) :
+ * <pre>
+ *   int   magie "TMAP"
+ *   short version
+ *   byte  encodage (ENCODING_RAW ou ENCODING_RLE)
+ *   byte  nombre de couches
+ *   int   colonnes
+ *   int   lignes
+ *   long  empreinte de la carte texte d'origine (0 si aucune, voir fingerprint)
+ *   données : couche par couche, ligne par ligne (row-major)
+ * </pre>
+ * ENCODING_RAW : un short signé par tuile (-1 = vide) ; la tuile (couche, col, ligne) est
+ * à une position calculable, ce qui permet de lire une zone sans lire tout le fichier.
+ * ENCODING_RLE : suites de (longueur en varint, numéro de tuile en varint zigzag),
+ * beaucoup plus petit pour les grandes zones uniformes.
+ *
+ * Une carte convertie depuis une carte texte garde l'empreinte du texte : TileManager ne
+ * s'en sert comme cache du texte que si l'empreinte correspond toujours.
+ *
+ * Une carte brute peut servir de ChunkSource : ChunkedWorld n'en lit alors que les zones
+ * proches de la caméra (la projection d'un seul bloc limite le fichier à 2 Go).
+ */
+public final class MapFile implements ChunkSource {
+
+    public static final int MAGIC = 0x544D4150; // "TMAP"
+    public static final short VERSION = 2;
+    public static final int HEADER_SIZE = 24;
+
+    public static final byte ENCODING_RAW = 0;
+    public static final byte ENCODING_RLE = 1;
+
+    /** Taille du tampon d'écriture (au moins une suite RLE : 10 octets) */
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    /** Extension des cartes binaires */
+    public static final String EXTENSION = ".tmap";
+
+    public final int cols, rows, layers;
+    public final byte encoding;
+
+    /** Empreinte de la carte texte d'origine (0 si la carte n'a pas été convertie depuis un texte) */
+    public final long sourceFingerprint;
+
+    /** Contenu du fichier (projeté en mémoire si possible), positionné après l'en-tête */
+    private final ByteBuffer data;
+
+    private MapFile(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+            throw new IOException("Ce n'est pas une carte binaire (.tmap)");
+        }
+        short version = buffer.getShort();
+        if (version != VERSION) {
+            throw new IOException("Version de carte non gérée : " + version);
+        }
+        encoding = buffer.get();
+        layers = buffer.get();
+        cols = buffer.getInt();
+        rows = buffer.getInt();
+        sourceFingerprint = buffer.getLong();
+        if (encoding != ENCODING_RAW && encoding != ENCODING_RLE) {
+            throw new IOException("Encodage de carte inconnu : " + encoding);
+        }
+        if (layers <= 0 || cols <= 0 || rows <= 0) {
+            throw new IOException("Dimensions de carte invalides : " + layers + "x" + cols + "x" + rows);
+        }
+        if (encoding == ENCODING_RAW && buffer.remaining() < (long) layers * cols * rows * 2) {
+            throw new IOException("Carte tronquée");
+        }
+        data = buffer.slice();
+    }
+
+    /**
+     * Ouvre une carte binaire sur le disque par projection mémoire.
+     */
+    public static MapFile open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // La projection reste valide après la fermeture du canal
+            return new MapFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Ouvre une carte binaire des ressources. Projetée en mémoire si la ressource est un fichier,
+     * lue en une fois sinon (ressource dans un .jar).
+     *
+     * @param resource chemin de la ressource (ex : "/maps/test6.tmap")
+     */
+    public static MapFile openResource(String resource) throws IOException {
+        URL url = MapFile.class.getResource(resource);
+        if (url == null) {
+            throw new IOException("Carte introuvable : " + resource);
+        }
+        if ("file".equals(url.getProtocol())) {
+            try {
+                return open(Path.of(url.toURI()));
+            } catch (URISyntaxException e) {
+                throw new IOException(e);
+            }
+        }
+        try (InputStream is = url.openStream()) {
+            return new MapFile(ByteBuffer.wrap(is.readAllBytes()));
+        }
+    }
+
+    /**
+     * Copie toutes les tuiles dans une TileMap de mêmes dimensions. Les lignes du fichier
+     * et des couches de la TileMap sont dans le même ordre : en brut, chaque ligne est
+     * copiée d'un bloc ; en RLE, chaque suite est un Arrays.fill.
+     *
+     * @param target carte de destination (cols x rows, au moins layers couches)
+     * @param progress reçoit l'avancement (0 à 1) après chaque ligne, ou null
+     * @throws IOException si les données RLE sont tronquées ou corrompues
+     */
+    public void readInto(TileMap target, DoubleConsumer progress) throws IOException {
+        if (target.cols != cols || target.rows != rows || target.getLayerCount() < layers) {
+            throw new IllegalArgumentException("Dimensions de la carte de destination incompatibles");
+        }
+        try {
+            decodeInto(target, progress);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Carte tronquée");
+        }
+    }
+
+    private void decodeInto(TileMap target, DoubleConsumer progress) throws IOException {
+        ByteBuffer in = data.duplicate();
+        ShortBuffer shorts = in.asShortBuffer();
+        int runLength = 0;
+        short runValue = 0;
+        double totalRows = (double) layers * rows;
+
+        for (int layer = 0; layer < layers; layer++) {
+            short[] layerTiles = target.layer(layer);
+            for (int row = 0; row < rows; row++) {
+                int start = row * cols;
+                if (encoding == ENCODING_RAW) {
+                    shorts.get(layerTiles, start, cols);
+                } else {
+                    int end = start + cols;
+                    for (int i = start; i < end; ) {
+                        if (runLength == 0) {
+                            runLength = readVarint(in);
+                            runValue = (short) zigzagDecode(readVarint(in));
+                            if (runLength <= 0) {
+                                throw new IOException("Carte corrompue : suite de longueur " + runLength);
+                            }
+                        }
+                        int n = Math.min(runLength, end - i);
+                        Arrays.fill(layerTiles, i, i + n, runValue);
+                        i += n;
+                        runLength -= n;
+                    }
+                }
+                if (progress != null) {
+                    progress.accept((layer * rows + row + 1) / totalRows);
+                }
+            }
+        }
+    }
+
+    /**
+     * Lit une tuile sans décoder le reste du fichier (encodage ENCODING_RAW uniquement).
+     */
+    public int getTile(int layer, int col, int row) {
+        if (encoding != ENCODING_RAW) {
+            throw new IllegalStateException("Accès direct impossible sur une carte compressée (RLE)");
+        }
+        return data.getShort((((layer * rows) + row) * cols + col) * 2);
+    }
+
+    @Override
+    public int getCols() {
+        return cols;
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public int getLayerCount() {
+        return layers;
+    }
+
+    /**
+     * Lit une zone de la carte (encodage ENCODING_RAW uniquement) : une copie par ligne et par couche.
+     */
+    @Override
+    public void readChunk(int firstCol, int firstRow, TileMap target) throws IOException {
+        if (encoding != ENCODING_RAW) {
+            throw new IOException("Lecture par zone impossible sur une carte compressée (RLE)");
+        }
+        ShortBuffer shorts = data.asShortBuffer();
+        for (int layer = 0; layer < target.getLayerCount(); layer++) {
+            short[] layerTiles = target.layer(layer);
+            if (layer >= layers) {
+                Arrays.fill(layerTiles, (short) TileMap.EMPTY);
+                continue;
+            }
+            for (int row = 0; row < target.rows; row++) {
+                int index = (layer * rows + firstRow + row) * cols + firstCol;
+                shorts.get(index, layerTiles, row * target.cols, target.cols);
+            }
+        }
+    }
+
+    /**
+     * Écrit une carte binaire. Les tuiles passent par un tampon de taille fixe vidé dans le
+     * fichier au fur et à mesure : la mémoire utilisée ne dépend pas de la taille de la carte.
+     *
+     * @param file fichier de sortie
+     * @param tiles tuiles à écrire (toutes les couches)
+     * @param encoding ENCODING_RAW ou ENCODING_RLE
+     * @throws IOException si la carte dépasse la taille projetable en un bloc (2 Go)
+     */
+    public static void write(Path file, TileMap tiles, byte encoding) throws IOException {
+        write(file, tiles, encoding, 0);
+    }
+
+    /**
+     * Écrit une carte binaire convertie depuis une carte texte.
+     *
+     * @param sourceFingerprint empreinte de la carte texte (voir fingerprint)
+     */
+    public static void write(Path file, TileMap tiles, byte encoding, long sourceFingerprint) throws IOException {
+        int layers = tiles.getLayerCount();
+        if (layers > Byte.MAX_VALUE) {
+            throw new IOException("Trop de couches : " + layers);
+        }
+        long cells = (long) layers * tiles.cols * tiles.rows;
+        if (encoding == ENCODING_RAW && HEADER_SIZE + cells * 2 > Integer.MAX_VALUE) {
+            throw new IOException("Carte trop grande pour le format brut : " + cells + " cases");
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer out = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+            out.putInt(MAGIC).putShort(VERSION).put(encoding).put((byte) layers).putInt(tiles.cols).putInt(tiles.rows)
+                    .putLong(sourceFingerprint);
+
+            int runLength = 0;
+            int runValue = 0;
+            for (int layer = 0; layer < layers; layer++) {
+                // Les couches sont déjà rangées ligne par ligne, comme dans le fichier
+                short[] layerTiles = tiles.layer(layer);
+                if (encoding == ENCODING_RAW) {
+                    for (int i = 0; i < layerTiles.length; ) {
+                        if (out.remaining() < 2) {
+                            flush(channel, out);
+                        }
+                        int n = Math.min(layerTiles.length - i, out.remaining() / 2);
+                        out.asShortBuffer().put(layerTiles, i, n);
+                        out.position(out.position() + n * 2);
+                        i += n;
+                    }
+                    continue;
+                }
+                for (short tile : layerTiles) {
+                    if (runLength > 0 && tile == runValue) {
+                        runLength++;
+                    } else {
+                        if (runLength > 0) {
+                            writeRun(channel, out, runLength, runValue);
+                        }
+                        runLength = 1;
+                        runValue = tile;
+                    }
+                }
+            }
+            if (runLength > 0) {
+                writeRun(channel, out, runLength, runValue);
+            }
+            flush(channel, out);
+
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Carte trop grande pour être projetée en mémoire : " + channel.size() + " octets");
+            }
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer out) throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        out.clear();
+    }
+
+    private static void writeRun(FileChannel channel, ByteBuffer out, int length, int value) throws IOException {
+        // Une suite occupe au plus 10 octets (deux varints de 5 octets)
+        if (out.remaining() < 10) {
+            flush(channel, out);
+        }
+        writeVarint(out, length);
+        writeVarint(out, (value << 1) ^ (value >> 31));
+    }
+
+    private static void writeVarint(ByteBuffer out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    private static int readVarint(ByteBuffer in) throws IOException {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            if (shift > 28) {
+                throw new IOException("Carte corrompue : varint trop long");
+            }
+            b = in.get();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    private static int zigzagDecode(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Empreinte d'une carte texte : sa taille et son CRC32. Lit le flux jusqu'au bout
+     * (beaucoup plus rapide que de l'analyser).
+     */
+    public static long fingerprint(InputStream in) throws IOException {
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[8192];
+        long length = 0;
+        int n;
+        while ((n = in.read(buffer)) > 0) {
+            crc.update(buffer, 0, n);
+            length += n;
+        }
+        return (length << 32) | crc.getValue();
+    }
+
+    /** Indique si un chemin de carte désigne le format binaire */
+    public static boolean isBinary(String location) {
+        return location.endsWith(EXTENSION);
+    }
+}
@@ -0,0 +1,252 @@
+package mainproject.tile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Lecteur des cartes texte (res/maps/*.txt) octet par octet, sans créer de String :
+ * les nombres sont lus directement depuis un tampon d'octets réutilisé.
+ *
+ * Format : une ligne de la carte par ligne de texte, numéros de tuiles séparés par des espaces
+ * (ou tabulations), couches les unes après les autres. Les couches peuvent être séparées par
+ * une ligne vide ; sinon le fichier est découpé en defaultLayers couches de même hauteur.
+ *
+ * La lecture se fait en deux passes sur deux flux du même fichier : scan() déduit les dimensions,
+ * parse() remplit le tableau de destination déjà alloué à la bonne taille.
+ */
+public final class MapTextParser {
+
+    /** Dimensions d'une carte déduites par scan() */
+    public static final class Dimensions {
+        public final int cols, rows, layers;
+
+        Dimensions(int cols, int rows, int layers) {
+            this.cols = cols;
+            this.rows = rows;
+            this.layers = layers;
+        }
+    }
+
+    /**
+     * Erreur de format, avec la position de la valeur fautive dans le fichier.
+     */
+    public static final class MapFormatException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        /** Ligne du fichier (à partir de 1) */
+        public final int line;
+        /** Colonne de la carte, c'est-à-dire rang de la valeur dans la ligne (à partir de 1) */
+        public final int column;
+
+        MapFormatException(String message, int line, int column) {
+            super("ligne " + line + ", colonne " + column + " : " + message);
+            this.line = line;
+            this.column = column;
+        }
+    }
+
+    private static final int EOF = -1;
+
+    /** Tampon de lecture, réutilisé d'un fichier à l'autre */
+    private final byte[] buffer = new byte[64 * 1024];
+    private InputStream in;
+    private int position, limit;
+
+    // Position courante dans le fichier (pour les messages d'erreur)
+    private int line;
+    private int column;
+
+    /** Dernier entier lu par readInt */
+    private int value;
+
+    /**
+     * Première passe : compte les lignes et les valeurs de la première ligne.
+     *
+     * @param in flux du fichier texte
+     * @param defaultLayers nombre de couches si le fichier ne les sépare pas par des lignes vides
+     */
+    public Dimensions scan(InputStream in, int defaultLayers) throws IOException {
+        start(in);
+        int cols = -1;
+        int lines = 0;          // lignes non vides
+        int blocks = 0;         // groupes de lignes séparés par des lignes vides
+        int blockRows = -1;     // hauteur du premier groupe
+        int currentBlockRows = 0;
+
+        int c = read();
+        while (c != EOF) {
+            // Compter les valeurs de la ligne courante
+            int values = 0;
+            boolean inNumber = false;
+            while (c != EOF && c != '\n') {
+                if (isSpace(c)) {
+                    inNumber = false;
+                } else if (!inNumber) {
+                    inNumber = true;
+                    values++;
+                }
+                c = read();
+            }
+            line++;
+
+            if (values == 0) {
+                // Ligne vide : fin d'une couche
+                if (currentBlockRows > 0) {
+                    blocks++;
+                    blockRows = checkBlock(blockRows, currentBlockRows);
+                    currentBlockRows = 0;
+                }
+            } else {
+                if (cols == -1) cols = values;
+                lines++;
+                currentBlockRows++;
+            }
+            if (c == '\n') c = read();
+        }
+        if (currentBlockRows > 0) {
+            blocks++;
+            blockRows = checkBlock(blockRows, currentBlockRows);
+        }
+
+        if (lines == 0) {
+            throw new MapFormatException("carte vide", 1, 1);
+        }
+        if (blocks > 1) {
+            return new Dimensions(cols, blockRows, blocks);
+        }
+        if (lines % defaultLayers != 0) {
+            throw new MapFormatException(lines + " lignes, pas un multiple de " + defaultLayers + " couches", line, 1);
+        }
+        return new Dimensions(cols, lines / defaultLayers, defaultLayers);
+    }
+
+    private int checkBlock(int blockRows, int currentBlockRows) throws MapFormatException {
+        if (blockRows != -1 && blockRows != currentBlockRows) {
+            throw new MapFormatException("couche de " + currentBlockRows + " lignes au lieu de " + blockRows, line, 1);
+        }
+        return currentBlockRows;
+    }
+
+    /**
+     * Deuxième passe : lit les tuiles dans une TileMap, dans l'ordre de ses couches.
+     *
+     * @param in nouveau flux du même fichier
+     * @param dimensions dimensions retournées par scan()
+     * @param target carte de destination (cols x rows, au moins layers couches)
+     * @param progress reçoit l'avancement (0 à 1) après chaque ligne, ou null
+     */
+    public void parse(InputStream in, Dimensions dimensions, TileMap target, DoubleConsumer progress) throws IOException {
+        start(in);
+        int cols = dimensions.cols;
+        int rows = dimensions.rows;
+        double totalRows = (double) dimensions.layers * rows;
+
+        for (int layer = 0; layer < dimensions.layers; layer++) {
+            short[] layerTiles = target.layer(layer);
+            for (int row = 0; row < rows; row++) {
+                int rowStart = row * cols;
+                int c = skipBlankLines();
+                if (c == EOF) {
+                    throw new MapFormatException("fin de fichier inattendue, " + (layer * rows + row) + " lignes lues", line, 1);
+                }
+                line++;
+                column = 0;
+                for (int col = 0; col < cols; col++) {
+                    c = skipSpaces(c);
+                    if (c == '\n' || c == EOF) {
+                        throw new MapFormatException(col + " valeurs au lieu de " + cols, line, col + 1);
+                    }
+                    column = col + 1;
+                    c = readInt(c);
+                    if (value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+                        throw new MapFormatException("numéro de tuile hors limites : " + value, line, column);
+                    }
+                    layerTiles[rowStart + col] = (short) value;
+                }
+                c = skipSpaces(c);
+                if (c != '\n' && c != EOF) {
+                    throw new MapFormatException("valeurs en trop (" + cols + " attendues)", line, cols + 1);
+                }
+                if (progress != null) {
+                    progress.accept((layer * rows + row + 1) / totalRows);
+                }
+            }
+        }
+    }
+
+    /**
+     * Lit un entier (éventuellement négatif) commençant au caractère c.
+     *
+     * @return le caractère qui suit l'entier
+     */
+    private int readInt(int c) throws IOException {
+        boolean negative = c == '-';
+        if (negative) c = read();
+        if (c < '0' || c > '9') {
+            throw new MapFormatException("nombre attendu, caractère '" + (char) c + "' trouvé", line, column);
+        }
+        // Arrêt dès que le nombre sort des limites d'un short : une longue suite de chiffres
+        // ne peut pas déborder de l'int et revenir dans les limites
+        int limit = negative ? -Short.MIN_VALUE : Short.MAX_VALUE;
+        int result = 0;
+        while (c >= '0' && c <= '9') {
+            result = result * 10 + (c - '0');
+            if (result > limit) {
+                throw new MapFormatException("numéro de tuile hors limites", line, column);
+            }
+            c = read();
+        }
+        if (c != EOF && c != '\n' && !isSpace(c)) {
+            throw new MapFormatException("caractère '" + (char) c + "' inattendu dans un nombre", line, column);
+        }
+        value = negative ? -result : result;
+        return c;
+    }
+
+    /**
+     * Passe les lignes vides et retourne le premier caractère de la ligne suivante.
+     */
+    private int skipBlankLines() throws IOException {
+        int c = read();
+        while (true) {
+            c = skipSpaces(c);
+            if (c != '\n') {
+                return c;
+            }
+            line++;
+            c = read();
+        }
+    }
+
+    private int skipSpaces(int c) throws IOException {
+        while (c != EOF && isSpace(c)) {
+            c = read();
+        }
+        return c;
+    }
+
+    private static boolean isSpace(int c) {
+        return c == ' ' || c == '\t' || c == '\r';
+    }
+
+    private void start(InputStream in) {
+        this.in = in;
+        position = 0;
+        limit = 0;
+        line = 0;
+        column = 0;
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            limit = in.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return EOF;
+            }
+        }
+        return buffer[position++] & 0xFF;
+    }
+}
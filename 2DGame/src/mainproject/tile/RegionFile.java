@@ -0,0 +1,509 @@
+package mainproject.tile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Fichier de région (.treg) : un monde découpé en chunks compressés (deflate), précédé d'une
+ * table des positions. Chaque chunk se lit par lectures positionnelles sur le FileChannel
+ * (une pour son entrée de table, une pour ses données), sans toucher au reste du fichier :
+ * c'est la ChunkSource des très grands mondes paginés par ChunkedWorld.
+ *
+ * Structure (gros-boutiste) :
+ * <pre>
+ *   int   magie "TREG"
+ *   short version
+ *   byte  nombre de couches
+ *   byte  (réservé)
+ *   int   colonnes
+ *   int   lignes
+ *   int   taille des chunks (en tuiles)
+ *   int   (réservé)
+ *   long  octets perdus (anciens emplacements de chunks déplacés)
+ *   table : pour chaque chunk (ligne par ligne), long position, int longueur, int capacité
+ *   chunks : couches puis lignes du chunk, un short par tuile, compressés par deflate
+ * </pre>
+ * Un chunk de position 0 est entièrement vide (TileMap.EMPTY) et n'occupe aucune place.
+ * Un chunk modifié est réécrit à sa place s'il tient dans sa capacité, sinon à la fin du
+ * fichier ; compact() récupère ensuite la place perdue.
+ */
+public final class RegionFile implements ChunkSource, AutoCloseable {
+
+    public static final int MAGIC = 0x54524547; // "TREG"
+    public static final short VERSION = 1;
+    public static final int HEADER_SIZE = 32;
+    public static final int ENTRY_SIZE = 16;
+
+    /** Extension des fichiers de région */
+    public static final String EXTENSION = ".treg";
+
+    /** Position du compteur d'octets perdus dans l'en-tête */
+    private static final int WASTED_OFFSET = 24;
+
+    public final int cols, rows, layers, chunkSize;
+
+    /** Dimensions de la grille de chunks */
+    public final int chunkCols, chunkRows;
+
+    private final Path file;
+    private final boolean writable;
+    private FileChannel channel;
+
+    /** Lectures en parallèle ; écriture et compactage exclusifs */
+    private final ReentrantReadWriteLock channelLock = new ReentrantReadWriteLock();
+
+    private RegionFile(Path file, boolean writable) throws IOException {
+        this.file = file;
+        this.writable = writable;
+        channel = openChannel(file, writable);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            readFully(channel, header, 0);
+            header.flip();
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Ce n'est pas un fichier de région (.treg)");
+            }
+            short version = header.getShort();
+            if (version != VERSION) {
+                throw new IOException("Version de région non gérée : " + version);
+            }
+            layers = header.get();
+            header.get();
+            cols = header.getInt();
+            rows = header.getInt();
+            chunkSize = header.getInt();
+            if (layers <= 0 || cols <= 0 || rows <= 0 || chunkSize <= 0) {
+                throw new IOException("Dimensions de région invalides : " + layers + "x" + cols + "x" + rows + " / " + chunkSize);
+            }
+            chunkCols = (cols + chunkSize - 1) / chunkSize;
+            chunkRows = (rows + chunkSize - 1) / chunkSize;
+            if (channel.size() < HEADER_SIZE + (long) chunkCols * chunkRows * ENTRY_SIZE) {
+                throw new IOException("Région tronquée");
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Ouvre un fichier de région sur le disque.
+     *
+     * @param writable si true, les chunks modifiés peuvent être réécrits (writeChunk, compact)
+     */
+    public static RegionFile open(Path file, boolean writable) throws IOException {
+        return new RegionFile(file, writable);
+    }
+
+    /**
+     * Ouvre un fichier de région des ressources, en lecture seule. Une ressource qui n'est pas
+     * un fichier (dans un .jar) est d'abord copiée dans un fichier temporaire.
+     *
+     * @param resource chemin de la ressource (ex : "/maps/monde.treg")
+     */
+    public static RegionFile openResource(String resource) throws IOException {
+        URL url = RegionFile.class.getResource(resource);
+        if (url == null) {
+            throw new IOException("Région introuvable : " + resource);
+        }
+        if ("file".equals(url.getProtocol())) {
+            try {
+                return open(Path.of(url.toURI()), false);
+            } catch (URISyntaxException e) {
+                throw new IOException(e);
+            }
+        }
+        Path copy = Files.createTempFile("region", EXTENSION);
+        copy.toFile().deleteOnExit();
+        try (InputStream is = url.openStream()) {
+            Files.copy(is, copy, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return open(copy, false);
+    }
+
+    /**
+     * Crée un fichier de région à partir d'une source (carte texte importée, carte binaire...),
+     * chunk par chunk : seul un chunk à la fois est en mémoire.
+     *
+     * @param file fichier à créer (remplacé s'il existe)
+     * @param source tuiles à écrire
+     * @param chunkSize taille des chunks (en tuiles)
+     */
+    public static void create(Path file, ChunkSource source, int chunkSize) throws IOException {
+        int cols = source.getCols();
+        int rows = source.getRows();
+        int layers = source.getLayerCount();
+        int chunkCols = (cols + chunkSize - 1) / chunkSize;
+        int chunkRows = (rows + chunkSize - 1) / chunkSize;
+        long tableSize = (long) chunkCols * chunkRows * ENTRY_SIZE;
+
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putShort(VERSION).put((byte) layers).put((byte) 0)
+                    .putInt(cols).putInt(rows).putInt(chunkSize).putInt(0).putLong(0);
+            header.flip();
+            writeFully(out, header, 0);
+
+            Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+            try {
+                long position = HEADER_SIZE + tableSize;
+                ByteBuffer entry = ByteBuffer.allocate(ENTRY_SIZE);
+                for (int index = 0; index < chunkCols * chunkRows; index++) {
+                    int firstCol = (index % chunkCols) * chunkSize;
+                    int firstRow = (index / chunkCols) * chunkSize;
+                    TileMap chunk = new TileMap(layers, Math.min(chunkSize, cols - firstCol), Math.min(chunkSize, rows - firstRow));
+                    source.readChunk(firstCol, firstRow, chunk);
+
+                    entry.clear();
+                    if (isEmpty(chunk)) {
+                        entry.putLong(0).putInt(0).putInt(0);
+                    } else {
+                        ByteBuffer data = compress(deflater, chunk);
+                        int length = data.remaining();
+                        writeFully(out, data, position);
+                        entry.putLong(position).putInt(length).putInt(length);
+                        position += length;
+                    }
+                    entry.flip();
+                    writeFully(out, entry, HEADER_SIZE + (long) index * ENTRY_SIZE);
+                }
+            } finally {
+                deflater.end();
+            }
+        }
+    }
+
+    @Override
+    public int getCols() {
+        return cols;
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public int getLayerCount() {
+        return layers;
+    }
+
+    @Override
+    public boolean isWritable() {
+        return writable;
+    }
+
+    /**
+     * Lit et décompresse un chunk. La zone demandée doit être un chunk entier du fichier.
+     */
+    @Override
+    public void readChunk(int firstCol, int firstRow, TileMap target) throws IOException {
+        int index = chunkIndex(firstCol, firstRow, target);
+        ByteBuffer data;
+        channelLock.readLock().lock();
+        try {
+            ByteBuffer entry = readEntry(index);
+            long position = entry.getLong();
+            int length = entry.getInt();
+            if (position == 0) {
+                for (int layer = 0; layer < target.getLayerCount(); layer++) {
+                    target.fillLayer(layer, TileMap.EMPTY);
+                }
+                return;
+            }
+            data = ByteBuffer.allocate(length);
+            readFully(channel, data, position);
+        } finally {
+            channelLock.readLock().unlock();
+        }
+        decompress(data.array(), target);
+    }
+
+    /**
+     * Réécrit un chunk modifié : à sa place s'il tient dans sa capacité, sinon à la fin
+     * du fichier (l'ancien emplacement est compté comme perdu jusqu'au prochain compact()).
+     */
+    @Override
+    public void writeChunk(int firstCol, int firstRow, TileMap chunk) throws IOException {
+        if (!writable) {
+            throw new IOException("Région ouverte en lecture seule : " + file);
+        }
+        int index = chunkIndex(firstCol, firstRow, chunk);
+        ByteBuffer data = null;
+        if (!isEmpty(chunk)) {
+            Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+            try {
+                data = compress(deflater, chunk);
+            } finally {
+                deflater.end();
+            }
+        }
+
+        channelLock.writeLock().lock();
+        try {
+            ByteBuffer entry = readEntry(index);
+            long position = entry.getLong();
+            entry.getInt();
+            int capacity = entry.getInt();
+            long wasted = 0;
+
+            int length = data == null ? 0 : data.remaining();
+            if (data == null) {
+                wasted = capacity;
+                position = 0;
+                capacity = 0;
+            } else if (position == 0 || length > capacity) {
+                wasted = capacity;
+                position = channel.size();
+                capacity = length;
+            }
+            if (data != null) {
+                writeFully(channel, data, position);
+            }
+
+            entry.clear();
+            entry.putLong(position).putInt(length).putInt(capacity).flip();
+            writeFully(channel, entry, HEADER_SIZE + (long) index * ENTRY_SIZE);
+            if (wasted > 0) {
+                ByteBuffer counter = ByteBuffer.allocate(Long.BYTES);
+                counter.putLong(readWastedBytes() + wasted).flip();
+                writeFully(channel, counter, WASTED_OFFSET);
+            }
+        } finally {
+            channelLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Octets inutilisés dans le fichier (chunks déplacés ou vidés depuis le dernier compactage).
+     */
+    public long getWastedBytes() throws IOException {
+        channelLock.readLock().lock();
+        try {
+            return readWastedBytes();
+        } finally {
+            channelLock.readLock().unlock();
+        }
+    }
+
+    private long readWastedBytes() throws IOException {
+        ByteBuffer counter = ByteBuffer.allocate(Long.BYTES);
+        readFully(channel, counter, WASTED_OFFSET);
+        return counter.flip().getLong();
+    }
+
+    /**
+     * Réécrit le fichier sans place perdue : les chunks sont recopiés à la suite (sans être
+     * décompressés) dans un fichier temporaire qui remplace ensuite l'original.
+     * Les lectures en cours sont attendues et les suivantes attendent la fin du compactage.
+     * En cas d'échec, le fichier d'origine reste en place et utilisable.
+     */
+    public void compact() throws IOException {
+        if (!writable) {
+            throw new IOException("Région ouverte en lecture seule : " + file);
+        }
+        channelLock.writeLock().lock();
+        try {
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            int chunkCount = chunkCols * chunkRows;
+            try {
+                copyCompacted(temp, chunkCount);
+            } catch (IOException e) {
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+            channel.close();
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                Files.deleteIfExists(temp);
+                throw e;
+            } finally {
+                // Rouvre le fichier compacté, ou l'original si le remplacement a échoué
+                channel = openChannel(file, true);
+            }
+        } finally {
+            channelLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Recopie l'en-tête, la table et les chunks à la suite dans un fichier temporaire.
+     */
+    private void copyCompacted(Path temp, int chunkCount) throws IOException {
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            readFully(channel, header, 0);
+            header.putLong(WASTED_OFFSET, 0).flip();
+            writeFully(out, header, 0);
+
+            long position = HEADER_SIZE + (long) chunkCount * ENTRY_SIZE;
+            for (int index = 0; index < chunkCount; index++) {
+                ByteBuffer entry = readEntry(index);
+                long oldPosition = entry.getLong();
+                int length = entry.getInt();
+                long newPosition = 0;
+                if (oldPosition != 0) {
+                    for (long copied = 0; copied < length; ) {
+                        copied += channel.transferTo(oldPosition + copied, length - copied, out.position(position + copied));
+                    }
+                    newPosition = position;
+                    position += length;
+                }
+                entry.clear();
+                entry.putLong(newPosition).putInt(length).putInt(length).flip();
+                writeFully(out, entry, HEADER_SIZE + (long) index * ENTRY_SIZE);
+            }
+        }
+    }
+
+    /** Taille du fichier (en octets) */
+    public long size() throws IOException {
+        channelLock.readLock().lock();
+        try {
+            return channel.size();
+        } finally {
+            channelLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channelLock.writeLock().lock();
+        try {
+            channel.close();
+        } finally {
+            channelLock.writeLock().unlock();
+        }
+    }
+
+    /** Indique si un chemin de carte désigne un fichier de région */
+    public static boolean isRegion(String location) {
+        return location.endsWith(EXTENSION);
+    }
+
+    /**
+     * Index du chunk qui commence en (firstCol, firstRow), après vérification que la zone
+     * correspond exactement à un chunk du fichier.
+     */
+    private int chunkIndex(int firstCol, int firstRow, TileMap chunk) throws IOException {
+        if (firstCol % chunkSize != 0 || firstRow % chunkSize != 0 || firstCol >= cols || firstRow >= rows
+                || chunk.cols != Math.min(chunkSize, cols - firstCol) || chunk.rows != Math.min(chunkSize, rows - firstRow)) {
+            throw new IOException("Zone (" + firstCol + ", " + firstRow + ", " + chunk.cols + "x" + chunk.rows
+                    + ") ne correspond pas à un chunk de " + chunkSize + " tuiles");
+        }
+        return (firstRow / chunkSize) * chunkCols + firstCol / chunkSize;
+    }
+
+    private ByteBuffer readEntry(int index) throws IOException {
+        ByteBuffer entry = ByteBuffer.allocate(ENTRY_SIZE);
+        readFully(channel, entry, HEADER_SIZE + (long) index * ENTRY_SIZE);
+        return entry.flip();
+    }
+
+    private static boolean isEmpty(TileMap chunk) {
+        for (int layer = 0; layer < chunk.getLayerCount(); layer++) {
+            for (short tile : chunk.layer(layer)) {
+                if (tile != TileMap.EMPTY) return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compresse les tuiles d'un chunk (couches puis lignes, un short par tuile).
+     */
+    private static ByteBuffer compress(Deflater deflater, TileMap chunk) {
+        ByteBuffer raw = ByteBuffer.allocate(chunk.getLayerCount() * chunk.cols * chunk.rows * Short.BYTES);
+        for (int layer = 0; layer < chunk.getLayerCount(); layer++) {
+            raw.asShortBuffer().put(chunk.layer(layer));
+            raw.position(raw.position() + chunk.cols * chunk.rows * Short.BYTES);
+        }
+        deflater.reset();
+        deflater.setInput(raw.array());
+        deflater.finish();
+        byte[] out = new byte[raw.capacity() + 64];
+        int length = 0;
+        while (!deflater.finished()) {
+            if (length == out.length) {
+                out = Arrays.copyOf(out, out.length * 2);
+            }
+            length += deflater.deflate(out, length, out.length - length);
+        }
+        return ByteBuffer.wrap(out, 0, length);
+    }
+
+    /**
+     * Décompresse un chunk ; les couches absentes du fichier sont vidées.
+     */
+    private void decompress(byte[] data, TileMap target) throws IOException {
+        int cells = target.cols * target.rows;
+        byte[] raw = new byte[layers * cells * Short.BYTES];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            int length = 0;
+            while (length < raw.length && !inflater.finished()) {
+                int read = inflater.inflate(raw, length, raw.length - length);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += read;
+            }
+            if (length != raw.length) {
+                throw new IOException("Chunk corrompu : " + length + " octets au lieu de " + raw.length);
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Chunk corrompu", e);
+        } finally {
+            inflater.end();
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(raw);
+        for (int layer = 0; layer < target.getLayerCount(); layer++) {
+            if (layer < layers) {
+                buffer.asShortBuffer().get(target.layer(layer));
+                buffer.position(buffer.position() + cells * Short.BYTES);
+            } else {
+                target.fillLayer(layer, TileMap.EMPTY);
+            }
+        }
+    }
+
+    private static FileChannel openChannel(Path file, boolean writable) throws IOException {
+        return writable
+                ? FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(file, StandardOpenOption.READ);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Fin de fichier inattendue à la position " + position);
+            }
+            position += read;
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package mainproject.tile;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache d'images pré-rendues ("chunks") pour les couches de tuiles statiques.
+ * Un chunk regroupe CHUNK_SIZE x CHUNK_SIZE tuiles d'une couche dans une seule image
+ * compatible avec l'écran : il est cuit à sa première apparition à l'écran, puis dessiné
+ * avec un seul drawImage par frame.
+ * Les chunks les moins récemment utilisés sont libérés quand le budget mémoire est dépassé,
+ * sauf ceux de la zone visible (toutes couches) : si elle ne tient pas dans le budget, le
+ * cache le dépasse plutôt que de recuire à chaque frame les chunks qu'il vient de dessiner.
+ */
+public class TileChunkCache {
+
+    /** Nombre de tuiles de côté dans un chunk */
+    public static final int CHUNK_SIZE = 16;
+
+    /** Budget mémoire par défaut (64 Mo) */
+    public static final long DEFAULT_MEMORY_BUDGET = 64L * 1024 * 1024;
+
+    private final TileManager tileManager;
+
+    /** Chunks cuits, triés du moins récemment utilisé au plus récent (LRU) */
+    private final LinkedHashMap<Long, BufferedImage> chunks = new LinkedHashMap<>(64, 0.75f, true);
+
+    /** Budget mémoire maximal des images en cache (en octets) */
+    private long memoryBudget;
+
+    /** Mémoire actuellement occupée par les images en cache (en octets) */
+    private long memoryUsage = 0;
+
+    /** Taille des tuiles (en pixels) des chunks actuellement en cache */
+    private int bakedTileSize = 0;
+
+    /** Chunks de la zone visible lors du dernier dessin (jamais libérés par evictOverBudget) */
+    private int visibleStartCol = 0, visibleStartRow = 0, visibleEndCol = -1, visibleEndRow = -1;
+
+    /** Configuration graphique utilisée pour créer des images compatibles (null en mode headless) */
+    private final GraphicsConfiguration graphicsConfig;
+
+    /**
+     * @param tileManager gestionnaire de tuiles dont les couches sont mises en cache
+     * @param memoryBudget budget mémoire maximal du cache (en octets)
+     */
+    public TileChunkCache(TileManager tileManager, long memoryBudget) {
+        this.tileManager = tileManager;
+        this.memoryBudget = memoryBudget;
+        this.graphicsConfig = GraphicsEnvironment.isHeadless() ? null
+                : GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+    }
+
+    /**
+     * Dessine les chunks visibles d'une couche, en cuisant ceux qui ne sont pas encore en cache.
+     *
+     * @param g2 contexte graphique
+     * @param layer couche à dessiner
+     * @param cameraX position X du coin supérieur gauche de la caméra (repère de destination)
+     * @param cameraY position Y du coin supérieur gauche de la caméra (repère de destination)
+     * @param tileSize taille d'une tuile dans le repère de destination
+     * @param viewWidth largeur de la zone visible (en pixels)
+     * @param viewHeight hauteur de la zone visible (en pixels)
+     */
+    public void draw(Graphics2D g2, int layer, int cameraX, int cameraY, int tileSize, int viewWidth, int viewHeight) {
+        // Les chunks sont cuits à une taille de tuile donnée : tout recuire si elle change
+        if (tileSize != bakedTileSize) {
+            invalidateAll();
+            bakedTileSize = tileSize;
+        }
+
+        int chunkPixels = CHUNK_SIZE * tileSize;
+        int chunkCols = (tileManager.maxWorldCol + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        int chunkRows = (tileManager.maxWorldRow + CHUNK_SIZE - 1) / CHUNK_SIZE;
+
+        int startChunkCol = Math.max(0, Math.floorDiv(cameraX, chunkPixels));
+        int startChunkRow = Math.max(0, Math.floorDiv(cameraY, chunkPixels));
+        int endChunkCol = Math.min(chunkCols - 1, Math.floorDiv(cameraX + viewWidth - 1, chunkPixels));
+        int endChunkRow = Math.min(chunkRows - 1, Math.floorDiv(cameraY + viewHeight - 1, chunkPixels));
+        visibleStartCol = startChunkCol;
+        visibleStartRow = startChunkRow;
+        visibleEndCol = endChunkCol;
+        visibleEndRow = endChunkRow;
+
+        for (int chunkRow = startChunkRow; chunkRow <= endChunkRow; chunkRow++) {
+            for (int chunkCol = startChunkCol; chunkCol <= endChunkCol; chunkCol++) {
+                BufferedImage chunk = getChunk(layer, chunkCol, chunkRow);
+                g2.drawImage(chunk, chunkCol * chunkPixels - cameraX, chunkRow * chunkPixels - cameraY, null);
+            }
+        }
+        evictOverBudget();
+    }
+
+    /**
+     * Retourne l'image d'un chunk, en la cuisant si elle n'est pas en cache.
+     */
+    private BufferedImage getChunk(int layer, int chunkCol, int chunkRow) {
+        long key = key(layer, chunkCol, chunkRow);
+        BufferedImage chunk = chunks.get(key);
+        if (chunk == null) {
+            chunk = bakeChunk(layer, chunkCol, chunkRow);
+            chunks.put(key, chunk);
+            memoryUsage += imageBytes(chunk);
+        }
+        return chunk;
+    }
+
+    /**
+     * Dessine toutes les tuiles d'un chunk dans une image hors écran.
+     */
+    private BufferedImage bakeChunk(int layer, int chunkCol, int chunkRow) {
+        int tileSize = bakedTileSize;
+        int firstCol = chunkCol * CHUNK_SIZE;
+        int firstRow = chunkRow * CHUNK_SIZE;
+        int cols = Math.min(CHUNK_SIZE, tileManager.maxWorldCol - firstCol);
+        int rows = Math.min(CHUNK_SIZE, tileManager.maxWorldRow - firstRow);
+
+        BufferedImage chunk = createImage(cols * tileSize, rows * tileSize);
+        Graphics2D g2 = chunk.createGraphics();
+        TileGrid world = tileManager.world;
+
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                int tileNum = world.getTile(layer, firstCol + col, firstRow + row);
+                if (tileNum >= 0) {
+                    g2.drawImage(tileManager.tileTypes[tileNum].image, col * tileSize, row * tileSize, tileSize, tileSize, null);
+                }
+            }
+        }
+        g2.dispose();
+        return chunk;
+    }
+
+    /**
+     * Crée une image transparente compatible avec l'écran (accélérable par Java2D).
+     */
+    private BufferedImage createImage(int width, int height) {
+        if (graphicsConfig != null) {
+            return graphicsConfig.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+        }
+        return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    /**
+     * Libère les chunks les moins récemment utilisés jusqu'à repasser sous le budget mémoire.
+     * Les chunks de la zone visible sont gardés, quelle que soit leur couche : les couches
+     * statiques d'une frame partagent la même caméra, dessiner la couche 1 ne libère donc
+     * pas les chunks de la couche 0 dessinés juste avant.
+     */
+    private void evictOverBudget() {
+        Iterator<Map.Entry<Long, BufferedImage>> it = chunks.entrySet().iterator();
+        while (memoryUsage > memoryBudget && it.hasNext()) {
+            Map.Entry<Long, BufferedImage> entry = it.next();
+            if (isVisible(entry.getKey())) {
+                continue;
+            }
+            BufferedImage chunk = entry.getValue();
+            memoryUsage -= imageBytes(chunk);
+            chunk.flush();
+            it.remove();
+        }
+    }
+
+    private boolean isVisible(long key) {
+        int chunkCol = (int) (key >>> 28) & KEY_MASK;
+        int chunkRow = (int) key & KEY_MASK;
+        return chunkCol >= visibleStartCol && chunkCol <= visibleEndCol
+                && chunkRow >= visibleStartRow && chunkRow <= visibleEndRow;
+    }
+
+    /**
+     * Invalide le chunk contenant une tuile (à appeler si une tuile change en jeu).
+     */
+    public void invalidateTile(int layer, int col, int row) {
+        BufferedImage chunk = chunks.remove(key(layer, col / CHUNK_SIZE, row / CHUNK_SIZE));
+        if (chunk != null) {
+            memoryUsage -= imageBytes(chunk);
+            chunk.flush();
+        }
+    }
+
+    /**
+     * Invalide les chunks des couches statiques qui recouvrent une zone de tuiles
+     * (zone d'un monde paginé qui vient d'être chargée).
+     */
+    public void invalidateArea(int firstCol, int firstRow, int cols, int rows) {
+        for (int layer = 0; layer < TileManager.STATIC_LAYERS; layer++) {
+            for (int row = firstRow; row < firstRow + rows; row += CHUNK_SIZE) {
+                for (int col = firstCol; col < firstCol + cols; col += CHUNK_SIZE) {
+                    invalidateTile(layer, col, row);
+                }
+            }
+        }
+    }
+
+    /**
+     * Vide entièrement le cache (nouvelle carte, changement de taille des tuiles...).
+     */
+    public void invalidateAll() {
+        for (BufferedImage chunk : chunks.values()) {
+            chunk.flush();
+        }
+        chunks.clear();
+        memoryUsage = 0;
+    }
+
+    public void setMemoryBudget(long memoryBudget) {
+        this.memoryBudget = memoryBudget;
+        evictOverBudget();
+    }
+
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    public long getMemoryUsage() {
+        return memoryUsage;
+    }
+
+    public int getChunkCount() {
+        return chunks.size();
+    }
+
+    /** Masque d'une coordonnée de chunk dans une clé (28 bits) */
+    private static final int KEY_MASK = (1 << 28) - 1;
+
+    private static long key(int layer, int chunkCol, int chunkRow) {
+        return ((long) layer << 56) | ((long) chunkCol << 28) | chunkRow;
+    }
+
+    private static long imageBytes(BufferedImage image) {
+        return (long) image.getWidth() * image.getHeight() * 4;
+    }
+}
@@ -0,0 +1,38 @@
+package mainproject.tile;
+
+/**
+ * Accès en lecture aux tuiles du monde, quel que soit leur stockage :
+ * carte entièrement en mémoire (TileMap) ou monde découpé en chunks chargés à la demande
+ * (ChunkedWorld). TileManager et CollisionChecker ne passent que par cette interface.
+ */
+public interface TileGrid {
+
+    /**
+     * Tuile d'une zone pas encore chargée : jamais dessinée (négative comme EMPTY),
+     * mais bloquante pour les collisions.
+     */
+    int UNLOADED = Integer.MIN_VALUE;
+
+    /** Nombre de colonnes du monde (en tuiles) */
+    int getCols();
+
+    /** Nombre de lignes du monde (en tuiles) */
+    int getRows();
+
+    int getLayerCount();
+
+    /**
+     * Numéro de la tuile (col, row) d'une couche : TileMap.EMPTY si la case est vide,
+     * UNLOADED si sa zone n'est pas en mémoire.
+     */
+    int getTile(int layer, int col, int row);
+
+    /**
+     * Modifie une tuile (éditeur, événements du jeu).
+     */
+    void setTile(int layer, int col, int row, int tile);
+
+    default boolean isInBounds(int col, int row) {
+        return col >= 0 && col < getCols() && row >= 0 && row < getRows();
+    }
+}
@@ -2,13 +2,11 @@ package mainproject.tile;
 
 import mainproject.GamePanel;
 
-import javax.imageio.ImageIO;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Gère toutes les tuiles du jeu :
@@ -24,26 +22,189 @@ public class TileManager {
     public Tile[] tileTypes;
 
     /**
-     * Carte du monde (3D) (il y a trois couches de tuiles) :
-     * [layer][colonne][ligne]
+     * Carte du monde (il y a trois couches de tuiles), une couche par tableau de short
+     * rangé ligne par ligne (voir TileMap).
      * Permet d’avoir plusieurs couches superposées (sol, décor, objets hauts...).
      */
-    public int[][][] mapTileNum;
+    public TileMap tileMap;
 
     /**
-     * Constructeur : initialise les tuiles et charge la carte.
+     * Tuiles lues par le dessin et les collisions : tileMap pour une carte chargée en entier,
+     * ChunkedWorld pour une grande carte paginée autour du joueur.
+     */
+    public volatile TileGrid world;
+
+    /** Couches dont les tuiles peuvent bloquer le passage (0 = sol, 2 = arbres ou murs hauts) */
+    public static final int[] COLLISION_LAYERS = {0, 2};
+
+    /**
+     * Carte des collisions de tileMap (un bit par case), cuite par bakeCollisionMap().
+     * Les mondes paginés ont une carte des collisions par chunk.
+     */
+    public volatile CollisionMap collisionMap;
+
+    /** Types de tuiles bloquants (tileTypes[n].collision), connus une fois les tuiles chargées */
+    private volatile boolean[] blockingTypes;
+
+    /** Cases modifiées par setTile dont les chunks d'images sont à recuire (col << 32 | row) */
+    private final ConcurrentLinkedQueue<Long> changedTiles = new ConcurrentLinkedQueue<>();
+
+    /** Dimensions de la carte chargée (en tuiles) */
+    public int maxWorldCol, maxWorldRow;
+
+    /** Nombre de couches statiques (sol et décor) dessinées depuis le cache de chunks */
+    public static final int STATIC_LAYERS = 2;
+
+    /** Cache des chunks pré-rendus pour les couches statiques */
+    public TileChunkCache chunkCache;
+
+    /** Avancement du chargement de la carte (0 à 1), lu par l'écran titre pendant le chargement */
+    public volatile float mapLoadProgress = 0;
+
+    /** Si true, les couches statiques sont dessinées depuis le cache de chunks */
+    public boolean useChunkCache = true;
+
+    /** Au-delà de ce nombre de cases, une carte binaire brute est paginée au lieu d'être chargée en entier */
+    public static final long PAGING_THRESHOLD = 1024L * 1024;
+
+    /** Rayon de résidence des mondes paginés (en chunks autour du joueur) */
+    public int residencyRadius = ChunkedWorld.DEFAULT_RADIUS;
+
+    /**
+     * Carte chargée au démarrage du jeu. La carte texte fait foi ; test6.tmap (MapConverter)
+     * n'est lue à sa place que si elle a été convertie depuis le texte actuel.
+     */
+    public static final String DEFAULT_MAP = "/maps/test6.txt";
+
+    /**
+     * Constructeur : prépare les tableaux de tuiles et de carte.
+     * Les images (getTileImage) et la carte (loadMap) sont chargées ensuite par GamePanel,
+     * en parallèle avec les autres ressources.
      * @param gp Panneau de jeu principal
      */
     public TileManager(GamePanel gp) {
 
             this.gp = gp;
             tileTypes = new Tile[20];
-        mapTileNum = new int[3][gp.maxWorldCol][gp.maxWorldRow]; // 3 couches (sol, décor, objets en hauteur)
+            chunkCache = new TileChunkCache(this, TileChunkCache.DEFAULT_MEMORY_BUDGET);
+            setMapSize(gp.maxWorldCol, gp.maxWorldRow); // 3 couches (sol, décor, objets en hauteur)
+        }
 
-            getTileImage(); // charge les images de chaque tuile
+    /**
+     * Redimensionne la carte et réalloue les trois couches de tuiles.
+     *
+     * @param cols nombre de colonnes du monde
+     * @param rows nombre de lignes du monde
+     */
+    public void setMapSize(int cols, int rows) {
+        tileMap = new TileMap(3, cols, rows);
+        collisionMap = new CollisionMap(cols, rows);
+        setWorld(tileMap);
+    }
 
-            loadMap("/maps/test6.txt"); // charge la carte
+    /**
+     * Remplace les tuiles lues par le dessin et les collisions.
+     * Le monde paginé précédent, s'il y en a un, est fermé.
+     */
+    public void setWorld(TileGrid newWorld) {
+        TileGrid previous = world;
+        world = newWorld;
+        maxWorldCol = newWorld.getCols();
+        maxWorldRow = newWorld.getRows();
+        chunkCache.invalidateAll();
+        if (previous instanceof ChunkedWorld chunked && previous != newWorld) {
+            chunked.close();
         }
+    }
+
+    /**
+     * Ouvre un monde paginé : seuls les chunks autour du joueur sont en mémoire,
+     * chargés par un thread dédié au fil de ses déplacements (voir update()).
+     * Les chunks autour de la position de départ sont chargés avant de rendre la main.
+     *
+     * @param source source des tuiles (carte binaire brute, région...)
+     * @param chunkSize taille des chunks (celle du fichier pour une région)
+     */
+    public void openChunkedWorld(ChunkSource source, int chunkSize) throws IOException {
+        if (source.getLayerCount() > tileMap.getLayerCount()) {
+            throw new IOException(source.getLayerCount() + " couches, " + tileMap.getLayerCount() + " au maximum");
+        }
+        ChunkedWorld chunked = new ChunkedWorld(source, tileMap.getLayerCount(), chunkSize, residencyRadius);
+        if (gp.player != null) {
+            chunked.loadAround(gp.player.worldx / gp.tileSize, gp.player.worldy / gp.tileSize);
+        } else {
+            chunked.loadAround(chunked.cols / 2, chunked.rows / 2);
+        }
+        boolean[] blocking = blockingTypes;
+        if (blocking != null) {
+            chunked.setCollisionRule(blocking, COLLISION_LAYERS);
+        }
+        setWorld(chunked);
+    }
+
+    /**
+     * Cuit la carte des collisions de la carte chargée à partir des tuiles bloquantes.
+     * Appelée quand les images des tuiles et la carte sont toutes deux chargées.
+     */
+    public void bakeCollisionMap() {
+        boolean[] blocking = new boolean[tileTypes.length];
+        for (int i = 0; i < tileTypes.length; i++) {
+            blocking[i] = tileTypes[i] != null && tileTypes[i].collision;
+        }
+        blockingTypes = blocking;
+        if (world instanceof ChunkedWorld chunked) {
+            chunked.setCollisionRule(blocking, COLLISION_LAYERS);
+        } else {
+            collisionMap = CollisionMap.bake(tileMap, blocking, COLLISION_LAYERS);
+        }
+    }
+
+    /**
+     * Cuit les collisions d'une carte qui vient d'être chargée, si les tuiles sont déjà connues
+     * (au démarrage, c'est GamePanel qui les cuit une fois les deux chargements terminés).
+     */
+    private void bakeCollisionMapIfReady() {
+        if (blockingTypes != null) {
+            bakeCollisionMap();
+        }
+    }
+
+    /**
+     * Indique si une case bloque le passage (un bit de la carte des collisions).
+     * Dans un monde paginé, une case d'une zone pas encore chargée est bloquante.
+     */
+    public boolean isBlocked(int col, int row) {
+        if (world instanceof ChunkedWorld chunked) {
+            return chunked.isBlocked(col, row);
+        }
+        return collisionMap.isBlocked(col, row);
+    }
+
+    /**
+     * Modifie une tuile en jeu (thread de simulation) : la carte des collisions est mise à jour
+     * aussitôt, l'image de son chunk est recuite à la frame suivante.
+     */
+    public void setTile(int layer, int col, int row, int tile) {
+        TileGrid world = this.world;
+        world.setTile(layer, col, row, tile);
+        boolean[] blocking = blockingTypes;
+        if (world == tileMap && blocking != null) {
+            collisionMap.update(tileMap, col, row, blocking, COLLISION_LAYERS);
+        }
+        // Les mondes paginés signalent eux-mêmes leurs chunks modifiés
+        if (!(world instanceof ChunkedWorld)) {
+            changedTiles.add(((long) col << 32) | row);
+        }
+    }
+
+    /**
+     * Suit le joueur à chaque tick : recentre la zone résidente d'un monde paginé.
+     */
+    public void update() {
+        if (world instanceof ChunkedWorld chunked && gp.player != null) {
+            chunked.setCenter(gp.player.worldx / gp.tileSize, gp.player.worldy / gp.tileSize);
+        }
+    }
 
     /**
      * Charge les images des différentes tuiles dans le tableau tileTypes[].
@@ -52,50 +213,35 @@ public class TileManager {
     public void getTileImage() {
         try {
 
-            tileTypes[0] = new Tile();
-            tileTypes[0].image = ImageIO.read(getClass().getResourceAsStream("/tiles/grass.png"));
+            loadTile(0, "/tiles/grass.png", false);
             System.out.println("L'herbe a été importé avec succès ! ");
 
-            tileTypes[1] = new Tile();
-            tileTypes[1].image = ImageIO.read(getClass().getResourceAsStream("/tiles/mur-pierre-2.png"));
-            tileTypes[1].collision = true;
+            loadTile(1, "/tiles/mur-pierre-2.png", true);
             System.out.println("L'herbe a été importé avec succès ! ");
 
-            tileTypes[2] = new Tile();
-            tileTypes[2].image = ImageIO.read(getClass().getResourceAsStream("/tiles/mere-1.png"));
-            tileTypes[2].collision = true;
+            loadTile(2, "/tiles/mere-1.png", true);
             System.out.println("Mer importé avec succès ! ");
 
-            tileTypes[3] = new Tile();
-            tileTypes[3].image = ImageIO.read(getClass().getResourceAsStream("/tiles/earth.png"));
+            loadTile(3, "/tiles/earth.png", false);
             System.out.println("Mer importé avec succès !");
 
-            tileTypes[4] = new Tile();
-            tileTypes[4].image = ImageIO.read(getClass().getResourceAsStream("/tiles/plante-type-1.png"));
-            tileTypes[4].collision = false;
+            loadTile(4, "/tiles/plante-type-1.png", false);
             System.out.println("Espace jaune importé avec succès ! ");
 
-            tileTypes[5] = new Tile();
-            tileTypes[5].image = ImageIO.read(getClass().getResourceAsStream("/tiles/sand.png"));
+            loadTile(5, "/tiles/sand.png", false);
             System.out.println("Buisson importé avec succès ! ");
 
-            tileTypes[6] = new Tile();
-            tileTypes[6].image = ImageIO.read(getClass().getResourceAsStream("/tiles/terre.png"));
+            loadTile(6, "/tiles/terre.png", false);
 
-            tileTypes[7] = new Tile();
-            tileTypes[7].image = ImageIO.read(getClass().getResourceAsStream("/tiles/plante-type-1.png"));
+            loadTile(7, "/tiles/plante-type-1.png", false);
 
-            tileTypes[8] = new Tile();
-            tileTypes[8].image = ImageIO.read(getClass().getResourceAsStream("/tiles/plante-type-2.png"));
+            loadTile(8, "/tiles/plante-type-2.png", false);
 
-            tileTypes[9] = new Tile();
-            tileTypes[9].image = ImageIO.read(getClass().getResourceAsStream("/tiles/plante-type-3.png"));
+            loadTile(9, "/tiles/plante-type-3.png", false);
 
-            tileTypes[10] = new Tile();
-            tileTypes[10].image = ImageIO.read(getClass().getResourceAsStream("/tiles/tree.png"));
+            loadTile(10, "/tiles/tree.png", false);
 
-            tileTypes[11] = new Tile();
-            tileTypes[11].image = ImageIO.read(getClass().getResourceAsStream("/tiles/mur-pierre-2.png"));
+            loadTile(11, "/tiles/mur-pierre-2.png", false);
 
             System.out.println("Image Tiles chargé avec succès ");
             System.out.println("***************** Chargement réussi *****************");
@@ -107,68 +253,242 @@ public class TileManager {
         }
     }
 
+    /**
+     * Charge une tuile et ne la range dans tileTypes[] qu'une fois complète : un autre thread
+     * (cuisson des collisions, rendu) ne voit jamais une tuile sans image ni collision.
+     */
+    private void loadTile(int index, String path, boolean collision) throws IOException {
+        Tile tile = new Tile();
+        tile.image = gp.imageCache.getSprite(path);
+        tile.collision = collision;
+        tileTypes[index] = tile;
+    }
+
     /**
      * Lit un fichier texte représentant la carte (plusieurs couches).
      * Chaque ligne du fichier contient des numéros de tuiles séparés par des espaces.
+     * Les dimensions (colonnes, lignes, couches) sont déduites du fichier, lu octet par octet
+     * sans créer de chaînes (voir MapTextParser). Une ligne mal formée est signalée avec sa position.
+     * Les cartes binaires (.tmap, voir MapFile) sont lues par projection mémoire,
+     * les fichiers de région (.treg, voir RegionFile) paginés chunk par chunk.
+     * Une carte texte accompagnée d'une carte binaire à jour est lue depuis celle-ci.
      *
      * @param mapFileLocation chemin vers le fichier de la carte (dans /resources)
      */
     public void loadMap(String mapFileLocation){
+        if (MapFile.isBinary(mapFileLocation)) {
+            loadBinaryMap(mapFileLocation);
+            return;
+        }
+        if (RegionFile.isRegion(mapFileLocation)) {
+            loadRegion(mapFileLocation);
+            return;
+        }
 
-        try{
-            InputStream is = getClass().getResourceAsStream(mapFileLocation);
-            BufferedReader br = new BufferedReader(new InputStreamReader(is));
-
-            for (int layer = 0; layer < 3; layer++) {
-                for (int row = 0; row < gp.maxWorldRow; row++) {
-                    String line = br.readLine();
-                    String[] numbers = line.split(" ");
-                    for (int col = 0; col < gp.maxWorldCol; col++) {
-                        mapTileNum[layer][col][row] = Integer.parseInt(numbers[col]);
-                    }
-                }
+        mapLoadProgress = 0;
+        if (loadCachedMap(mapFileLocation)) {
+            return;
+        }
+        try {
+            MapTextParser parser = new MapTextParser();
+            MapTextParser.Dimensions dimensions;
+            try (InputStream is = openMap(mapFileLocation)) {
+                dimensions = parser.scan(is, tileMap.getLayerCount());
+            }
+            prepareLayers(mapFileLocation, dimensions.layers, dimensions.cols, dimensions.rows);
+            try (InputStream is = openMap(mapFileLocation)) {
+                parser.parse(is, dimensions, tileMap, progress -> mapLoadProgress = (float) progress);
             }
-            br.close();
+            chunkCache.invalidateAll();
+            bakeCollisionMapIfReady();
+            mapLoadProgress = 1;
 
-        }catch(Exception e){
+        } catch (IOException e) {
+            System.err.println("Carte " + mapFileLocation + " invalide : " + e.getMessage());
             e.printStackTrace();
         }
     }
 
     /**
-     * Dessine toutes les tuiles visibles à l'écran pour une couche donnée.
-     * Utilise les coordonnées du joueur pour centrer la caméra.
+     * Charge une carte binaire (.tmap) directement dans les couches de tuiles,
+     * sans créer de chaînes : les dimensions sont lues dans l'en-tête du fichier.
+     *
+     * @param mapFileLocation chemin vers la carte binaire (dans /resources)
+     */
+    public void loadBinaryMap(String mapFileLocation) {
+        mapLoadProgress = 0;
+        try {
+            readBinaryMap(mapFileLocation, MapFile.openResource(mapFileLocation));
+        } catch (IOException e) {
+            System.err.println("Carte " + mapFileLocation + " invalide : " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    private void readBinaryMap(String mapFileLocation, MapFile map) throws IOException {
+        if (map.encoding == MapFile.ENCODING_RAW && (long) map.cols * map.rows > PAGING_THRESHOLD) {
+            openChunkedWorld(map, ChunkedWorld.DEFAULT_CHUNK_SIZE);
+            mapLoadProgress = 1;
+            return;
+        }
+        prepareLayers(mapFileLocation, map.layers, map.cols, map.rows);
+        map.readInto(tileMap, progress -> mapLoadProgress = (float) progress);
+        chunkCache.invalidateAll();
+        bakeCollisionMapIfReady();
+        mapLoadProgress = 1;
+    }
+
+    /**
+     * Charge une carte texte depuis sa version binaire (même nom, extension .tmap), si elle
+     * existe et a été convertie depuis le texte actuel : une carte binaire périmée ou illisible
+     * est ignorée, la carte texte fait foi.
+     *
+     * @return true si la carte a été chargée depuis la version binaire
+     */
+    private boolean loadCachedMap(String mapFileLocation) {
+        String cacheLocation = mapFileLocation.substring(0, mapFileLocation.lastIndexOf('.')) + MapFile.EXTENSION;
+        if (getClass().getResource(cacheLocation) == null) {
+            return false;
+        }
+        try {
+            long fingerprint;
+            try (InputStream is = openMap(mapFileLocation)) {
+                fingerprint = MapFile.fingerprint(is);
+            }
+            MapFile cache = MapFile.openResource(cacheLocation);
+            if (cache.sourceFingerprint != fingerprint) {
+                System.err.println("Carte " + cacheLocation + " périmée (" + mapFileLocation
+                        + " a changé depuis sa conversion) : lecture du texte");
+                return false;
+            }
+            readBinaryMap(cacheLocation, cache);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Carte " + cacheLocation + " ignorée : " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Ouvre un fichier de région (.treg) comme monde paginé : seuls les chunks autour
+     * du joueur sont lus et décompressés.
+     *
+     * @param regionLocation chemin vers le fichier de région (dans /resources)
+     */
+    public void loadRegion(String regionLocation) {
+        mapLoadProgress = 0;
+        try {
+            RegionFile region = RegionFile.openResource(regionLocation);
+            try {
+                openChunkedWorld(region, region.chunkSize);
+            } catch (IOException e) {
+                region.close();
+                throw e;
+            }
+            mapLoadProgress = 1;
+        } catch (IOException e) {
+            System.err.println("Région " + regionLocation + " invalide : " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    private InputStream openMap(String mapFileLocation) throws IOException {
+        InputStream is = getClass().getResourceAsStream(mapFileLocation);
+        if (is == null) {
+            throw new IOException("Carte introuvable : " + mapFileLocation);
+        }
+        return is;
+    }
+
+    /**
+     * Adapte la taille des couches à la carte à charger ; les couches absentes du fichier sont vidées.
+     */
+    private void prepareLayers(String mapFileLocation, int layers, int cols, int rows) throws IOException {
+        if (layers > tileMap.getLayerCount()) {
+            throw new IOException(mapFileLocation + " : " + layers + " couches, " + tileMap.getLayerCount() + " au maximum");
+        }
+        if (cols != tileMap.cols || rows != tileMap.rows) {
+            setMapSize(cols, rows);
+        } else if (world != tileMap) {
+            setWorld(tileMap);
+        }
+        for (int layer = layers; layer < tileMap.getLayerCount(); layer++) {
+            tileMap.fillLayer(layer, TileMap.EMPTY);
+        }
+    }
+
+    /**
+     * Dessine les tuiles visibles à l'écran pour une couche donnée.
+     * Seule la fenêtre de colonnes/lignes couverte par la caméra (centrée sur le joueur)
+     * est parcourue : le coût par frame dépend de la taille de l'écran, pas de celle du monde.
+     * Les couches statiques (0 et 1) passent par le cache de chunks : un drawImage par chunk visible.
      *
      * @param g2 contexte graphique
      * @param layer couche à dessiner (0 = sol, 1 = décor, 2 = éléments au-dessus du joueur)
      */
     public void draw(Graphics2D g2, int layer) {
-        int worldCol = 0;
-        int worldRow = 0;
+        // Coin supérieur gauche de la caméra dans le monde (position interpolée du joueur)
+        draw(g2, layer, gp.cameraX, gp.cameraY, gp.tileSize, gp.screenWidth, gp.screenHeight);
+    }
+
+    /**
+     * Dessine les tuiles visibles d'une couche dans un repère de pixels quelconque
+     * (pleine résolution ou résolution native des sprites).
+     *
+     * @param g2 contexte graphique
+     * @param layer couche à dessiner
+     * @param cameraX coin supérieur gauche de la caméra, dans le repère de destination
+     * @param cameraY coin supérieur gauche de la caméra, dans le repère de destination
+     * @param tileSize taille d'une tuile dans le repère de destination
+     * @param viewWidth largeur de la zone visible dans le repère de destination
+     * @param viewHeight hauteur de la zone visible dans le repère de destination
+     */
+    public void draw(Graphics2D g2, int layer, int cameraX, int cameraY, int tileSize, int viewWidth, int viewHeight) {
+        invalidateLoadedChunks();
+        if (useChunkCache && layer < STATIC_LAYERS) {
+            chunkCache.draw(g2, layer, cameraX, cameraY, tileSize, viewWidth, viewHeight);
+            return;
+        }
+
+        TileGrid world = this.world;
 
-        while (worldCol < gp.maxWorldCol && worldRow < gp.maxWorldRow) {
-            int tileNum = mapTileNum[layer][worldCol][worldRow];
+        // Fenêtre de tuiles visibles, bornée aux limites de la carte
+        int startCol = Math.max(0, Math.floorDiv(cameraX, tileSize));
+        int startRow = Math.max(0, Math.floorDiv(cameraY, tileSize));
+        int endCol = Math.min(maxWorldCol - 1, Math.floorDiv(cameraX + viewWidth - 1, tileSize));
+        int endRow = Math.min(maxWorldRow - 1, Math.floorDiv(cameraY + viewHeight - 1, tileSize));
 
-            int worldX = worldCol * gp.tileSize;
-            int worldY = worldRow * gp.tileSize;
+        for (int worldRow = startRow; worldRow <= endRow; worldRow++) {
+            int screenY = worldRow * tileSize - cameraY;
 
-            int screenX = worldX - gp.player.worldx + gp.player.screenX;
-            int screenY = worldY - gp.player.worldy + gp.player.screenY;
+            for (int worldCol = startCol; worldCol <= endCol; worldCol++) {
+                int tileNum = world.getTile(layer, worldCol, worldRow);
 
-            // Dessiner uniquement les tuiles visibles dans l'écran
-            if (worldX + gp.tileSize > gp.player.worldx - gp.player.screenX &&
-                    worldX - gp.tileSize < gp.player.worldx + gp.player.screenX &&
-                    worldY + gp.tileSize > gp.player.worldy - gp.player.screenY &&
-                    worldY - gp.tileSize < gp.player.worldy + gp.player.screenY) {
                 if (tileNum >= 0) {
-                    g2.drawImage(tileTypes[tileNum].image, screenX, screenY, gp.tileSize, gp.tileSize, null);
+                    int screenX = worldCol * tileSize - cameraX;
+                    g2.drawImage(tileTypes[tileNum].image, screenX, screenY, tileSize, tileSize, null);
                 }
             }
+        }
+    }
 
-            worldCol++;
-            if (worldCol == gp.maxWorldCol) {
-                worldCol = 0;
-                worldRow++;
+    /**
+     * Recuit les images des cases modifiées par setTile et des zones d'un monde paginé
+     * chargées ou modifiées depuis la dernière frame (elles ont pu être cuites vides
+     * avant l'arrivée de leurs tuiles).
+     */
+    private void invalidateLoadedChunks() {
+        Long changed;
+        while ((changed = changedTiles.poll()) != null) {
+            for (int layer = 0; layer < STATIC_LAYERS; layer++) {
+                chunkCache.invalidateTile(layer, (int) (changed >>> 32), (int) (long) changed);
+            }
+        }
+        if (world instanceof ChunkedWorld chunked) {
+            int index;
+            while ((index = chunked.pollChangedChunk()) >= 0) {
+                chunkCache.invalidateArea(chunked.chunkFirstCol(index), chunked.chunkFirstRow(index),
+                        chunked.chunkSize, chunked.chunkSize);
             }
         }
     }
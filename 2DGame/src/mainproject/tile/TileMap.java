@@ -0,0 +1,117 @@
+package mainproject.tile;
+
+import java.util.Arrays;
+
+/**
+ * Stockage compact des tuiles de la carte.
+ * Chaque couche est un seul tableau de short contigu, rangé ligne par ligne (row-major) :
+ * l'index de la tuile (col, row) est row * cols + col, dans l'ordre où draw() parcourt la carte.
+ * Deux fois plus petit qu'un int[couche][colonne][ligne] et sans indirection par colonne.
+ * Sert aussi de chunk aux mondes paginés (ChunkedWorld).
+ */
+public final class TileMap implements TileGrid, ChunkSource {
+
+    /** Case sans tuile */
+    public static final int EMPTY = -1;
+
+    /** Dimensions de la carte (en tuiles) */
+    public final int cols, rows;
+
+    /** Tuiles de chaque couche, ligne par ligne */
+    private final short[][] layers;
+
+    /**
+     * Crée une carte vide (toutes les cases à 0).
+     *
+     * @param layerCount nombre de couches
+     * @param cols nombre de colonnes
+     * @param rows nombre de lignes
+     */
+    public TileMap(int layerCount, int cols, int rows) {
+        this.cols = cols;
+        this.rows = rows;
+        layers = new short[layerCount][cols * rows];
+    }
+
+    @Override
+    public int getCols() {
+        return cols;
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public int getLayerCount() {
+        return layers.length;
+    }
+
+    /**
+     * Numéro de la tuile (col, row) d'une couche (EMPTY si la case est vide).
+     */
+    @Override
+    public int getTile(int layer, int col, int row) {
+        return layers[layer][row * cols + col];
+    }
+
+    @Override
+    public void setTile(int layer, int col, int row, int tile) {
+        layers[layer][row * cols + col] = toShort(tile);
+    }
+
+    /**
+     * Tableau brut d'une couche, pour les parcours rapides (index = row * cols + col).
+     */
+    public short[] layer(int layer) {
+        return layers[layer];
+    }
+
+    /** Index de la case (col, row) dans le tableau d'une couche */
+    public int index(int col, int row) {
+        return row * cols + col;
+    }
+
+    @Override
+    public boolean isInBounds(int col, int row) {
+        return col >= 0 && col < cols && row >= 0 && row < rows;
+    }
+
+    /**
+     * Copie une zone de la carte (sert de source pour écrire un fichier de région).
+     */
+    @Override
+    public void readChunk(int firstCol, int firstRow, TileMap target) {
+        for (int layer = 0; layer < target.getLayerCount(); layer++) {
+            short[] targetTiles = target.layer(layer);
+            if (layer >= layers.length) {
+                Arrays.fill(targetTiles, (short) EMPTY);
+                continue;
+            }
+            for (int row = 0; row < target.rows; row++) {
+                System.arraycopy(layers[layer], index(firstCol, firstRow + row), targetTiles, row * target.cols, target.cols);
+            }
+        }
+    }
+
+    /** Remplit toute une couche avec la même tuile */
+    public void fillLayer(int layer, int tile) {
+        Arrays.fill(layers[layer], toShort(tile));
+    }
+
+    /** Mémoire occupée par les tuiles (en octets) */
+    public long memoryBytes() {
+        return (long) layers.length * cols * rows * Short.BYTES;
+    }
+
+    /**
+     * Vérifie qu'un numéro de tuile tient dans un short.
+     */
+    static short toShort(int tile) {
+        if (tile < Short.MIN_VALUE || tile > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Numéro de tuile hors limites : " + tile);
+        }
+        return (short) tile;
+    }
+}
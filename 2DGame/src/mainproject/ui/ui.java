@@ -12,7 +12,10 @@
  */
 package mainproject.ui;
 
+import mainproject.AssetManager;
 import mainproject.GamePanel;
+import mainproject.RenderSnapshot;
+import mainproject.animation.AnimationClip;
 
 import javax.sound.sampled.*;
 import java.awt.*;
@@ -21,7 +24,6 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
-import javax.imageio.ImageIO;
 
 public class ui {
     // ╔══════════════════════════════════════╗
@@ -29,12 +31,21 @@ public class ui {
     // ╚══════════════════════════════════════╝
     // Ces champs sont utilisés pour gérer les éléments de base de l'interface utilisateur.
 
+    /** Chemin de la police Minecraftia (préchargée au démarrage par GamePanel). */
+    public static final String FONT_PATH = "/fonts/Minecraftia-Regular.ttf";
+
+    /** Chemin de la musique de fond (préchargée au démarrage par GamePanel). */
+    public static final String MUSIC_PATH = "/audio/Trap.wav";
+
     /** Référence au GamePanel principal pour accéder à ses propriétés (taille de l'écran, état du jeu, etc.). */
     GamePanel gp;
 
     /** Contexte graphique utilisé pour dessiner tous les éléments visuels de l'interface (boutons, texte, images, etc.). */
     Graphics2D g2;
 
+    /** Capture du tick en cours de dessin : les méthodes de dessin ne lisent que ses valeurs, jamais les champs animés. */
+    private RenderSnapshot frame;
+
     /** Police personnalisée pour le titre principal (ex. "Gorilla") avec une taille de 72. */
     Font titleFont;
 
@@ -62,6 +73,9 @@ public class ui {
     /** État de la musique (true = activée, false = désactivée). Par défaut, la musique est activée. */
     private boolean musicEnabled = true;
 
+    /** Musique voulue au dernier tick : updateMusic() ne démarre ou n'arrête le clip qu'à un changement. */
+    private boolean musicWanted = false;
+
     /** Langue de l'interface ("fr" pour français, "en" pour anglais). Par défaut, français. */
     private String language = "fr";
 
@@ -248,52 +262,23 @@ public class ui {
      */
     public void SetPlayerWalkingToTheRight() {
         try {
-            // Affiche un message indiquant le début du chargement du premier sprite.
-            System.out.println("ECRAN D'ACCEUIL CHARGEMENT DU PERSONNAGE PRINCIPAL [ 1/6 ] ");
-
-            // Charge le premier sprite depuis le fichier /player/row-5-column-1.png.
-            BufferedImage gauche1 = ImageIO.read(getClass().getResourceAsStream("/player/row-5-column-1.png"));
-
-            // Confirme que le chargement du premier sprite a réussi.
-            System.out.println(" CHARGEMENT [ 1/6 ] ----------> SUCCES ");
-
-            // Affiche un message pour le deuxième sprite.
-            System.out.println("ECRAN D'ACCEUIL CHARGEMENT DU PERSONNAGE PRINCIPAL [ 2/6 ] ");
-
-            // Charge le deuxième sprite.
-            BufferedImage gauche2 = ImageIO.read(getClass().getResourceAsStream("/player/row-5-column-2.png"));
-            System.out.println(" CHARGEMENT [ 2/6 ] ----------> SUCCES ");
-
-            // Affiche un message pour le troisième sprite.
-            System.out.println("ECRAN D'ACCEUIL CHARGEMENT DU PERSONNAGE PRINCIPAL [ 3/6 ] ");
-
-            // Charge le troisième sprite.
-            BufferedImage gauche3 = ImageIO.read(getClass().getResourceAsStream("/player/row-5-column-3.png"));
-            System.out.println(" CHARGEMENT [ 3/6 ] ----------> SUCCES ");
-
-            // Affiche un message pour le quatrième sprite.
-            System.out.println("ECRAN D'ACCEUIL CHARGEMENT DU PERSONNAGE PRINCIPAL [ 4/6 ] ");
-
-            // Charge le quatrième sprite.
-            BufferedImage gauche4 = ImageIO.read(getClass().getResourceAsStream("/player/row-5-column-4.png"));
-            System.out.println(" CHARGEMENT [ 4/6 ] ----------> SUCCES ");
-
-            // Affiche un message pour le cinquième sprite.
-            System.out.println("ECRAN D'ACCEUIL CHARGEMENT DU PERSONNAGE PRINCIPAL [ 5/6 ] ");
-
-            // Charge le cinquième sprite.
-            BufferedImage gauche5 = ImageIO.read(getClass().getResourceAsStream("/player/row-5-column-5.png"));
-            System.out.println(" CHARGEMENT [ 5/6 ] ----------> SUCCES ");
-
-            // Affiche un message pour le sixième sprite.
-            System.out.println("ECRAN D'ACCEUIL CHARGEMENT DU PERSONNAGE PRINCIPAL [ 6/6 ] ");
-
-            // Charge le sixième sprite.
-            BufferedImage gauche6 = ImageIO.read(getClass().getResourceAsStream("/player/row-5-column-6.png"));
-            System.out.println(" CHARGEMENT [ 6/6 ] ----------> SUCCES ");
+            // Les images et la cadence de la course sont décrites par le clip "titre.course".
+            AnimationClip clip = gp.animations.get(PlayerCharacter.CLIP);
+            int count = clip.frameCount();
+            BufferedImage[] frames = new BufferedImage[count];
+            for (int i = 0; i < count; i++) {
+                // Affiche un message indiquant le début du chargement du sprite.
+                System.out.println("ECRAN D'ACCEUIL CHARGEMENT DU PERSONNAGE PRINCIPAL [ " + (i + 1) + "/" + count + " ] ");
+
+                // Charge le sprite en 48x48 pixels.
+                frames[i] = gp.imageCache.get(clip.framePaths[i], 48, 48);
+
+                // Confirme que le chargement du sprite a réussi.
+                System.out.println(" CHARGEMENT [ " + (i + 1) + "/" + count + " ] ----------> SUCCES ");
+            }
 
-            // Passe les six sprites chargés au personnage (ils seront inversés pour marcher à gauche).
-            playerCharacter.setSprites(new BufferedImage[]{gauche1, gauche2, gauche3, gauche4, gauche5, gauche6});
+            // Passe les sprites chargés au personnage (ils seront inversés pour marcher à gauche).
+            playerCharacter.setSprites(frames);
 
         } catch (Exception e) {
             // En cas d'erreur (fichier non trouvé, etc.), affiche un message d'erreur et lève une exception.
@@ -311,12 +296,8 @@ public class ui {
      */
     private void loadFonts() {
         try {
-            // Charge la police depuis le fichier de ressources.
-            Font baseFont = Font.createFont(Font.TRUETYPE_FONT, getClass().getResourceAsStream("/fonts/Minecraftia-Regular.ttf"));
-
-            // Enregistre la police dans l'environnement graphique pour qu'elle soit utilisable.
-            GraphicsEnvironment ge = GraphicsEnvironment.getLocalGraphicsEnvironment();
-            ge.registerFont(baseFont);
+            // Charge la police depuis le registre des ressources (chargée et enregistrée une seule fois).
+            Font baseFont = gp.assets.getFont(FONT_PATH);
 
             // Dérive la police pour le titre avec une taille de 72.
             titleFont = baseFont.deriveFont(72f);
@@ -356,16 +337,14 @@ public class ui {
             // Affiche un message pour indiquer le début du chargement de la musique.
             System.out.println("Tentative de chargement de la musique : /audio/Trap.wav");
 
-            // Charge le flux audio depuis le fichier WAV.
-            AudioInputStream audioStream = AudioSystem.getAudioInputStream(
-                    getClass().getResourceAsStream("/audio/Trap.wav")
-            );
+            // Récupère le son décodé depuis le registre des ressources (fichier WAV lu une seule fois).
+            AssetManager.Sound music = gp.assets.getSound(MUSIC_PATH);
 
             // Crée un clip audio pour jouer la musique.
             musicClip = AudioSystem.getClip();
 
-            // Ouvre le flux audio dans le clip.
-            musicClip.open(audioStream);
+            // Ouvre les échantillons décodés dans le clip.
+            musicClip.open(music.format, music.data, 0, music.data.length);
 
             // Met à jour le volume initial du clip en fonction de volumeLevel.
             updateVolume();
@@ -390,13 +369,13 @@ public class ui {
     private void loadBackground() {
         try {
             // Charge l'image du ciel depuis /tiles/sky.png.
-            backgroundSky = ImageIO.read(getClass().getResourceAsStream("/tiles/sky.png"));
+            backgroundSky = gp.imageCache.get("/tiles/sky.png", gp.screenWidth, gp.screenHeight);
 
             // Charge l'image des montagnes depuis /tiles/mountains.png.
-            backgroundMountains = ImageIO.read(getClass().getResourceAsStream("/tiles/mountains.png"));
+            backgroundMountains = gp.imageCache.get("/tiles/mountains.png", gp.screenWidth, 200);
 
             // Charge l'image du sol depuis /tiles/sol_vert.png.
-            backgroundGround = ImageIO.read(getClass().getResourceAsStream("/tiles/herbe-motif-1.png"));
+            backgroundGround = gp.imageCache.get("/tiles/herbe-motif-1.png", gp.tileSize, gp.tileSize);
 
             // Confirme que les images de fond ont été chargées avec succès.
             System.out.println("Fonds d'écran chargés avec succès");
@@ -515,18 +494,13 @@ public class ui {
 
     /**
      * ╔══════════════════════════════════════╗
-     * ║    MÉTHODE : draw                    ║
+     * ║    MÉTHODE : update                  ║
      * ╚══════════════════════════════════════╝
-     * Dessine l'interface utilisateur en fonction de l'état du jeu.
-     * Met à jour les animations (parallax, particules, titre, personnage) avant de dessiner.
-     *
-     * @param g2 Le contexte graphique pour dessiner.
+     * Met à jour les animations de l'interface (parallax, particules, titre, personnage).
+     * Appelée une fois par tick de simulation, pour que leur vitesse ne dépende pas
+     * de la cadence d'affichage.
      */
-    public void draw(Graphics2D g2) {
-        // Assigne le contexte graphique à la variable d'instance pour l'utiliser dans les méthodes de dessin.
-        this.g2 = g2;
-
-        // Met à jour les animations avant de dessiner.
+    public void update() {
         // Met à jour les décalages des couches de fond pour l'effet parallax.
         updateParallax();
 
@@ -538,25 +512,102 @@ public class ui {
 
         // Met à jour la position et l'animation du personnage.
         playerCharacter.update();
+    }
 
-        // Dessine l'écran approprié en fonction de l'état du jeu.
-        if (gp.Game_state == gp.Start_screen) {
-            // Si l'état est Start_screen, dessine l'écran titre et joue la musique.
-            drawTitleScreen();
-            playMusic();
-        } else if (gp.Game_state == gp.settings_screen) {
-            // Si l'état est settings_screen, dessine l'écran des paramètres et joue la musique.
-            drawSettingsScreen();
+    /**
+     * ╔══════════════════════════════════════╗
+     * ║    MÉTHODE : updateMusic             ║
+     * ╚══════════════════════════════════════╝
+     * Démarre la musique sur l'écran titre et les paramètres, l'arrête ailleurs ou si elle est désactivée.
+     * Appelée à chaque tick par le thread de simulation, le seul qui touche au clip.
+     *
+     * @param gameState État du jeu à la fin du tick.
+     */
+    public void updateMusic(int gameState) {
+        boolean wanted = musicEnabled && (gameState == gp.Start_screen || gameState == gp.settings_screen);
+        if (wanted == musicWanted) {
+            return;
+        }
+        musicWanted = wanted;
+        if (wanted) {
             playMusic();
         } else {
-            // Si l'état n'est ni Start_screen ni settings_screen, arrête la musique.
             stopMusic();
         }
+    }
+
+    /**
+     * ╔══════════════════════════════════════╗
+     * ║    MÉTHODE : capture                 ║
+     * ╚══════════════════════════════════════╝
+     * Copie dans la capture du tick tout ce que dessinent l'écran titre et les paramètres
+     * (fond, particules, titre, personnage, réglages, chargement du monde).
+     * Appelée par le thread de simulation : le thread de rendu ne lit ensuite que la capture.
+     *
+     * @param snapshot La capture en cours de remplissage.
+     */
+    public void capture(RenderSnapshot snapshot) {
+        snapshot.skyOffset = (int) skyOffset;
+        snapshot.mountainsOffset = (int) mountainsOffset;
+        snapshot.groundOffset = (int) groundOffset;
+
+        int count = particles.size();
+        if (snapshot.particleX.length < count) {
+            snapshot.particleX = new int[count];
+            snapshot.particleY = new int[count];
+            snapshot.particleSize = new int[count];
+        }
+        for (int i = 0; i < count; i++) {
+            Particle particle = particles.get(i);
+            snapshot.particleX[i] = (int) particle.x;
+            snapshot.particleY[i] = (int) particle.y;
+            snapshot.particleSize[i] = particle.size;
+        }
+        snapshot.particleCount = count;
+
+        snapshot.titleShakeX = titleShakeX;
+        snapshot.titleShakeY = titleShakeY;
+        snapshot.characterX = (int) playerCharacter.x;
+        snapshot.characterY = (int) playerCharacter.y;
+        snapshot.characterFrame = gp.animator.frame(playerCharacter.animation);
+
+        snapshot.settingsButtonHovered = settingsButtonHovered;
+        snapshot.volumeKnobX = volumeSliderKnob.x;
+        snapshot.brightnessKnobX = brightnessSliderKnob.x;
+        snapshot.brightnessLevel = brightnessLevel;
+        snapshot.musicEnabled = musicEnabled;
+        snapshot.language = language;
+        snapshot.worldLoaded = gp.isWorldLoaded();
+        snapshot.worldLoadProgress = gp.getWorldLoadProgress();
+    }
 
-        // Applique un effet de luminosité (assombrissement de l'écran) si brightnessLevel est inférieur à 1.0.
-        if (brightnessLevel < 1.0f) {
+    /**
+     * ╔══════════════════════════════════════╗
+     * ║    MÉTHODE : draw                    ║
+     * ╚══════════════════════════════════════╝
+     * Dessine l'écran de la capture (titre ou paramètres).
+     * Appelée par le thread de rendu : seules les valeurs de la capture sont lues,
+     * les animations et la musique sont gérées par update() et updateMusic().
+     *
+     * @param g2 Le contexte graphique pour dessiner.
+     * @param snapshot La dernière capture publiée par la simulation.
+     */
+    public void draw(Graphics2D g2, RenderSnapshot snapshot) {
+        // Assigne le contexte graphique et la capture pour les utiliser dans les méthodes de dessin.
+        this.g2 = g2;
+        this.frame = snapshot;
+
+        // Dessine l'écran approprié en fonction de l'état du jeu capturé.
+        if (snapshot.gameState == gp.Start_screen) {
+            drawTitleScreen();
+        } else if (snapshot.gameState == gp.settings_screen) {
+            drawSettingsScreen();
+        }
+
+        // Applique un effet de luminosité (assombrissement de l'écran) si la luminosité est inférieure à 1.0.
+        if (snapshot.brightnessLevel < 1.0f) {
             // Calcule l'opacité de l'assombrissement (0 = transparent, 255 = noir).
-            g2.setColor(new Color(0, 0, 0, (int) ((1.0f - brightnessLevel) * 255)));
+            g2.setColor(new Color(0, 0, 0, (int) ((1.0f - snapshot.brightnessLevel) * 255)));
 
             // Dessine un rectangle noir semi-transparent sur tout l'écran.
             g2.fillRect(0, 0, gp.screenWidth, gp.screenHeight);
@@ -646,33 +697,33 @@ public class ui {
     public void drawTitleScreen() {
         // Dessine le ciel avec l'effet parallax.
         if (backgroundSky != null) {
-            // Dessine l'image du ciel à la position actuelle (skyOffset).
-            g2.drawImage(backgroundSky, (int) skyOffset, 0, gp.screenWidth, gp.screenHeight, null);
+            // Dessine l'image du ciel à la position capturée.
+            g2.drawImage(backgroundSky, frame.skyOffset, 0, gp.screenWidth, gp.screenHeight, null);
 
             // Dessine une deuxième instance de l'image juste à droite pour créer un défilement continu.
-            g2.drawImage(backgroundSky, (int) skyOffset + gp.screenWidth, 0, gp.screenWidth, gp.screenHeight, null);
+            g2.drawImage(backgroundSky, frame.skyOffset + gp.screenWidth, 0, gp.screenWidth, gp.screenHeight, null);
         }
 
         // Dessine les montagnes avec l'effet parallax.
         if (backgroundMountains != null) {
             // Positionne les montagnes à mi-hauteur de l'écran, ajustée de -100 pixels.
-            g2.drawImage(backgroundMountains, (int) mountainsOffset, gp.screenHeight / 2 - 100, gp.screenWidth, 200, null);
+            g2.drawImage(backgroundMountains, frame.mountainsOffset, gp.screenHeight / 2 - 100, gp.screenWidth, 200, null);
 
             // Dessine une deuxième instance des montagnes pour le défilement continu.
-            g2.drawImage(backgroundMountains, (int) mountainsOffset + gp.screenWidth, gp.screenHeight / 2 - 100, gp.screenWidth, 200, null);
+            g2.drawImage(backgroundMountains, frame.mountainsOffset + gp.screenWidth, gp.screenHeight / 2 - 100, gp.screenWidth, 200, null);
         }
 
         // Dessine le sol avec l'effet parallax.
         if (backgroundGround != null) {
-            // Dessine le sol en mosaïque (tuiles) à partir de la position groundOffset.
-            for (int x = (int) groundOffset; x < gp.screenWidth; x += gp.tileSize) {
+            // Dessine le sol en mosaïque (tuiles) à partir de la position capturée.
+            for (int x = frame.groundOffset; x < gp.screenWidth; x += gp.tileSize) {
                 for (int y = gp.screenHeight - gp.tileSize; y < gp.screenHeight; y += gp.tileSize) {
                     g2.drawImage(backgroundGround, x, y, gp.tileSize, gp.tileSize, null);
                 }
             }
 
             // Dessine une deuxième instance du sol pour le défilement continu.
-            for (int x = (int) groundOffset + gp.screenWidth; x < gp.screenWidth + gp.tileSize; x += gp.tileSize) {
+            for (int x = frame.groundOffset + gp.screenWidth; x < gp.screenWidth + gp.tileSize; x += gp.tileSize) {
                 for (int y = gp.screenHeight - gp.tileSize; y < gp.screenHeight; y += gp.tileSize) {
                     g2.drawImage(backgroundGround, x, y, gp.tileSize, gp.tileSize, null);
                 }
@@ -680,22 +731,23 @@ public class ui {
         }
 
         // Dessine le personnage animé sur les montagnes.
-        playerCharacter.draw(g2);
+        playerCharacter.draw(g2, frame);
 
-        // Dessine toutes les particules flottantes.
-        for (Particle particle : particles) {
-            particle.draw(g2);
+        // Dessine toutes les particules flottantes (carrés blancs avec une opacité de 150/255).
+        g2.setColor(new Color(255, 255, 255, 150));
+        for (int i = 0; i < frame.particleCount; i++) {
+            g2.fillRect(frame.particleX[i], frame.particleY[i], frame.particleSize[i], frame.particleSize[i]);
         }
 
         // Dessine le titre avec l'effet de tremblement.
         g2.setFont(titleFont);
-        String title = language.equals("fr") ? "Gorilla" : "Gorilla";
+        String title = frame.language.equals("fr") ? "Gorilla" : "Gorilla";
 
         // Calcule la position X pour centrer le titre, en ajoutant le décalage de tremblement.
-        int x = getXforCenteredText(title) + titleShakeX;
+        int x = getXforCenteredText(title) + frame.titleShakeX;
 
         // Positionne le titre à 1/4 de la hauteur de l'écran, avec le décalage de tremblement.
-        int y = gp.screenHeight / 4 + titleShakeY;
+        int y = gp.screenHeight / 4 + frame.titleShakeY;
 
         // Dessine une ombre noire pour le titre (décalée de 4 pixels en bas à droite).
         g2.setColor(Color.BLACK);
@@ -705,9 +757,14 @@ public class ui {
         g2.setColor(new Color(200, 200, 200));
         g2.drawString(title, x, y);
 
-        // Dessine le texte "Appuyez sur ENTER pour jouer".
+        // Dessine le texte "Appuyez sur ENTER pour jouer" (ou l'avancement du chargement du monde).
         g2.setFont(menuFont);
-        String startText = language.equals("fr") ? "Appuyez sur ENTER pour jouer" : "Press ENTER to Play";
+        String startText = frame.language.equals("fr") ? "Appuyez sur ENTER pour jouer" : "Press ENTER to Play";
+        if (!frame.worldLoaded) {
+            int percent = (int) (frame.worldLoadProgress * 100);
+            startText = (frame.language.equals("fr") ? "Chargement... " : "Loading... ") + percent + "%";
+            drawLoadingBar(frame.worldLoadProgress);
+        }
 
         // Centre le texte horizontalement.
         x = getXforCenteredText(startText);
@@ -724,7 +781,30 @@ public class ui {
         g2.drawString(startText, x, y);
 
         // Dessine le bouton "Paramètres" avec un effet de survol (change de couleur si survolé).
-        drawButton(settingsButton, language.equals("fr") ? "Paramètres" : "Settings", settingsButtonHovered);
+        drawButton(settingsButton, frame.language.equals("fr") ? "Paramètres" : "Settings", frame.settingsButtonHovered);
+    }
+
+    /**
+     * ╔══════════════════════════════════════╗
+     * ║    MÉTHODE : drawLoadingBar          ║
+     * ╚══════════════════════════════════════╝
+     * Dessine une barre d'avancement du chargement du monde, sous le texte central de l'écran titre.
+     *
+     * @param progress Avancement du chargement, de 0 à 1.
+     */
+    private void drawLoadingBar(float progress) {
+        int width = 300;
+        int height = 8;
+        int x = gp.screenWidth / 2 - width / 2;
+        int y = gp.screenHeight / 2 + 16;
+
+        // Fond sombre de la barre.
+        g2.setColor(new Color(0, 0, 0, 150));
+        g2.fillRect(x, y, width, height);
+
+        // Partie déjà chargée.
+        g2.setColor(new Color(220, 220, 220));
+        g2.fillRect(x, y, (int) (width * progress), height);
     }
 
     /**
@@ -766,7 +846,7 @@ public class ui {
 
         // Dessine le titre "Paramètres".
         g2.setFont(titleFont);
-        String title = language.equals("fr") ? "Paramètres" : "Settings";
+        String title = frame.language.equals("fr") ? "Paramètres" : "Settings";
 
         // Centre le titre horizontalement.
         int x = getXforCenteredText(title);
@@ -786,7 +866,7 @@ public class ui {
         g2.setFont(menuFont);
 
         // Dessine le texte et le slider de volume.
-        String volumeText = language.equals("fr") ? "Volume :" : "Volume:";
+        String volumeText = frame.language.equals("fr") ? "Volume :" : "Volume:";
 
         // Positionne le texte à gauche du slider.
         x = gp.screenWidth / 2 - 250;
@@ -797,10 +877,10 @@ public class ui {
         g2.drawString(volumeText, x, y);
 
         // Dessine le slider de volume avec sa poignée.
-        drawSlider(volumeSlider, volumeSliderKnob);
+        drawSlider(volumeSlider, volumeSliderKnob, frame.volumeKnobX);
 
         // Dessine le texte et le slider de luminosité.
-        String brightnessText = language.equals("fr") ? "Luminosité :" : "Brightness:";
+        String brightnessText = frame.language.equals("fr") ? "Luminosité :" : "Brightness:";
 
         // Positionne le texte à gauche du slider.
         x = gp.screenWidth / 2 - 250;
@@ -811,16 +891,16 @@ public class ui {
         g2.drawString(brightnessText, x, y);
 
         // Dessine le slider de luminosité avec sa poignée.
-        drawSlider(brightnessSlider, brightnessSliderKnob);
+        drawSlider(brightnessSlider, brightnessSliderKnob, frame.brightnessKnobX);
 
         // Dessine le bouton pour activer/désactiver la musique.
-        drawButton(musicToggleButton, language.equals("fr") ? "Musique : " + (musicEnabled ? "ON" : "OFF") : "Music: " + (musicEnabled ? "ON" : "OFF"), false);
+        drawButton(musicToggleButton, frame.language.equals("fr") ? "Musique : " + (frame.musicEnabled ? "ON" : "OFF") : "Music: " + (frame.musicEnabled ? "ON" : "OFF"), false);
 
         // Dessine le bouton pour changer la langue.
-        drawButton(languageButton, language.equals("fr") ? "Langue : Français" : "Language: English", false);
+        drawButton(languageButton, frame.language.equals("fr") ? "Langue : Français" : "Language: English", false);
 
         // Dessine le bouton "Retour".
-        drawButton(backButton, language.equals("fr") ? "Retour" : "Back", false);
+        drawButton(backButton, frame.language.equals("fr") ? "Retour" : "Back", false);
     }
 
     /**
@@ -873,9 +953,10 @@ public class ui {
      * Dessine un slider avec sa poignée, avec un effet 3D.
      *
      * @param slider Le rectangle du slider (barre horizontale).
-     * @param knob   Le rectangle de la poignée (déplaçable).
+     * @param knob   Le rectangle de la poignée (taille et hauteur).
+     * @param knobX  Position X de la poignée, capturée au dernier tick.
      */
-    private void drawSlider(Rectangle slider, Rectangle knob) {
+    private void drawSlider(Rectangle slider, Rectangle knob, int knobX) {
         // Dessine une ombre grise foncée pour le slider (décalée de 2 pixels en bas à droite).
         g2.setColor(new Color(80, 80, 80));
         g2.fillRect(slider.x + 2, slider.y + 2, slider.width, slider.height);
@@ -890,15 +971,15 @@ public class ui {
 
         // Dessine une ombre grise claire pour la poignée (décalée de 2 pixels en bas à droite).
         g2.setColor(new Color(150, 150, 150));
-        g2.fillRect(knob.x + 2, knob.y + 2, knob.width, knob.height);
+        g2.fillRect(knobX + 2, knob.y + 2, knob.width, knob.height);
 
         // Dessine la base de la poignée en gris très clair.
         g2.setColor(new Color(200, 200, 200));
-        g2.fillRect(knob.x, knob.y, knob.width, knob.height);
+        g2.fillRect(knobX, knob.y, knob.width, knob.height);
 
         // Dessine une bordure grise autour de la poignée.
         g2.setColor(new Color(100, 100, 100));
-        g2.drawRect(knob.x, knob.y, knob.width, knob.height);
+        g2.drawRect(knobX, knob.y, knob.width, knob.height);
     }
 
     /**
@@ -934,17 +1015,8 @@ public class ui {
             }
             // Vérifie si le clic est sur le bouton pour activer/désactiver la musique.
             else if (musicToggleButton.contains(x, y)) {
-                // Bascule l'état de la musique (ON/OFF).
+                // Bascule l'état de la musique (ON/OFF) : updateMusic() la démarre ou l'arrête à la fin du tick.
                 musicEnabled = !musicEnabled;
-
-                // Si la musique est activée, la joue.
-                if (musicEnabled) {
-                    playMusic();
-                }
-                // Sinon, l'arrête.
-                else {
-                    stopMusic();
-                }
             }
             // Vérifie si le clic est sur le bouton pour changer la langue.
             else if (languageButton.contains(x, y)) {
@@ -1151,22 +1223,6 @@ public class ui {
             // Déplace la particule verticalement en ajoutant sa vitesse Y (chute).
             y += speedY;
         }
-
-        /**
-         * ╔══════════════════════╗
-         * ║    MÉTHODE : draw    ║
-         * ╚══════════════════════╝
-         * Dessine la particule à l'écran sous forme d'un carré blanc semi-transparent.
-         *
-         * @param g2 Le contexte graphique pour dessiner.
-         */
-        void draw(Graphics2D g2) {
-            // Définit la couleur de la particule (blanc avec une opacité de 150/255).
-            g2.setColor(new Color(255, 255, 255, 150));
-
-            // Dessine un carré à la position de la particule avec la taille définie.
-            g2.fillRect((int) x, (int) y, size, size);
-        }
     }
 
     /**
@@ -1185,11 +1241,11 @@ public class ui {
         /** Tableau des sprites pour l'animation de marche du personnage. */
         private BufferedImage[] sprites;
 
-        /** Index du sprite actuel dans l'animation (de 0 à sprites.length - 1). */
-        private int spriteIndex = 0;
+        /** Clip d'animation de la course (voir res/animations/clips.txt). */
+        static final String CLIP = "titre.course";
 
-        /** Timer pour gérer la vitesse de l'animation (change de sprite toutes les 0.2 secondes). */
-        private double animationTimer = 0;
+        /** Emplacement du personnage dans le lecteur d'animations (clip joué et position dans le clip). */
+        private final int animation;
 
         /** Position X du personnage sur l'écran. */
         private float x;
@@ -1213,6 +1269,9 @@ public class ui {
 
             // Positionne le personnage sur les montagnes (ajusté pour la hauteur du sprite, 48 pixels).
             y = gp.screenHeight / 2 - 100 + 100 - 48;
+
+            // L'animation avance avec celles des autres entités (Animator.update à chaque tick).
+            animation = gp.animator.add(gp.animations.id(CLIP));
         }
 
         /**
@@ -1267,8 +1326,8 @@ public class ui {
          * ╔══════════════════════╗
          * ║    MÉTHODE : update  ║
          * ╚══════════════════════╝
-         * Met à jour la position et l'animation du personnage.
-         * Déplace le personnage vers la gauche et gère l'animation des sprites.
+         * Met à jour la position du personnage : le déplace vers la gauche.
+         * Son animation est avancée par le lecteur d'animations du jeu.
          */
         public void update() {
             // Déplace le personnage vers la gauche en soustrayant sa vitesse.
@@ -1278,33 +1337,25 @@ public class ui {
             if (x < -48) { // 48 est la largeur du sprite.
                 x = gp.screenWidth;
             }
-
-            // Met à jour le timer d'animation.
-            animationTimer += 0.1;
-
-            // Si le timer atteint 0.2 secondes, change de sprite.
-            if (animationTimer >= 0.2) {
-                // Passe au sprite suivant (boucle sur la longueur du tableau).
-                spriteIndex = (spriteIndex + 1) % sprites.length;
-
-                // Réinitialise le timer.
-                animationTimer = 0;
-            }
         }
 
         /**
          * ╔══════════════════════╗
          * ║    MÉTHODE : draw    ║
          * ╚══════════════════════╝
-         * Dessine le personnage à l'écran en utilisant le sprite actuel.
+         * Dessine le personnage à la position et sur la frame capturées au dernier tick.
          *
          * @param g2 Le contexte graphique pour dessiner.
+         * @param snapshot La capture en cours de dessin.
          */
-        public void draw(Graphics2D g2) {
+        public void draw(Graphics2D g2, RenderSnapshot snapshot) {
+            // Frame du clip de course capturée au dernier tick.
+            int spriteIndex = snapshot.characterFrame;
+
             // Vérifie que les sprites sont initialisés et que l'index est valide.
             if (sprites != null && spriteIndex < sprites.length) {
-                // Dessine le sprite actuel à la position (x, y) avec une taille de 48x48 pixels.
-                g2.drawImage(sprites[spriteIndex], (int) x, (int) y, 48, 48, null);
+                // Dessine le sprite actuel à la position capturée avec une taille de 48x48 pixels.
+                g2.drawImage(sprites[spriteIndex], snapshot.characterX, snapshot.characterY, 48, 48, null);
             }
         }
     }